@@ -0,0 +1,80 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.BookingSystemApplication;
+import com.booking.system.service.OccupancyCalendar;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application against a fresh in-memory database and seeds it through JDBC batches.
+ * <p>
+ * Every property gets {@code bookingsPerProperty} bookings laid out in consecutive slots of {@link #SLOT_NIGHTS}
+ * nights starting tomorrow; {@code density} is the share of each slot that is booked, so a random range
+ * conflicts more often as it grows. Property ids are {@code 1..properties}, guest ids {@code 1..guests}.
+ */
+final class BookingDataset {
+
+    static final int SLOT_NIGHTS = 7;
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BookingDataset() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BookingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+    }
+
+    static void seed(ConfigurableApplicationContext context, int properties, int guests, int bookingsPerProperty, double density) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        batch(jdbc, "INSERT INTO property (name, type, lock_mode, version) VALUES (?, 'HOUSE', 'PESSIMISTIC', 0)",
+                properties, i -> new Object[]{"Property " + i});
+        batch(jdbc, "INSERT INTO guest (name, email, version) VALUES (?, ?, 0)",
+                guests, i -> new Object[]{"Guest " + i, "guest" + i + "@example.com"});
+
+        int bookedNights = Math.max(1, Math.min(SLOT_NIGHTS, (int) Math.round(SLOT_NIGHTS * density)));
+        LocalDate firstNight = LocalDate.now().plusDays(1);
+        int bookings = properties * bookingsPerProperty;
+        batch(jdbc, "INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status, version) VALUES (?, ?, ?, ?, ?, 'BOOKED', 0)",
+                bookings, i -> {
+                    LocalDate start = firstNight.plusDays((long) (i / properties) * SLOT_NIGHTS);
+                    return new Object[]{i + 1L, i % properties + 1L, i % guests + 1L,
+                            Date.valueOf(start), Date.valueOf(start.plusDays(bookedNights))};
+                });
+        // Leave room for the pooled optimizer, which hands out the 50 ids below each sequence value
+        jdbc.execute("ALTER SEQUENCE booking_seq RESTART WITH " + (bookings + 100));
+
+        context.getBean(OccupancyCalendar.class).afterSingletonsInstantiated();
+    }
+
+    private static void batch(JdbcTemplate jdbc, String sql, int rows, RowFactory factory) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(factory.row(i));
+            if (batch.size() == BATCH_SIZE) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(sql, batch);
+        }
+    }
+
+    private interface RowFactory {
+        Object[] row(int index);
+    }
+}
@@ -0,0 +1,151 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.BookingResponseDTO;
+import com.booking.system.exception.DateAlreadyBookedException;
+import com.booking.system.model.Booking;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.service.AvailabilityService;
+import com.booking.system.service.BookingService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded latency of the booking hot path over a seeded dataset, see {@link BookingDataset}.
+ * Random date ranges hit booked nights more often as {@code density} grows, so {@code create} and
+ * {@code overlapCheck} cover both the accepted and the rejected path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingHotPathBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param("10000")
+    private int properties;
+
+    @Param("100")
+    private int bookingsPerProperty;
+
+    @Param({"0.25", "0.5", "0.9"})
+    private double density;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private AvailabilityService availabilityService;
+    private ObjectMapper objectMapper;
+    private int guests;
+    private int seededNights;
+    private int pages;
+    private List<Booking> loadedBookings;
+    private Page<BookingResponseDTO> firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BookingDataset.start();
+        guests = Math.max(1, properties / 10);
+        BookingDataset.seed(context, properties, guests, bookingsPerProperty, density);
+        bookingService = context.getBean(BookingService.class);
+        availabilityService = context.getBean(AvailabilityService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+        seededNights = bookingsPerProperty * BookingDataset.SLOT_NIGHTS;
+        pages = properties * bookingsPerProperty / PAGE_SIZE;
+
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        loadedBookings = readOnly.execute(status ->
+                bookingRepository.findAll(PageRequest.of(0, 1_000, Sort.by(Sort.Direction.DESC, "id"))).getContent());
+        firstPage = bookingService.getAll(0, PAGE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean overlapCheck() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = randomStart(random);
+        try {
+            availabilityService.ensureAvailableForBooking(randomProperty(random), start, start.plusDays(2), null);
+            return true;
+        } catch (DateAlreadyBookedException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public Object create() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = randomStart(random);
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(randomProperty(random));
+        dto.setGuestId(random.nextLong(1, guests + 1));
+        dto.setStartDate(start);
+        dto.setEndDate(start.plusDays(2));
+        try {
+            return bookingService.create(dto);
+        } catch (DateAlreadyBookedException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object offsetPage() {
+        return bookingService.getAll(ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object cursorPage() {
+        long after = ThreadLocalRandom.current().nextLong(PAGE_SIZE, (long) properties * bookingsPerProperty);
+        return bookingService.getAfter(after, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object mapResponses() {
+        return loadedBookings.stream().map(BookingResponseDTO::of).toList();
+    }
+
+    @Benchmark
+    public String serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(firstPage);
+    }
+
+    private long randomProperty(ThreadLocalRandom random) {
+        return random.nextLong(1, properties + 1);
+    }
+
+    private LocalDate randomStart(ThreadLocalRandom random) {
+        return LocalDate.now().plusDays(1 + random.nextInt(seededNights));
+    }
+}
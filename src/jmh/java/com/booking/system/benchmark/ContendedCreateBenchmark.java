@@ -0,0 +1,120 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.exception.DateAlreadyBookedException;
+import com.booking.system.model.Property;
+import com.booking.system.repository.PropertyRepository;
+import com.booking.system.service.BookingService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of {@code BookingService.create} with eight threads writing to one property, on top of the
+ * seeded dataset. Each call books the next free night; once the two-year window is used up the writers move on
+ * to a fresh property, so every call is a real insert under contention rather than a rejection. Creates and
+ * rejections are reported as the {@code created} and {@code rejected} secondary results; the latter should stay 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContendedCreateBenchmark {
+
+    private static final int BOOKABLE_NIGHTS = 700;
+
+    @Param("10000")
+    private int properties;
+
+    @Param("100")
+    private int bookingsPerProperty;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private PropertyRepository propertyRepository;
+    private final AtomicInteger nextNight = new AtomicInteger();
+    /** Hot properties by window: stay {@code n} books night {@code n % BOOKABLE_NIGHTS} of window {@code n / BOOKABLE_NIGHTS}. */
+    private final Map<Integer, Long> hotPropertyIds = new ConcurrentHashMap<>();
+
+    /** Per-thread outcome counts, summed by JMH into the secondary results. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long created;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BookingDataset.start();
+        BookingDataset.seed(context, properties, 1, bookingsPerProperty, 0.5);
+        bookingService = context.getBean(BookingService.class);
+        propertyRepository = context.getBean(PropertyRepository.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newHotProperty() {
+        hotPropertyIds.clear();
+        nextNight.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object create(Outcomes outcomes) {
+        int n = nextNight.getAndIncrement();
+        int night = 1 + n % BOOKABLE_NIGHTS;
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(hotPropertyIds.computeIfAbsent(n / BOOKABLE_NIGHTS, window -> createHotProperty()));
+        dto.setGuestId(1L);
+        dto.setStartDate(LocalDate.now().plusDays(night));
+        dto.setEndDate(LocalDate.now().plusDays(night + 1));
+        try {
+            Object booking = bookingService.create(dto);
+            outcomes.created++;
+            return booking;
+        } catch (DateAlreadyBookedException e) {
+            outcomes.rejected++;
+            return e;
+        }
+    }
+
+    private Long createHotProperty() {
+        Property property = new Property();
+        property.setName("Hot Property");
+        property.setType(PropertyType.HOUSE);
+        return propertyRepository.save(property).getId();
+    }
+}
@@ -0,0 +1,50 @@
+package com.booking.system.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bounded local caches for property and guest response DTOs. Entries expire after {@code booking.cache.ttl}, so a
+ * change made by another node is picked up within that time. Puts and evictions made inside a transaction are
+ * applied after it commits, so a rolled-back update never evicts and the eviction happens once the new row is
+ * visible. Hit, miss and eviction counts are published as {@code cache_gets} / {@code cache_evictions}.
+ * <p>
+ * Rendered iCalendar feeds live in their own cache with a longer {@code booking.calendar.ttl}: they are evicted
+ * whenever a booking or block of the property changes, so the TTL only bounds staleness across nodes.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROPERTIES = "properties";
+    public static final String GUESTS = "guests";
+    public static final String CALENDARS = "calendars";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${booking.cache.maximum-size:10000}") long maximumSize,
+                                     @Value("${booking.cache.ttl:10m}") Duration ttl,
+                                     @Value("${booking.calendar.ttl:1h}") Duration calendarTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setCacheNames(List.of(PROPERTIES, GUESTS));
+        cacheManager.registerCustomCache(CALENDARS, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(calendarTtl)
+                .recordStats()
+                .build());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,38 @@
+package com.booking.system.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bounds row lock waits on H2 by {@code booking.locking.wait-timeout}. H2 ignores the JPA lock timeout hint on
+ * {@code SELECT ... FOR UPDATE} and waits for the session's {@code LOCK_TIMEOUT} instead, so every pooled connection
+ * gets it set when it is opened. Databases that render the hint per statement need nothing here. A
+ * {@code connection-init-sql} configured explicitly is left alone.
+ */
+@Slf4j
+@Configuration
+public class LockTimeoutConfig {
+
+    @Bean
+    public static BeanPostProcessor h2LockTimeout(@Value("${booking.locking.wait-timeout:2s}") Duration waitTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && dataSource.getJdbcUrl() != null
+                        && dataSource.getJdbcUrl().startsWith("jdbc:h2:")
+                        && dataSource.getConnectionInitSql() == null) {
+                    dataSource.setConnectionInitSql("SET LOCK_TIMEOUT " + waitTimeout.toMillis());
+                    log.debug("H2 connections of {} wait at most {} for row locks", beanName, waitTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.AvailabilityCheckRequestDTO;
+import com.booking.system.dto.AvailabilityCheckResultDTO;
+import com.booking.system.service.AvailabilityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/availability")
+@RequiredArgsConstructor
+@Tag(name = "Availability", description = "Read-only availability checks")
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+
+    @Operation(summary = "Check many stays at once", description = "Checks up to 500 (property, check-in, check-out) candidates against active bookings and blocks "
+            + "and returns one result per item, in request order; an item with invalid dates gets INVALID_RANGE and the reason. "
+            + "Costs two queries however many items are sent; nothing is reserved.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Availability checked"),
+            @ApiResponse(responseCode = "400", description = "No items, too many items, or an item missing a property or date", content = @Content)
+    })
+    @PostMapping("/check")
+    public List<AvailabilityCheckResultDTO> check(@RequestBody @Valid AvailabilityCheckRequestDTO request) {
+        return availabilityService.check(request.getItems());
+    }
+}
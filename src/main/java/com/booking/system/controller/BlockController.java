@@ -2,17 +2,30 @@ package com.booking.system.controller;
 
 import com.booking.system.dto.BlockRequestDTO;
 import com.booking.system.dto.BlockResponseDTO;
+import com.booking.system.dto.CursorPageDTO;
+import com.booking.system.dto.WriteTicketDTO;
+import com.booking.system.enumeration.ExportFormat;
+import com.booking.system.repository.BlockVersions;
+import com.booking.system.service.AdmissionControl;
 import com.booking.system.service.BlockService;
+import com.booking.system.service.ExportService;
+import com.booking.system.service.IdempotencyService;
+import com.booking.system.service.WritePipeline;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,11 +34,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
+
 @Validated
 @RestController
 @RequestMapping("/api/v1/blocks")
@@ -34,17 +51,39 @@ import org.springframework.web.bind.annotation.RestController;
 public class BlockController {
 
     private final BlockService blockService;
+    private final ExportService exportService;
+    private final IdempotencyService idempotencyService;
+    private final AdmissionControl admissionControl;
+    private final WritePipeline writePipeline;
 
     @Operation(summary = "Create a block", description = "Creates a new block for a property. Validates date range and checks for overlaps with existing bookings and blocks.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Block created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
             @ApiResponse(responseCode = "404", description = "Property not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @PostMapping
-    public ResponseEntity<BlockResponseDTO> create(@RequestBody @Valid BlockRequestDTO blockRequestDTO) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(blockService.create(blockRequestDTO));
+    public ResponseEntity<BlockResponseDTO> create(@RequestBody @Valid BlockRequestDTO blockRequestDTO,
+                                                   @Parameter(description = BookingController.IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/blocks", blockRequestDTO, BlockResponseDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(admissionControl.admit(blockRequestDTO.getPropertyId(), () -> blockService.create(blockRequestDTO))));
+    }
+
+    @Operation(summary = "Queue a block", description = "Asynchronous create: validates the dates, queues the block on its property's writer and returns 202 "
+            + "with a ticket to poll at the Location URL.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Block queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content)
+    })
+    @PostMapping("/async")
+    public ResponseEntity<WriteTicketDTO> createAsync(@RequestBody @Valid BlockRequestDTO blockRequestDTO) {
+        return TicketController.accepted(writePipeline.submitForTicket(blockRequestDTO));
     }
 
     @Operation(summary = "Get all blocks", description = "Retrieves a paginated list of all blocks, sorted by newest first.")
@@ -56,14 +95,57 @@ public class BlockController {
         return blockService.getAll(page, size);
     }
 
-    @Operation(summary = "Get a block", description = "Retrieves a block by its ID.")
+    @Operation(summary = "Export blocks", description = "Streams the blocks matching the filters, oldest first, as NDJSON or CSV (with a header row). "
+            + "Rows are read through a database cursor and written as they are read, so memory use does not grow with the size of the export. "
+            + "'from'/'to' select blocks overlapping that range.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed", content = {
+                    @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Invalid format or date range", content = @Content)
+    })
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "Output format", example = "CSV") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Parameter(description = "Only blocks of this property", example = "1") @RequestParam(required = false) Long propertyId,
+            @Parameter(description = "Only blocks ending after this date", example = "2026-06-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Only blocks starting before this date", example = "2026-07-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        exportService.validateRange(from, to);
+        Exports.prepare(response, format, "blocks");
+        exportService.exportBlocks(format, propertyId, from, to, response.getOutputStream());
+    }
+
+    @Operation(summary = "Get all blocks by cursor", description = "Keyset pagination alternative to the page-number listing: returns blocks with an id lower than 'after', newest first, "
+            + "and the cursor for the next page. Omit 'after' for the first page. Runs no count query, so every page costs the same.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Blocks retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
+    })
+    @GetMapping("/cursor")
+    public CursorPageDTO<BlockResponseDTO> getAfter(
+            @Parameter(description = "Id of the last item of the previous page; omitted for the first page", example = "42") @RequestParam(required = false) @Positive Long after,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return blockService.getAfter(after, size);
+    }
+
+    @Operation(summary = "Get a block", description = "Retrieves a block by its ID. Send the returned ETag as If-None-Match to get 304 while the block is unchanged; that check reads only the versions of the block and its property.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Block found"),
+            @ApiResponse(responseCode = "304", description = "Block unchanged since the given ETag", content = @Content),
             @ApiResponse(responseCode = "404", description = "Block not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public BlockResponseDTO get(@Parameter(description = "Block ID", example = "1") @PathVariable Long id) {
-        return blockService.get(id);
+    public ResponseEntity<BlockResponseDTO> get(@Parameter(description = "Block ID", example = "1") @PathVariable Long id,
+                                                @Parameter(description = "ETag of a previously fetched version") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            BlockVersions versions = blockService.getVersions(id);
+            long[] tag = {versions.getVersion(), versions.getPropertyVersion()};
+            if (ETags.matches(ifNoneMatch, tag)) {
+                return ETags.notModified(tag);
+            }
+        }
+        BlockResponseDTO block = blockService.get(id);
+        return ETags.ok(block, tag(block));
     }
 
     @Operation(summary = "Update a block", description = "Updates an existing block. Validates date range and checks for overlaps.")
@@ -71,22 +153,42 @@ public class BlockController {
             @ApiResponse(responseCode = "200", description = "Block updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
             @ApiResponse(responseCode = "404", description = "Block or property not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @PutMapping("/{id}")
-    public BlockResponseDTO update(@RequestBody @Valid BlockRequestDTO blockRequestDTO,
-                                   @Parameter(description = "Block ID", example = "1") @PathVariable Long id) {
-        return blockService.update(blockRequestDTO, id);
+    public ResponseEntity<BlockResponseDTO> update(@RequestBody @Valid BlockRequestDTO blockRequestDTO,
+                                                   @Parameter(description = "Block ID", example = "1") @PathVariable Long id,
+                                                   @Parameter(description = "Only apply the change if the block still has this ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @Parameter(description = BookingController.IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PUT /api/v1/blocks/" + id, blockRequestDTO, ifMatch, BlockResponseDTO.class, () -> {
+            BlockResponseDTO block = admissionControl.admit(blockRequestDTO.getPropertyId(),
+                    () -> blockService.update(blockRequestDTO, id, ETags.expectedVersion(ifMatch)));
+            return ETags.ok(block, tag(block));
+        });
     }
 
     @Operation(summary = "Delete a block", description = "Permanently deletes a block, freeing up the date range for bookings.")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Block deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "Block not found", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Block not found", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@Parameter(description = "Block ID", example = "1") @PathVariable Long id) {
-        blockService.delete(id);
+        admissionControl.admit(blockService.getPropertyId(id), () -> {
+            blockService.delete(id);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
+
+    /** The versions making up a block's ETag: the block's, then its property's. */
+    private static long[] tag(BlockResponseDTO block) {
+        return new long[]{block.getVersion(), block.getPropertyDTO().getVersion()};
+    }
 }
@@ -2,18 +2,37 @@ package com.booking.system.controller;
 
 import com.booking.system.dto.BookingRequestDTO;
 import com.booking.system.dto.BookingResponseDTO;
+import com.booking.system.dto.BulkImportResponseDTO;
+import com.booking.system.dto.CursorPageDTO;
+import com.booking.system.dto.GroupBookingRequestDTO;
+import com.booking.system.dto.GroupBookingResponseDTO;
+import com.booking.system.dto.WriteTicketDTO;
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.enumeration.ExportFormat;
+import com.booking.system.repository.BookingVersions;
+import com.booking.system.service.AdmissionControl;
+import com.booking.system.service.BookingImportService;
 import com.booking.system.service.BookingService;
+import com.booking.system.service.ExportService;
+import com.booking.system.service.IdempotencyService;
+import com.booking.system.service.WritePipeline;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,11 +41,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.List;
+
 @Validated
 @RestController
 @RequestMapping("/api/v1/bookings")
@@ -34,18 +59,81 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Bookings", description = "Booking management operations")
 public class BookingController {
 
+    static final String IDEMPOTENCY_KEY_DESCRIPTION = "Client-chosen key; a retry with the same key and request gets the original response back instead of running again";
+
     private final BookingService bookingService;
+    private final BookingImportService bookingImportService;
+    private final ExportService exportService;
+    private final IdempotencyService idempotencyService;
+    private final AdmissionControl admissionControl;
+    private final WritePipeline writePipeline;
 
     @Operation(summary = "Create a booking", description = "Creates a new booking for a property. Validates date range and checks for overlaps with existing bookings and blocks.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Booking created successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
             @ApiResponse(responseCode = "404", description = "Property or guest not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @PostMapping
-    public ResponseEntity<BookingResponseDTO> create(@RequestBody @Valid BookingRequestDTO bookingRequestDTO) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.create(bookingRequestDTO));
+    public ResponseEntity<BookingResponseDTO> create(@RequestBody @Valid BookingRequestDTO bookingRequestDTO,
+                                                     @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/bookings", bookingRequestDTO, BookingResponseDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(admissionControl.admit(bookingRequestDTO.getPropertyId(), () -> bookingService.create(bookingRequestDTO))));
+    }
+
+    @Operation(summary = "Create a group booking", description = "Creates bookings across several properties in one transaction: either all of them are created or none. "
+            + "Each booking is validated like a single create and must not overlap existing bookings, blocks or another booking of the group.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "All bookings created"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
+            @ApiResponse(responseCode = "404", description = "A property or guest not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "A booking overlaps an existing booking or block, or another booking of the group", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy or a property lock not acquired in time; retry after Retry-After", content = @Content)
+    })
+    @PostMapping("/group")
+    public ResponseEntity<GroupBookingResponseDTO> createGroup(@RequestBody @Valid GroupBookingRequestDTO groupRequestDTO,
+                                                               @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/v1/bookings/group", groupRequestDTO, GroupBookingResponseDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(admissionControl.admit(null, () -> bookingService.createGroup(groupRequestDTO))));
+    }
+
+    @Operation(summary = "Queue a booking", description = "Asynchronous create: validates the dates, queues the booking on its property's writer and returns 202 "
+            + "with a ticket to poll at the Location URL. The writer commits queued bookings and blocks of a property together, deciding overlaps "
+            + "in memory under one property lock per batch.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Booking queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content)
+    })
+    @PostMapping("/async")
+    public ResponseEntity<WriteTicketDTO> createAsync(@RequestBody @Valid BookingRequestDTO bookingRequestDTO) {
+        return TicketController.accepted(writePipeline.submitForTicket(bookingRequestDTO));
+    }
+
+    @Operation(summary = "Import bookings in bulk", description = "Creates many bookings in one call. Rows are grouped by property; each property is locked once, "
+            + "overlaps are checked in memory against existing data and the rest of the batch, and inserts are batched. "
+            + "Each row succeeds or fails on its own and is reported in request order.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import processed, see the per-row status"),
+            @ApiResponse(responseCode = "400", description = "Malformed request body", content = @Content)
+    })
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResponseDTO importBulk(@RequestBody List<BookingRequestDTO> bookingRequestDTOs) {
+        return bookingImportService.importBookings(bookingRequestDTOs);
+    }
+
+    @Operation(summary = "Import bookings in bulk from NDJSON", description = "Same as the JSON bulk import, with one booking JSON object per line. Malformed lines fail on their own.")
+    @ApiResponse(responseCode = "200", description = "Import processed, see the per-row status")
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public BulkImportResponseDTO importBulkNdjson(Reader body) throws IOException {
+        return bookingImportService.importBookings(body);
     }
 
     @Operation(summary = "Get all bookings", description = "Retrieves a paginated list of all bookings, sorted by newest first.")
@@ -57,14 +145,58 @@ public class BookingController {
         return bookingService.getAll(page, size);
     }
 
-    @Operation(summary = "Get a booking", description = "Retrieves a booking by its ID.")
+    @Operation(summary = "Export bookings", description = "Streams the bookings matching the filters, oldest first, as NDJSON or CSV (with a header row). "
+            + "Rows are read through a database cursor and written as they are read, so memory use does not grow with the size of the export. "
+            + "'from'/'to' select bookings overlapping that range.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed", content = {
+                    @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Invalid format, status or date range", content = @Content)
+    })
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "Output format", example = "NDJSON") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Parameter(description = "Only bookings of this property", example = "1") @RequestParam(required = false) Long propertyId,
+            @Parameter(description = "Only bookings with this status", example = "BOOKED") @RequestParam(required = false) BookingStatus status,
+            @Parameter(description = "Only bookings ending after this date", example = "2026-06-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Only bookings starting before this date", example = "2026-07-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        exportService.validateRange(from, to);
+        Exports.prepare(response, format, "bookings");
+        exportService.exportBookings(format, propertyId, status, from, to, response.getOutputStream());
+    }
+
+    @Operation(summary = "Get all bookings by cursor", description = "Keyset pagination alternative to the page-number listing: returns bookings with an id lower than 'after', newest first, "
+            + "and the cursor for the next page. Omit 'after' for the first page. Runs no count query, so every page costs the same.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
+    })
+    @GetMapping("/cursor")
+    public CursorPageDTO<BookingResponseDTO> getAfter(
+            @Parameter(description = "Id of the last item of the previous page; omitted for the first page", example = "42") @RequestParam(required = false) @Positive Long after,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return bookingService.getAfter(after, size);
+    }
+
+    @Operation(summary = "Get a booking", description = "Retrieves a booking by its ID. Send the returned ETag as If-None-Match to get 304 while the booking is unchanged; that check reads only the versions of the booking, its property and its guest.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Booking found"),
+            @ApiResponse(responseCode = "304", description = "Booking unchanged since the given ETag", content = @Content),
             @ApiResponse(responseCode = "404", description = "Booking not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public BookingResponseDTO get(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id) {
-        return bookingService.get(id);
+    public ResponseEntity<BookingResponseDTO> get(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id,
+                                                  @Parameter(description = "ETag of a previously fetched version") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            BookingVersions versions = bookingService.getVersions(id);
+            long[] tag = {versions.getVersion(), versions.getPropertyVersion(), versions.getGuestVersion()};
+            if (ETags.matches(ifNoneMatch, tag)) {
+                return ETags.notModified(tag);
+            }
+        }
+        BookingResponseDTO booking = bookingService.get(id);
+        return ETags.ok(booking, tag(booking));
     }
 
     @Operation(summary = "Update a booking", description = "Updates an existing booking. Cannot update a cancelled booking. Validates date range and checks for overlaps.")
@@ -72,23 +204,43 @@ public class BookingController {
             @ApiResponse(responseCode = "200", description = "Booking updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data or date range", content = @Content),
             @ApiResponse(responseCode = "404", description = "Booking, property, or guest not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Booking is cancelled or date overlap exists", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Booking is cancelled or date overlap exists", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @PutMapping("/{id}")
-    public BookingResponseDTO update(@RequestBody @Valid BookingRequestDTO bookingRequestDTO,
-                                     @Parameter(description = "Booking ID", example = "1") @PathVariable Long id) {
-        return bookingService.update(bookingRequestDTO, id);
+    public ResponseEntity<BookingResponseDTO> update(@RequestBody @Valid BookingRequestDTO bookingRequestDTO,
+                                                     @Parameter(description = "Booking ID", example = "1") @PathVariable Long id,
+                                                     @Parameter(description = "Only apply the change if the booking still has this ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PUT /api/v1/bookings/" + id, bookingRequestDTO, ifMatch, BookingResponseDTO.class, () -> {
+            BookingResponseDTO booking = admissionControl.admit(bookingRequestDTO.getPropertyId(),
+                    () -> bookingService.update(bookingRequestDTO, id, ETags.expectedVersion(ifMatch)));
+            return ETags.ok(booking, tag(booking));
+        });
     }
 
     @Operation(summary = "Cancel a booking", description = "Cancels an active booking. Already cancelled bookings cannot be cancelled again.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Booking cancelled successfully"),
             @ApiResponse(responseCode = "404", description = "Booking not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Booking is already cancelled", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Booking is already cancelled", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @PatchMapping("/{id}/cancel")
-    public BookingResponseDTO cancel(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id) {
-        return bookingService.cancel(id);
+    public ResponseEntity<BookingResponseDTO> cancel(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id,
+                                                     @Parameter(description = "Only apply the change if the booking still has this ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/v1/bookings/" + id + "/cancel", null, ifMatch, BookingResponseDTO.class, () -> {
+            BookingResponseDTO booking = admissionControl.admit(bookingService.getPropertyId(id),
+                    () -> bookingService.cancel(id, ETags.expectedVersion(ifMatch)));
+            return ETags.ok(booking, tag(booking));
+        });
     }
 
     @Operation(summary = "Rebook a cancelled booking", description = "Reactivates a previously cancelled booking. Only cancelled bookings can be rebooked. Validates dates are still valid and checks for overlaps.")
@@ -96,21 +248,41 @@ public class BookingController {
             @ApiResponse(responseCode = "200", description = "Booking rebooked successfully"),
             @ApiResponse(responseCode = "400", description = "Booking dates are no longer valid", content = @Content),
             @ApiResponse(responseCode = "404", description = "Booking not found", content = @Content),
-            @ApiResponse(responseCode = "409", description = "Booking is not cancelled or date overlap exists", content = @Content)
+            @ApiResponse(responseCode = "409", description = "Booking is not cancelled or date overlap exists", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @PatchMapping("/{id}/rebook")
-    public BookingResponseDTO rebook(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id) {
-        return bookingService.rebook(id);
+    public ResponseEntity<BookingResponseDTO> rebook(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id,
+                                                     @Parameter(description = "Only apply the change if the booking still has this ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @Parameter(description = IDEMPOTENCY_KEY_DESCRIPTION) @RequestHeader(value = IdempotencyService.HEADER, required = false) @Size(max = 255) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "PATCH /api/v1/bookings/" + id + "/rebook", null, ifMatch, BookingResponseDTO.class, () -> {
+            BookingResponseDTO booking = admissionControl.admit(bookingService.getPropertyId(id),
+                    () -> bookingService.rebook(id, ETags.expectedVersion(ifMatch)));
+            return ETags.ok(booking, tag(booking));
+        });
     }
 
     @Operation(summary = "Delete a booking", description = "Permanently deletes a booking regardless of its status.")
     @ApiResponses({
             @ApiResponse(responseCode = "204", description = "Booking deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "Booking not found", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Booking not found", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many writes queued for the property; retry after Retry-After", content = @Content),
+            @ApiResponse(responseCode = "503", description = "All write slots busy; retry after Retry-After", content = @Content)
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@Parameter(description = "Booking ID", example = "1") @PathVariable Long id) {
-        bookingService.delete(id);
+        admissionControl.admit(bookingService.getPropertyId(id), () -> {
+            bookingService.delete(id);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
+
+    /** The versions making up a booking's ETag: the booking's, then those of its property and guest. */
+    private static long[] tag(BookingResponseDTO booking) {
+        return new long[]{booking.getVersion(), booking.getPropertyDTO().getVersion(), booking.getGuestDTO().getVersion()};
+    }
 }
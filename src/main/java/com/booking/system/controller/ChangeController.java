@@ -0,0 +1,63 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.ChangeFeedPageDTO;
+import com.booking.system.service.ChangeFeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Validated
+@RestController
+@RequestMapping("/api/v1/changes")
+@RequiredArgsConstructor
+@Tag(name = "Changes", description = "Feed of booking and block changes, to replace polling")
+public class ChangeController {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeFeedService changeFeedService;
+
+    @Operation(summary = "Stream changes", description = "Server-Sent Events stream of committed booking and block changes, one 'change' event per change "
+            + "with its feed position as the event id. Resumes after 'Last-Event-ID' (sent by EventSource on reconnect) or 'since'; "
+            + "without either, only changes from now on are sent.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "400", description = "Invalid position or property ID", content = @Content)
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @Parameter(description = "Feed position to resume after", example = "42") @RequestParam(required = false) @Min(0) Long since,
+            @Parameter(description = "Only changes of this property") @RequestParam(required = false) @Positive Long propertyId,
+            @Parameter(hidden = true) @RequestHeader(value = LAST_EVENT_ID, required = false) @Min(0) Long lastEventId) {
+        return changeFeedService.subscribe(lastEventId != null ? lastEventId : since, propertyId);
+    }
+
+    @Operation(summary = "Catch up on changes", description = "Committed changes after feed position 'since', oldest first. "
+            + "Pass the returned 'next' as 'since' until the page comes back empty, then switch to the stream.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid position, limit or property ID", content = @Content)
+    })
+    @GetMapping("/catch-up")
+    public ChangeFeedPageDTO catchUp(
+            @Parameter(description = "Feed position to read after", example = "0") @RequestParam(defaultValue = "0") @Min(0) long since,
+            @Parameter(description = "Only changes of this property") @RequestParam(required = false) @Positive Long propertyId,
+            @Parameter(description = "Maximum number of changes", example = "100") @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+        return changeFeedService.getChanges(since, propertyId, limit);
+    }
+}
@@ -0,0 +1,65 @@
+package com.booking.system.controller;
+
+import com.booking.system.exception.PreconditionFailedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Entity tags for the single-resource endpoints. The tag is built from the {@code @Version} of the entity and of every
+ * entity embedded in its body, joined by dots (a booking's tag is {@code "booking.property.guest"}), so it changes with
+ * every committed write that changes the body and can be compared without rendering the resource.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(long... versions) {
+        return Arrays.stream(versions).mapToObj(Long::toString).collect(Collectors.joining(".", "\"", "\""));
+    }
+
+    /** Whether an {@code If-None-Match} header lists the versions. {@code *} matches any; weak tags compare by value. */
+    static boolean matches(String ifNoneMatch, long... versions) {
+        String tag = of(versions);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(tag) || trimmed.equals("W/" + tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header requires of the entity written, or null when the header is absent or
+     * {@code *}. Only the first part of a composite tag is compared: a write changes the entity itself, not the ones
+     * embedded in its body, so an edit of those in between does not make it a lost update.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                String versions = tag.substring(1, tag.length() - 1);
+                int dot = versions.indexOf('.');
+                return Long.valueOf(dot < 0 ? versions : versions.substring(0, dot));
+            } catch (NumberFormatException e) {
+                // fall through to the malformed header error
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single entity tag returned by this API, got " + ifMatch);
+    }
+
+    static <T> ResponseEntity<T> ok(T body, long... versions) {
+        return ResponseEntity.ok().eTag(of(versions)).body(body);
+    }
+
+    static <T> ResponseEntity<T> notModified(long... versions) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(of(versions)).build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.booking.system.controller;
+
+import com.booking.system.enumeration.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/** Response headers for the streaming export endpoints. */
+final class Exports {
+
+    private Exports() {
+    }
+
+    /** Sets the content type of the format and names the download after the exported resource. */
+    static void prepare(HttpServletResponse response, ExportFormat format, String resource) {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        String filename = resource + "." + format.name().toLowerCase(Locale.ROOT);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+    }
+}
@@ -1,5 +1,6 @@
 package com.booking.system.controller;
 
+import com.booking.system.dto.CursorPageDTO;
 import com.booking.system.dto.GuestRequestDTO;
 import com.booking.system.dto.GuestResponseDTO;
 import com.booking.system.service.GuestService;
@@ -11,8 +12,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.validation.annotation.Validated;
@@ -54,26 +58,48 @@ public class GuestController {
         return guestService.getAll(page, size);
     }
 
-    @Operation(summary = "Get a guest", description = "Retrieves a guest by their ID.")
+    @Operation(summary = "Get all guests by cursor", description = "Keyset pagination alternative to the page-number listing: returns guests with an id lower than 'after', newest first, "
+            + "and the cursor for the next page. Omit 'after' for the first page. Runs no count query, so every page costs the same.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Guests retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
+    })
+    @GetMapping("/cursor")
+    public CursorPageDTO<GuestResponseDTO> getAfter(
+            @Parameter(description = "Id of the last item of the previous page; omitted for the first page", example = "42") @RequestParam(required = false) @Positive Long after,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return guestService.getAfter(after, size);
+    }
+
+    @Operation(summary = "Get a guest", description = "Retrieves a guest by their ID. Send the returned ETag as If-None-Match to get 304 while the guest is unchanged.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Guest found"),
+            @ApiResponse(responseCode = "304", description = "Guest unchanged since the given ETag", content = @Content),
             @ApiResponse(responseCode = "404", description = "Guest not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public GuestResponseDTO get(@Parameter(description = "Guest ID", example = "1") @PathVariable Long id) {
-        return guestService.get(id);
+    public ResponseEntity<GuestResponseDTO> get(@Parameter(description = "Guest ID", example = "1") @PathVariable Long id,
+                                                @Parameter(description = "ETag of a previously fetched version") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        GuestResponseDTO guest = guestService.get(id);
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, guest.getVersion())) {
+            return ETags.notModified(guest.getVersion());
+        }
+        return ETags.ok(guest, guest.getVersion());
     }
 
     @Operation(summary = "Update a guest", description = "Updates an existing guest's name and email.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Guest updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Guest not found", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Guest not found", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content)
     })
     @PutMapping("/{id}")
-    public GuestResponseDTO update(@RequestBody @Valid GuestRequestDTO guestRequestDTO,
-                                   @Parameter(description = "Guest ID", example = "1") @PathVariable Long id) {
-        return guestService.update(guestRequestDTO, id);
+    public ResponseEntity<GuestResponseDTO> update(@RequestBody @Valid GuestRequestDTO guestRequestDTO,
+                                                   @Parameter(description = "Guest ID", example = "1") @PathVariable Long id,
+                                                   @Parameter(description = "Only apply the change if the guest still has this ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        GuestResponseDTO guest = guestService.update(guestRequestDTO, id, ETags.expectedVersion(ifMatch));
+        return ETags.ok(guest, guest.getVersion());
     }
 
     @Operation(summary = "Delete a guest", description = "Permanently deletes a guest.")
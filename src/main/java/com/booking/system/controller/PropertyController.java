@@ -1,7 +1,13 @@
 package com.booking.system.controller;
 
+import com.booking.system.dto.CalendarFeedDTO;
+import com.booking.system.dto.CursorPageDTO;
+import com.booking.system.dto.PropertyOccupancyDTO;
 import com.booking.system.dto.PropertyRequestDTO;
 import com.booking.system.dto.PropertyResponseDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.CalendarService;
+import com.booking.system.service.OccupancyService;
 import com.booking.system.service.PropertyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,9 +16,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -21,11 +34,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Validated
 @RestController
 @RequestMapping("/api/v1/properties")
@@ -33,7 +50,13 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Properties", description = "Property management operations")
 public class PropertyController {
 
+    private static final String CALENDAR_CONTENT_TYPE = "text/calendar;charset=UTF-8";
+    private static final int MAX_OCCUPANCY_MONTHS = 24;
+    private static final int MAX_OCCUPANCY_PROPERTIES = 100;
+
     private final PropertyService propertyService;
+    private final CalendarService calendarService;
+    private final OccupancyService occupancyService;
 
     @Operation(summary = "Create a property", description = "Creates a new property that can be used for bookings and blocks.")
     @ApiResponses({
@@ -54,26 +77,112 @@ public class PropertyController {
         return propertyService.getAll(page, size);
     }
 
-    @Operation(summary = "Get a property", description = "Retrieves a property by its ID.")
+    @Operation(summary = "Get all properties by cursor", description = "Keyset pagination alternative to the page-number listing: returns properties with an id lower than 'after', newest first, "
+            + "and the cursor for the next page. Omit 'after' for the first page. Runs no count query, so every page costs the same.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Properties retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size", content = @Content)
+    })
+    @GetMapping("/cursor")
+    public CursorPageDTO<PropertyResponseDTO> getAfter(
+            @Parameter(description = "Id of the last item of the previous page; omitted for the first page", example = "42") @RequestParam(required = false) @Positive Long after,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return propertyService.getAfter(after, size);
+    }
+
+    @Operation(summary = "Find available properties", description = "Retrieves a paginated list of properties with no active booking or block between the given dates, optionally filtered by type, sorted by newest first.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Available properties retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range", content = @Content)
+    })
+    @GetMapping("/available")
+    public Page<PropertyResponseDTO> findAvailable(
+            @Parameter(description = "Check-in date (inclusive)", example = "2026-06-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Check-out date (exclusive)", example = "2026-06-10") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Only return properties of this type", example = "HOUSE") @RequestParam(required = false) PropertyType type,
+            @Parameter(description = "Page number (zero-based)", example = "0") @RequestParam(defaultValue = "0") @Min(0) int page,
+            @Parameter(description = "Number of items per page", example = "20") @RequestParam(defaultValue = "20") @Min(1) int size) {
+        return propertyService.findAvailable(startDate, endDate, type, page, size);
+    }
+
+    @Operation(summary = "Get the occupancy of many properties", description = "Occupancy view of several properties at once, for portfolio dashboards; "
+            + "same encoding as the single-property endpoint, one entry per distinct id in request order. Costs one query for all properties.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Occupancy computed"),
+            @ApiResponse(responseCode = "400", description = "Missing or too many ids, or invalid month count", content = @Content),
+            @ApiResponse(responseCode = "404", description = "A property was not found", content = @Content)
+    })
+    @GetMapping("/occupancy")
+    public List<PropertyOccupancyDTO> getOccupancy(
+            @Parameter(description = "Property IDs, comma-separated", example = "1,2,3") @RequestParam @NotEmpty @Size(max = MAX_OCCUPANCY_PROPERTIES) List<Long> ids,
+            @Parameter(description = "First night (inclusive); defaults to the first day of the current month", example = "2026-06-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Number of months to cover", example = "12") @RequestParam(defaultValue = "12") @Min(1) @Max(MAX_OCCUPANCY_MONTHS) int months) {
+        return occupancyService.get(ids, from, months);
+    }
+
+    @Operation(summary = "Get a property", description = "Retrieves a property by its ID. Send the returned ETag as If-None-Match to get 304 while the property is unchanged.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Property found"),
+            @ApiResponse(responseCode = "304", description = "Property unchanged since the given ETag", content = @Content),
             @ApiResponse(responseCode = "404", description = "Property not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public PropertyResponseDTO get(@Parameter(description = "Property ID", example = "1") @PathVariable Long id) {
-        return propertyService.get(id);
+    public ResponseEntity<PropertyResponseDTO> get(@Parameter(description = "Property ID", example = "1") @PathVariable Long id,
+                                                   @Parameter(description = "ETag of a previously fetched version") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PropertyResponseDTO property = propertyService.get(id);
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, property.getVersion())) {
+            return ETags.notModified(property.getVersion());
+        }
+        return ETags.ok(property, property.getVersion());
+    }
+
+    @Operation(summary = "Get a property's occupancy", description = "State of every night (FREE, BOOKED or BLOCKED) for a number of months, run-length encoded: "
+            + "consecutive nights with the same state form one run. Built from a single query over bookings and blocks.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Occupancy computed"),
+            @ApiResponse(responseCode = "400", description = "Invalid date or month count", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Property not found", content = @Content)
+    })
+    @GetMapping("/{id}/occupancy")
+    public PropertyOccupancyDTO getOccupancy(
+            @Parameter(description = "Property ID", example = "1") @PathVariable Long id,
+            @Parameter(description = "First night (inclusive); defaults to the first day of the current month", example = "2026-06-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Number of months to cover", example = "12") @RequestParam(defaultValue = "12") @Min(1) @Max(MAX_OCCUPANCY_MONTHS) int months) {
+        return occupancyService.get(List.of(id), from, months).get(0);
+    }
+
+    @Operation(summary = "Get a property's calendar", description = "iCalendar feed of the property's current and upcoming bookings and blocks, for channel managers. "
+            + "The rendered feed is cached until a booking or block of the property changes. Send the returned ETag as If-None-Match, "
+            + "or the Last-Modified date as If-Modified-Since, to get 304 while the feed is unchanged.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Calendar rendered", content = @Content(mediaType = "text/calendar")),
+            @ApiResponse(responseCode = "304", description = "Calendar unchanged since the given ETag or date", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Property not found", content = @Content)
+    })
+    @GetMapping(value = "/{id}/calendar.ics", produces = CALENDAR_CONTENT_TYPE)
+    public ResponseEntity<String> getCalendar(@Parameter(description = "Property ID", example = "1") @PathVariable Long id) {
+        CalendarFeedDTO feed = calendarService.get(id);
+        // Spring answers If-None-Match / If-Modified-Since with 304 from these validators
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(feed.getEtag())
+                .lastModified(feed.getLastModified())
+                .body(feed.getBody());
     }
 
     @Operation(summary = "Update a property", description = "Updates an existing property's name and type.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Property updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
-            @ApiResponse(responseCode = "404", description = "Property not found", content = @Content)
+            @ApiResponse(responseCode = "404", description = "Property not found", content = @Content),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content)
     })
     @PutMapping("/{id}")
-    public PropertyResponseDTO update(@RequestBody @Valid PropertyRequestDTO propertyRequestDTO,
-                                      @Parameter(description = "Property ID", example = "1") @PathVariable Long id) {
-        return propertyService.update(propertyRequestDTO, id);
+    public ResponseEntity<PropertyResponseDTO> update(@RequestBody @Valid PropertyRequestDTO propertyRequestDTO,
+                                                      @Parameter(description = "Property ID", example = "1") @PathVariable Long id,
+                                                      @Parameter(description = "Only apply the change if the property still has this ETag") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        PropertyResponseDTO property = propertyService.update(propertyRequestDTO, id, ETags.expectedVersion(ifMatch));
+        return ETags.ok(property, property.getVersion());
     }
 
     @Operation(summary = "Delete a property", description = "Permanently deletes a property.")
@@ -0,0 +1,70 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.PropertyOccupancyRatesDTO;
+import com.booking.system.dto.RollupRebuildDTO;
+import com.booking.system.dto.TypeOccupancyRatesDTO;
+import com.booking.system.service.OccupancyRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+@Tag(name = "Reports", description = "Occupancy rates from the incrementally maintained monthly rollup")
+public class ReportController {
+
+    private final OccupancyRollupService occupancyRollupService;
+
+    @Operation(summary = "Get a property's monthly occupancy", description = "Booked and blocked nights and the occupancy rate (booked / nights not blocked) per month. "
+            + "Defaults to the twelve months starting with the current one. Reads the rollup, never the bookings.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Occupancy retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid month range", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Property not found", content = @Content)
+    })
+    @GetMapping("/occupancy/properties/{id}")
+    public PropertyOccupancyRatesDTO getPropertyOccupancy(
+            @Parameter(description = "Property ID", example = "1") @PathVariable Long id,
+            @Parameter(description = "First month (inclusive)", example = "2026-01") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @Parameter(description = "Last month (inclusive)", example = "2026-12") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        YearMonth start = from != null ? from : YearMonth.now();
+        return occupancyRollupService.getPropertyRates(id, start, to != null ? to : start.plusMonths(11));
+    }
+
+    @Operation(summary = "Get monthly occupancy per property type", description = "Same figures summed over all properties of each type that has properties. "
+            + "Defaults to the twelve months starting with the current one.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Occupancy retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid month range", content = @Content)
+    })
+    @GetMapping("/occupancy/types")
+    public List<TypeOccupancyRatesDTO> getTypeOccupancy(
+            @Parameter(description = "First month (inclusive)", example = "2026-01") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @Parameter(description = "Last month (inclusive)", example = "2026-12") @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        YearMonth start = from != null ? from : YearMonth.now();
+        return occupancyRollupService.getTypeRates(start, to != null ? to : start.plusMonths(11));
+    }
+
+    @Operation(summary = "Rebuild the occupancy rollup", description = "Recomputes every property's monthly rollup from its bookings and blocks, in parallel chunks of properties. "
+            + "Each chunk locks its properties while it is replaced, so it can run while bookings are being written. Use it to reconcile after manual data fixes.")
+    @ApiResponse(responseCode = "200", description = "Rollup rebuilt")
+    @PostMapping("/occupancy/rebuild")
+    public RollupRebuildDTO rebuildOccupancy() {
+        return occupancyRollupService.rebuild();
+    }
+}
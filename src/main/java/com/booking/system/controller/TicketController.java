@@ -0,0 +1,52 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.WriteTicketDTO;
+import com.booking.system.enumeration.WriteTicketStatus;
+import com.booking.system.service.WritePipeline;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/tickets")
+@RequiredArgsConstructor
+@Tag(name = "Tickets", description = "Outcome of booking and block writes queued with the async endpoints")
+public class TicketController {
+
+    private static final String PATH = "/api/v1/tickets/";
+
+    private final WritePipeline writePipeline;
+
+    @Operation(summary = "Get a write ticket", description = "While the write is queued returns 202 with the ticket. Once committed returns 200 with the ID and "
+            + "URL of the created booking or block. A rejected write answers with the same status and error as the synchronous endpoint (e.g. 409 on overlap). "
+            + "Tickets expire after booking.pipeline.ticket-ttl.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Write committed"),
+            @ApiResponse(responseCode = "202", description = "Write still queued"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired ticket, or property or guest not found", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Date overlap with existing booking or block", content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<WriteTicketDTO> get(@Parameter(description = "Ticket ID") @PathVariable String id) {
+        WriteTicketDTO ticket = writePipeline.getTicket(id);
+        HttpStatus status = ticket.getStatus() == WriteTicketStatus.PENDING ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(ticket);
+    }
+
+    /** 202 for a freshly queued write, pointing at its ticket. */
+    static ResponseEntity<WriteTicketDTO> accepted(WriteTicketDTO ticket) {
+        return ResponseEntity.accepted().location(URI.create(PATH + ticket.getId())).body(ticket);
+    }
+}
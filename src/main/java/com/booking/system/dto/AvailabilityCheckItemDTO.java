@@ -0,0 +1,30 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One property and stay to check")
+public class AvailabilityCheckItemDTO {
+
+    @NotNull(message = "Property ID is required")
+    @Positive(message = "Property ID must be a positive number")
+    @Schema(description = "ID of the property", example = "1")
+    private Long propertyId;
+
+    @NotNull(message = "Start date is required")
+    @Schema(description = "Check-in date (inclusive)", example = "2026-06-01")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    @Schema(description = "Check-out date (exclusive)", example = "2026-06-10")
+    private LocalDate endDate;
+}
@@ -0,0 +1,26 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request payload for checking many property and stay candidates at once")
+public class AvailabilityCheckRequestDTO {
+
+    public static final int MAX_ITEMS = 500;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = MAX_ITEMS, message = "At most " + MAX_ITEMS + " items can be checked at once")
+    @Schema(description = "Candidates to check; the response has one result per item, in the same order")
+    private List<@Valid @NotNull(message = "Items cannot be null") AvailabilityCheckItemDTO> items;
+}
@@ -0,0 +1,44 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.AvailabilityStatus;
+import com.booking.system.enumeration.OccupancyKind;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Availability of one checked property and stay")
+public class AvailabilityCheckResultDTO {
+
+    @Schema(description = "ID of the property", example = "1")
+    private Long propertyId;
+
+    @Schema(description = "Check-in date (inclusive)", example = "2026-06-01")
+    private LocalDate startDate;
+
+    @Schema(description = "Check-out date (exclusive)", example = "2026-06-10")
+    private LocalDate endDate;
+
+    @Schema(description = "Whether the stay could be booked right now", example = "CONFLICT")
+    private AvailabilityStatus status;
+
+    @Schema(description = "What the stay overlaps when in conflict (an active booking wins over a block), otherwise null", example = "BOOKING")
+    private OccupancyKind conflict;
+
+    @Schema(description = "Why the dates are invalid when the status is INVALID_RANGE, otherwise null", example = "Start date cannot be in the past")
+    private String message;
+
+    public static AvailabilityCheckResultDTO of(AvailabilityCheckItemDTO item, AvailabilityStatus status, OccupancyKind conflict) {
+        return new AvailabilityCheckResultDTO(item.getPropertyId(), item.getStartDate(), item.getEndDate(), status, conflict, null);
+    }
+
+    public static AvailabilityCheckResultDTO invalidRange(AvailabilityCheckItemDTO item, String message) {
+        return new AvailabilityCheckResultDTO(item.getPropertyId(), item.getStartDate(), item.getEndDate(),
+                AvailabilityStatus.INVALID_RANGE, null, message);
+    }
+}
@@ -0,0 +1,42 @@
+package com.booking.system.dto;
+
+import com.booking.system.model.Block;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** One block in an export: the property is referenced by id only, so exporting never loads it. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonPropertyOrder({"id", "propertyId", "startDate", "endDate", "reason", "version"})
+@Schema(description = "Block row of an NDJSON or CSV export")
+public class BlockExportRowDTO {
+
+    @Schema(description = "Unique block identifier", example = "1")
+    private Long id;
+
+    @Schema(description = "Id of the blocked property", example = "1")
+    private Long propertyId;
+
+    @Schema(description = "Block start date (inclusive)", example = "2026-07-01")
+    private LocalDate startDate;
+
+    @Schema(description = "Block end date (exclusive)", example = "2026-07-15")
+    private LocalDate endDate;
+
+    @Schema(description = "Reason for blocking the property", example = "Maintenance work")
+    private String reason;
+
+    @Schema(description = "Version of the block", example = "0")
+    private Long version;
+
+    public static BlockExportRowDTO of(Block in) {
+        return new BlockExportRowDTO(in.getId(), in.getProperty().getId(),
+                in.getStartDate(), in.getEndDate(), in.getReason(), in.getVersion());
+    }
+}
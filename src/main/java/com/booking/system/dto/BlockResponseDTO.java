@@ -31,6 +31,9 @@ public class BlockResponseDTO {
     @Schema(description = "Reason for blocking the property", example = "Maintenance work")
     private String reason;
 
+    @Schema(description = "Version of the block, changed by every update; also the first part of the ETag header", example = "0")
+    private Long version;
+
     public static BlockResponseDTO of(Block in) {
         BlockResponseDTO result = new BlockResponseDTO();
         result.setId(in.getId());
@@ -38,6 +41,7 @@ public class BlockResponseDTO {
         result.setStartDate(in.getStartDate());
         result.setEndDate(in.getEndDate());
         result.setReason(in.getReason());
+        result.setVersion(in.getVersion());
         return result;
     }
 }
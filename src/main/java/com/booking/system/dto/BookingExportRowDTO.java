@@ -0,0 +1,46 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.model.Booking;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** One booking in an export: associations are referenced by id only, so exporting never loads them. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonPropertyOrder({"id", "propertyId", "guestId", "startDate", "endDate", "status", "version"})
+@Schema(description = "Booking row of an NDJSON or CSV export")
+public class BookingExportRowDTO {
+
+    @Schema(description = "Unique booking identifier", example = "1")
+    private Long id;
+
+    @Schema(description = "Id of the booked property", example = "1")
+    private Long propertyId;
+
+    @Schema(description = "Id of the guest", example = "1")
+    private Long guestId;
+
+    @Schema(description = "Check-in date (inclusive)", example = "2026-06-01")
+    private LocalDate startDate;
+
+    @Schema(description = "Check-out date (exclusive)", example = "2026-06-10")
+    private LocalDate endDate;
+
+    @Schema(description = "Current booking status", example = "BOOKED")
+    private BookingStatus status;
+
+    @Schema(description = "Version of the booking", example = "0")
+    private Long version;
+
+    public static BookingExportRowDTO of(Booking in) {
+        return new BookingExportRowDTO(in.getId(), in.getProperty().getId(), in.getGuest().getId(),
+                in.getStartDate(), in.getEndDate(), in.getStatus(), in.getVersion());
+    }
+}
@@ -36,14 +36,23 @@ public class BookingResponseDTO {
     @Schema(description = "Current booking status", example = "BOOKED")
     private BookingStatus status;
 
+    @Schema(description = "Version of the booking, changed by every update; also the first part of the ETag header", example = "0")
+    private Long version;
+
     public static BookingResponseDTO of(Booking in) {
+        return of(in, GuestResponseDTO.of(in.getGuest()));
+    }
+
+    /** Maps the booking with an already mapped guest, so an uninitialized guest proxy is never loaded. */
+    public static BookingResponseDTO of(Booking in, GuestResponseDTO guest) {
         BookingResponseDTO result = new BookingResponseDTO();
         result.setId(in.getId());
         result.setPropertyDTO(PropertyResponseDTO.of(in.getProperty()));
-        result.setGuestDTO(GuestResponseDTO.of(in.getGuest()));
+        result.setGuestDTO(guest);
         result.setStartDate(in.getStartDate());
         result.setEndDate(in.getEndDate());
         result.setStatus(in.getStatus());
+        result.setVersion(in.getVersion());
         return result;
     }
 }
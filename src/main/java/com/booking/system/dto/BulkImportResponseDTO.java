@@ -0,0 +1,33 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.ImportRowStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Per-row outcome of a bulk import")
+public class BulkImportResponseDTO {
+
+    @Schema(description = "Number of rows received", example = "3")
+    private int total;
+
+    @Schema(description = "Number of rows imported", example = "2")
+    private int created;
+
+    @Schema(description = "Number of rows rejected", example = "1")
+    private int failed;
+
+    @Schema(description = "Outcome of every row, in request order")
+    private List<BulkImportRowDTO> rows;
+
+    public static BulkImportResponseDTO of(List<BulkImportRowDTO> rows) {
+        int created = (int) rows.stream().filter(row -> row.getStatus() == ImportRowStatus.CREATED).count();
+        return new BulkImportResponseDTO(rows.size(), created, rows.size() - created, rows);
+    }
+}
@@ -0,0 +1,34 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.ImportRowStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of one row of a bulk import")
+public class BulkImportRowDTO {
+
+    @Schema(description = "Zero-based position of the row in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Whether the row was imported", example = "CREATED")
+    private ImportRowStatus status;
+
+    @Schema(description = "Id of the created entity, when imported", example = "1")
+    private Long id;
+
+    @Schema(description = "Why the row was rejected, when it failed", example = "The requested dates are already booked for this property")
+    private String error;
+
+    public static BulkImportRowDTO created(int index, Long id) {
+        return new BulkImportRowDTO(index, ImportRowStatus.CREATED, id, null);
+    }
+
+    public static BulkImportRowDTO failed(int index, String error) {
+        return new BulkImportRowDTO(index, ImportRowStatus.FAILED, null, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.booking.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** A rendered iCalendar feed as cached per property, with the validators sent alongside it. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarFeedDTO {
+
+    /** The {@code text/calendar} document. */
+    private String body;
+
+    /** Hash of the feed's content without its render timestamps, so re-rendering unchanged data keeps the tag. */
+    private String etag;
+
+    /** When the feed was rendered, truncated to seconds like the {@code Last-Modified} header. */
+    private Instant lastModified;
+}
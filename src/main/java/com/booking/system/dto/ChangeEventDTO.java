@@ -0,0 +1,64 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.model.ChangeEvent;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One booking or block change in the change feed")
+public class ChangeEventDTO {
+
+    @Schema(description = "Feed offset; pass it as 'since' or Last-Event-ID to resume after this change", example = "42")
+    private Long position;
+
+    @Schema(description = "What changed", example = "BOOKING")
+    private OccupancyKind kind;
+
+    @Schema(description = "Booking or block ID", example = "1")
+    private Long id;
+
+    @Schema(description = "State before the change, null when it was created")
+    private StateDTO before;
+
+    @Schema(description = "State after the change, null when it was deleted")
+    private StateDTO after;
+
+    @Schema(description = "When the change was committed", example = "2026-06-01T10:15:30Z")
+    private Instant occurredAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Dates and status of a booking or block at one point in time")
+    public static class StateDTO {
+
+        @Schema(description = "Property ID", example = "1")
+        private Long propertyId;
+
+        @Schema(description = "First night", example = "2026-06-01")
+        private LocalDate startDate;
+
+        @Schema(description = "Check-out day (exclusive)", example = "2026-06-05")
+        private LocalDate endDate;
+
+        @Schema(description = "Booking status, null for blocks", example = "BOOKED")
+        private BookingStatus status;
+    }
+
+    public static ChangeEventDTO of(ChangeEvent event) {
+        StateDTO before = event.getOldPropertyId() == null ? null
+                : new StateDTO(event.getOldPropertyId(), event.getOldStartDate(), event.getOldEndDate(), event.getOldStatus());
+        StateDTO after = event.getNewPropertyId() == null ? null
+                : new StateDTO(event.getNewPropertyId(), event.getNewStartDate(), event.getNewEndDate(), event.getNewStatus());
+        return new ChangeEventDTO(event.getPosition(), event.getKind(), event.getEntityId(), before, after, event.getCreatedAt());
+    }
+}
@@ -0,0 +1,26 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Changes after a feed offset, oldest first")
+public class ChangeFeedPageDTO {
+
+    @Schema(description = "Changes on this page")
+    private List<ChangeEventDTO> changes;
+
+    @Schema(description = "Value to pass as 'since' next time: the last position on this page, or the requested one if the page is empty", example = "42")
+    private long next;
+
+    public static ChangeFeedPageDTO of(long since, List<ChangeEventDTO> changes) {
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getPosition();
+        return new ChangeFeedPageDTO(changes, next);
+    }
+}
@@ -0,0 +1,32 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One page of a keyset (cursor) paginated listing, sorted by newest first")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Items on this page")
+    private List<T> content;
+
+    @Schema(description = "Requested page size", example = "20")
+    private int size;
+
+    @Schema(description = "Value to pass as 'after' to fetch the next page, or null on the last page", example = "42")
+    private Long nextCursor;
+
+    public static <E, T> CursorPageDTO<T> of(Slice<E> slice, Function<E, T> mapper, Function<E, Long> idExtractor) {
+        List<E> rows = slice.getContent();
+        Long nextCursor = slice.hasNext() ? idExtractor.apply(rows.get(rows.size() - 1)) : null;
+        return new CursorPageDTO<>(rows.stream().map(mapper).toList(), slice.getSize(), nextCursor);
+    }
+}
@@ -0,0 +1,26 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Request payload for booking several properties at once, all or nothing")
+public class GroupBookingRequestDTO {
+
+    public static final int MAX_BOOKINGS = 50;
+
+    @NotEmpty(message = "At least one booking is required")
+    @Size(max = MAX_BOOKINGS, message = "At most " + MAX_BOOKINGS + " bookings can be made at once")
+    @Schema(description = "Bookings to create; either all of them are created or none")
+    private List<@Valid @NotNull(message = "Bookings cannot be null") BookingRequestDTO> bookings;
+}
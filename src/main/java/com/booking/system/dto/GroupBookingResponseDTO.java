@@ -0,0 +1,18 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Bookings created by a group booking")
+public class GroupBookingResponseDTO {
+
+    @Schema(description = "The created bookings, in request order")
+    private List<BookingResponseDTO> bookings;
+}
@@ -21,11 +21,15 @@ public class GuestResponseDTO {
     @Schema(description = "Email address of the guest", example = "john.doe@example.com")
     private String email;
 
+    @Schema(description = "Version of the guest, changed by every update; also returned as the ETag header", example = "0")
+    private Long version;
+
     public static GuestResponseDTO of(Guest in) {
         GuestResponseDTO result = new GuestResponseDTO();
         result.setId(in.getId());
         result.setName(in.getName());
         result.setEmail(in.getEmail());
+        result.setVersion(in.getVersion());
         return result;
     }
 }
@@ -0,0 +1,36 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Occupancy of one month")
+public class OccupancyRateDTO {
+
+    @Schema(description = "Calendar month", example = "2026-06", type = "string")
+    private YearMonth month;
+
+    @Schema(description = "Calendar nights of the month, times the number of properties", example = "30")
+    private long nights;
+
+    @Schema(description = "Nights taken by active bookings (revenue nights)", example = "18")
+    private long bookedNights;
+
+    @Schema(description = "Nights taken by blocks, not available for sale", example = "5")
+    private long blockedNights;
+
+    @Schema(description = "Booked nights divided by the nights not blocked, from 0 to 1", example = "0.72")
+    private double occupancyRate;
+
+    public static OccupancyRateDTO of(YearMonth month, long nights, long bookedNights, long blockedNights) {
+        long sellable = nights - blockedNights;
+        double rate = sellable > 0 ? Math.round(10_000.0 * bookedNights / sellable) / 10_000.0 : 0;
+        return new OccupancyRateDTO(month, nights, bookedNights, blockedNights, rate);
+    }
+}
@@ -0,0 +1,20 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.OccupancyState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Consecutive nights sharing the same state")
+public class OccupancyRunDTO {
+
+    @Schema(description = "State of every night in the run", example = "BOOKED")
+    private OccupancyState state;
+
+    @Schema(description = "Number of nights in the run", example = "5")
+    private int nights;
+}
@@ -0,0 +1,43 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.OccupancyState;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Per-night occupancy of a property, run-length encoded: the runs cover every night from 'from' up to 'to' in order")
+public class PropertyOccupancyDTO {
+
+    @Schema(description = "Property identifier", example = "1")
+    private Long propertyId;
+
+    @Schema(description = "First night covered (inclusive)", example = "2026-06-01")
+    private LocalDate from;
+
+    @Schema(description = "End of the covered range (exclusive)", example = "2027-06-01")
+    private LocalDate to;
+
+    @Schema(description = "Runs of consecutive nights with the same state")
+    private List<OccupancyRunDTO> runs;
+
+    /** Encodes one state per night, starting at {@code from}, as runs. */
+    public static PropertyOccupancyDTO of(Long propertyId, LocalDate from, LocalDate to, OccupancyState[] nights) {
+        List<OccupancyRunDTO> runs = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= nights.length; i++) {
+            if (i == nights.length || nights[i] != nights[start]) {
+                runs.add(new OccupancyRunDTO(nights[start], i - start));
+                start = i;
+            }
+        }
+        return new PropertyOccupancyDTO(propertyId, from, to, runs);
+    }
+}
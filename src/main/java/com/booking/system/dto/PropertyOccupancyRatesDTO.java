@@ -0,0 +1,21 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Monthly occupancy of one property")
+public class PropertyOccupancyRatesDTO {
+
+    @Schema(description = "Property identifier", example = "1")
+    private Long propertyId;
+
+    @Schema(description = "One entry per requested month, in order")
+    private List<OccupancyRateDTO> months;
+}
@@ -1,5 +1,6 @@
 package com.booking.system.dto;
 
+import com.booking.system.enumeration.PropertyLockMode;
 import com.booking.system.enumeration.PropertyType;
 import com.booking.system.model.Property;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -25,10 +26,16 @@ public class PropertyRequestDTO {
     @Schema(description = "Type of the property", example = "HOUSE")
     private PropertyType type;
 
+    @Schema(description = "How concurrent writes on the property are serialized; PESSIMISTIC when omitted on create, unchanged when omitted on update", example = "PESSIMISTIC")
+    private PropertyLockMode lockMode;
+
     public static Property toProperty(PropertyRequestDTO in) {
         Property result = new Property();
         result.setName(in.getName());
         result.setType(in.getType());
+        if (in.getLockMode() != null) {
+            result.setLockMode(in.getLockMode());
+        }
         return result;
     }
 }
@@ -1,5 +1,6 @@
 package com.booking.system.dto;
 
+import com.booking.system.enumeration.PropertyLockMode;
 import com.booking.system.enumeration.PropertyType;
 import com.booking.system.model.Property;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -22,11 +23,19 @@ public class PropertyResponseDTO {
     @Schema(description = "Type of the property", example = "HOUSE")
     private PropertyType type;
 
+    @Schema(description = "How concurrent writes on the property are serialized", example = "PESSIMISTIC")
+    private PropertyLockMode lockMode;
+
+    @Schema(description = "Version of the property, changed by every update; also returned as the ETag header", example = "0")
+    private Long version;
+
     public static PropertyResponseDTO of(Property in) {
         PropertyResponseDTO result = new PropertyResponseDTO();
         result.setId(in.getId());
         result.setName(in.getName());
         result.setType(in.getType());
+        result.setLockMode(in.getLockMode());
+        result.setVersion(in.getVersion());
         return result;
     }
 }
@@ -0,0 +1,22 @@
+package com.booking.system.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a full occupancy rollup rebuild")
+public class RollupRebuildDTO {
+
+    @Schema(description = "Properties rebuilt", example = "1000")
+    private int properties;
+
+    @Schema(description = "Property-month rows written", example = "14000")
+    private int rows;
+
+    @Schema(description = "Wall-clock time of the rebuild in milliseconds", example = "850")
+    private long durationMs;
+}
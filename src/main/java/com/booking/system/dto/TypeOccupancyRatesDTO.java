@@ -0,0 +1,25 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.PropertyType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Monthly occupancy of all properties of one type")
+public class TypeOccupancyRatesDTO {
+
+    @Schema(description = "Property type", example = "HOUSE")
+    private PropertyType type;
+
+    @Schema(description = "Number of properties of this type", example = "12")
+    private long properties;
+
+    @Schema(description = "One entry per requested month, in order")
+    private List<OccupancyRateDTO> months;
+}
@@ -0,0 +1,39 @@
+package com.booking.system.dto;
+
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.enumeration.WriteTicketStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A booking or block write queued on its property's writer")
+public class WriteTicketDTO {
+
+    @Schema(description = "Ticket ID; poll /api/v1/tickets/{id} for the outcome", example = "3f2b8c1e-6a0d-4e57-9a5e-0c1d2e3f4a5b")
+    private String id;
+
+    @Schema(description = "What is being created", example = "BOOKING")
+    private OccupancyKind kind;
+
+    @Schema(description = "Whether the write is still queued or has committed; a failed write answers with its error instead", example = "PENDING")
+    private WriteTicketStatus status;
+
+    @Schema(description = "ID of the created booking or block, once completed", example = "1")
+    private Long resourceId;
+
+    @Schema(description = "URL of the created booking or block, once completed", example = "/api/v1/bookings/1")
+    private String location;
+
+    public static WriteTicketDTO pending(String id, OccupancyKind kind) {
+        return new WriteTicketDTO(id, kind, WriteTicketStatus.PENDING, null, null);
+    }
+
+    public static WriteTicketDTO completed(String id, OccupancyKind kind, Long resourceId) {
+        String collection = kind == OccupancyKind.BOOKING ? "/api/v1/bookings/" : "/api/v1/blocks/";
+        return new WriteTicketDTO(id, kind, WriteTicketStatus.COMPLETED, resourceId, collection + resourceId);
+    }
+}
@@ -0,0 +1,6 @@
+package com.booking.system.enumeration;
+
+/** Outcome of one availability check. */
+public enum AvailabilityStatus {
+    AVAILABLE, CONFLICT, PROPERTY_NOT_FOUND, INVALID_RANGE
+}
@@ -0,0 +1,5 @@
+package com.booking.system.enumeration;
+
+public enum ImportRowStatus {
+    CREATED, FAILED
+}
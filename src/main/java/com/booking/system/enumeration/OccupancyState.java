@@ -0,0 +1,6 @@
+package com.booking.system.enumeration;
+
+/** State of one night in the occupancy view, in increasing precedence. */
+public enum OccupancyState {
+    FREE, BOOKED, BLOCKED
+}
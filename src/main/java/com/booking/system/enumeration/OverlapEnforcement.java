@@ -0,0 +1,5 @@
+package com.booking.system.enumeration;
+
+public enum OverlapEnforcement {
+    LOCK_AND_CHECK, NIGHT_TABLE
+}
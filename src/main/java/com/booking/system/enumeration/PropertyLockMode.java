@@ -0,0 +1,5 @@
+package com.booking.system.enumeration;
+
+public enum PropertyLockMode {
+    PESSIMISTIC, OPTIMISTIC, STRIPED
+}
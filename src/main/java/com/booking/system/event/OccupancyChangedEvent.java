@@ -0,0 +1,57 @@
+package com.booking.system.event;
+
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.model.Block;
+import com.booking.system.model.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * Published synchronously, inside the writing transaction, whenever a booking or block is created,
+ * changed or removed. {@code before} is null for inserts and {@code after} is null for deletes.
+ */
+public record OccupancyChangedEvent(OccupancyKind kind, Long id, Snapshot before, Snapshot after) {
+
+    /** State of a booking or block at one point in time. Blocks have no status and are always active. */
+    public record Snapshot(Long propertyId, LocalDate startDate, LocalDate endDate, BookingStatus status) {
+
+        public static Snapshot of(Booking booking) {
+            return new Snapshot(booking.getProperty().getId(), booking.getStartDate(), booking.getEndDate(), booking.getStatus());
+        }
+
+        public static Snapshot of(Block block) {
+            return new Snapshot(block.getProperty().getId(), block.getStartDate(), block.getEndDate(), null);
+        }
+
+        /** Whether this state occupies its dates (blocks, BOOKED and REBOOKED bookings). */
+        public boolean isActive() {
+            return status != BookingStatus.CANCELLED;
+        }
+    }
+
+    /** The range this change frees up, or null if nothing was occupied before. */
+    public OccupiedInterval released() {
+        return toInterval(before);
+    }
+
+    /** The range this change takes, or null if nothing is occupied afterwards. */
+    public OccupiedInterval occupied() {
+        return toInterval(after);
+    }
+
+    private OccupiedInterval toInterval(Snapshot snapshot) {
+        if (snapshot == null || !snapshot.isActive()) {
+            return null;
+        }
+        return new OccupiedInterval(kind, id, snapshot.propertyId(), snapshot.startDate(), snapshot.endDate());
+    }
+
+    public static OccupancyChangedEvent ofBooking(Long id, Snapshot before, Snapshot after) {
+        return new OccupancyChangedEvent(OccupancyKind.BOOKING, id, before, after);
+    }
+
+    public static OccupancyChangedEvent ofBlock(Long id, Snapshot before, Snapshot after) {
+        return new OccupancyChangedEvent(OccupancyKind.BLOCK, id, before, after);
+    }
+}
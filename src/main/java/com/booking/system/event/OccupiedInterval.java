@@ -0,0 +1,23 @@
+package com.booking.system.event;
+
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.repository.OccupiedRange;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/** Date range held by one active booking or block. End date is exclusive, like everywhere else. */
+public record OccupiedInterval(OccupancyKind kind, Long id, Long propertyId, LocalDate startDate, LocalDate endDate) {
+
+    public static OccupiedInterval of(OccupancyKind kind, OccupiedRange range) {
+        return new OccupiedInterval(kind, range.getId(), range.getPropertyId(), range.getStartDate(), range.getEndDate());
+    }
+
+    public boolean overlaps(LocalDate start, LocalDate end) {
+        return startDate.isBefore(end) && endDate.isAfter(start);
+    }
+
+    public long lengthInDays() {
+        return ChronoUnit.DAYS.between(startDate, endDate);
+    }
+}
@@ -0,0 +1,8 @@
+package com.booking.system.event;
+
+/**
+ * Published synchronously, inside the writing transaction, whenever a property is updated or deleted, for listeners
+ * that cannot depend on {@code PropertyService} directly.
+ */
+public record PropertyChangedEvent(Long propertyId) {
+}
@@ -0,0 +1,36 @@
+package com.booking.system.exception;
+
+import java.time.Duration;
+
+/**
+ * A write turned away before it reached the database: too many writes already waiting for the same property
+ * ({@code propertyBusy}) or for the service as a whole.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final boolean propertyBusy;
+    private final Duration retryAfter;
+
+    private AdmissionRejectedException(String message, boolean propertyBusy, Duration retryAfter) {
+        super(message);
+        this.propertyBusy = propertyBusy;
+        this.retryAfter = retryAfter;
+    }
+
+    public static AdmissionRejectedException propertyBusy(Long propertyId, Duration retryAfter) {
+        return new AdmissionRejectedException("Too many concurrent writes for property " + propertyId + ", please retry later",
+                true, retryAfter);
+    }
+
+    public static AdmissionRejectedException overloaded(Duration retryAfter) {
+        return new AdmissionRejectedException("The service is overloaded, please retry later", false, retryAfter);
+    }
+
+    public boolean isPropertyBusy() {
+        return propertyBusy;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,8 +1,12 @@
 package com.booking.system.exception;
 
+/**
+ * The requested dates overlap an existing booking or block. Expected by the thousand when a popular property sells
+ * out, so no stack trace is captured: the message says all there is to say.
+ */
 public class DateAlreadyBookedException extends RuntimeException {
 
     public DateAlreadyBookedException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,11 +1,15 @@
 package com.booking.system.exception;
 
+import com.booking.system.model.OccupiedNight;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -57,12 +61,54 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(WriteTicketNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleWriteTicketNotFound(WriteTicketNotFoundException ex) {
+        log.warn("Write ticket not found: {}", ex.getMessage());
+        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
     @ExceptionHandler(InvalidBookingStateException.class)
     public ResponseEntity<Map<String, Object>> handleInvalidState(InvalidBookingStateException ex) {
         log.warn("Invalid booking state: {}", ex.getMessage());
         return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> handlePreconditionFailed(PreconditionFailedException ex) {
+        log.warn("Precondition failed: {}", ex.getMessage());
+        return buildResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        log.warn("Idempotency key reused: {}", ex.getMessage());
+        return buildResponse(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleAdmissionRejected(AdmissionRejectedException ex) {
+        log.warn("Write rejected: {}", ex.getMessage());
+        HttpStatus status = ex.isPropertyBusy() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(buildResponse(status, ex.getMessage()).getBody());
+    }
+
+    @ExceptionHandler(PropertyLockTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handlePropertyLockTimeout(PropertyLockTimeoutException ex) {
+        log.warn("Lock wait exhausted: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()).getBody());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        return buildResponse(HttpStatus.CONFLICT, "The resource was modified concurrently, please retry");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
         Map<String, String> fieldErrors = new HashMap<>();
@@ -110,16 +156,38 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (isOccupiedNightConflict(ex)) {
+            return handleDateAlreadyBooked(
+                    new DateAlreadyBookedException("The requested dates are already booked or blocked for this property"));
+        }
         log.warn("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
         return buildResponse(HttpStatus.CONFLICT, "Cannot delete entity because it is referenced by other records");
     }
 
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, Object>> handleCannotCreateTransaction(CannotCreateTransactionException ex) {
+        log.warn("No database connection available: {}", ex.getMostSpecificCause().getMessage());
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "The service is overloaded, please retry later");
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneric(Exception ex) {
         log.error("Unexpected error occurred", ex);
         return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
     }
 
+    /** Whether the violation is the night table's unique (property, night) key, i.e. an overlapping write. */
+    private boolean isOccupiedNightConflict(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(OccupiedNight.UNIQUE_NIGHT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private ResponseEntity<Map<String, Object>> buildResponse(HttpStatus status, String message) {
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
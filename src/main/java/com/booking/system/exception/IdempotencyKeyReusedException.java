@@ -0,0 +1,8 @@
+package com.booking.system.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key '" + key + "' was already used for a different request");
+    }
+}
@@ -0,0 +1,12 @@
+package com.booking.system.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(Long expectedVersion, Long currentVersion) {
+        super("If-Match requires version " + expectedVersion + " but the current version is " + currentVersion);
+    }
+}
@@ -0,0 +1,11 @@
+package com.booking.system.exception;
+
+import java.time.Duration;
+
+/** A write gave up waiting for its property's lock; safe to retry, nothing was written. */
+public class PropertyLockTimeoutException extends RuntimeException {
+
+    public PropertyLockTimeoutException(Long propertyId, Duration waited) {
+        super("Property " + propertyId + " is busy: its lock was not acquired within " + waited.toMillis() + " ms, please retry");
+    }
+}
@@ -0,0 +1,8 @@
+package com.booking.system.exception;
+
+public class WriteTicketNotFoundException extends RuntimeException {
+
+    public WriteTicketNotFoundException(String id) {
+        super("Write ticket " + id + " not found or expired");
+    }
+}
@@ -6,14 +6,17 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDate;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.FetchType.LAZY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.NONE;
 
 @Data
@@ -22,11 +25,12 @@ import static lombok.AccessLevel.NONE;
 @Table(name = "blocks")
 public class Block {
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "block_seq")
+    @SequenceGenerator(name = "block_seq", sequenceName = "block_seq", allocationSize = 50)
     @Setter(NONE)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = LAZY, optional = false)
     @JoinColumn(nullable = false)
     private Property property;
 
@@ -38,4 +42,8 @@ public class Block {
 
     @Column(length = 255)
     private String reason;
+
+    @Version
+    @Setter(NONE)
+    private Long version;
 }
@@ -8,6 +8,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -16,7 +18,8 @@ import java.time.LocalDate;
 
 import static com.booking.system.enumeration.BookingStatus.BOOKED;
 import static jakarta.persistence.EnumType.STRING;
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.FetchType.LAZY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 import static lombok.AccessLevel.NONE;
 
 @Data
@@ -24,15 +27,16 @@ import static lombok.AccessLevel.NONE;
 @Entity
 public class Booking {
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     @Setter(NONE)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = LAZY, optional = false)
     @JoinColumn(nullable = false)
     private Property property;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = LAZY, optional = false)
     @JoinColumn(nullable = false)
     private Guest guest;
 
@@ -45,4 +49,8 @@ public class Booking {
     @Enumerated(STRING)
     @Column(nullable = false, length = 50)
     private BookingStatus status = BOOKED;
+
+    @Version
+    @Setter(NONE)
+    private Long version;
 }
@@ -0,0 +1,98 @@
+package com.booking.system.model;
+
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupancyChangedEvent.Snapshot;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static jakarta.persistence.EnumType.STRING;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+import static lombok.AccessLevel.NONE;
+
+/**
+ * Outbox row for one booking or block change. The {@code old*} columns are null for inserts, the {@code new*} columns
+ * for deletes, and both statuses are null for blocks. {@code position} stays null until the dispatcher publishes it.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "change_event",
+        uniqueConstraints = @UniqueConstraint(name = "uk_change_event_position", columnNames = "feed_position"))
+public class ChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "change_event_seq")
+    @SequenceGenerator(name = "change_event_seq", sequenceName = "change_event_seq", allocationSize = 50)
+    @Setter(NONE)
+    private Long id;
+
+    /** Offset in the change feed, dense and increasing in publication order. */
+    @Column(name = "feed_position")
+    private Long position;
+
+    @Enumerated(STRING)
+    @Column(nullable = false, length = 50)
+    private OccupancyKind kind;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    private Long oldPropertyId;
+
+    private LocalDate oldStartDate;
+
+    private LocalDate oldEndDate;
+
+    @Enumerated(STRING)
+    @Column(length = 50)
+    private BookingStatus oldStatus;
+
+    private Long newPropertyId;
+
+    private LocalDate newStartDate;
+
+    private LocalDate newEndDate;
+
+    @Enumerated(STRING)
+    @Column(length = 50)
+    private BookingStatus newStatus;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public static ChangeEvent of(OccupancyChangedEvent event) {
+        ChangeEvent result = new ChangeEvent();
+        result.setKind(event.kind());
+        result.setEntityId(event.id());
+        Snapshot before = event.before();
+        if (before != null) {
+            result.setOldPropertyId(before.propertyId());
+            result.setOldStartDate(before.startDate());
+            result.setOldEndDate(before.endDate());
+            result.setOldStatus(before.status());
+        }
+        Snapshot after = event.after();
+        if (after != null) {
+            result.setNewPropertyId(after.propertyId());
+            result.setNewStartDate(after.startDate());
+            result.setNewEndDate(after.endDate());
+            result.setNewStatus(after.status());
+        }
+        result.setCreatedAt(Instant.now());
+        return result;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -25,4 +26,8 @@ public class Guest {
 
     @Column(nullable = false, length = 255)
     private String email;
+
+    @Version
+    @Setter(NONE)
+    private Long version;
 }
@@ -0,0 +1,56 @@
+package com.booking.system.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+import static lombok.AccessLevel.NONE;
+
+/** Nights of one property and calendar month taken by active bookings and by blocks. */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "occupancy_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_occupancy_rollup_property_month", columnNames = {"property_id", "month_start"}),
+        indexes = @Index(name = "idx_occupancy_rollup_month", columnList = "month_start"))
+public class OccupancyRollup {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "occupancy_rollup_seq")
+    @SequenceGenerator(name = "occupancy_rollup_seq", sequenceName = "occupancy_rollup_seq", allocationSize = 50)
+    @Setter(NONE)
+    private Long id;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    /** First day of the month. */
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "booked_nights", nullable = false)
+    private int bookedNights;
+
+    @Column(name = "blocked_nights", nullable = false)
+    private int blockedNights;
+
+    public static OccupancyRollup of(Long propertyId, LocalDate monthStart, int bookedNights, int blockedNights) {
+        OccupancyRollup result = new OccupancyRollup();
+        result.setPropertyId(propertyId);
+        result.setMonthStart(monthStart);
+        result.setBookedNights(bookedNights);
+        result.setBlockedNights(blockedNights);
+        return result;
+    }
+}
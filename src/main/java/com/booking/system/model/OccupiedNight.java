@@ -0,0 +1,65 @@
+package com.booking.system.model;
+
+import com.booking.system.enumeration.OccupancyKind;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+import static jakarta.persistence.EnumType.STRING;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+import static lombok.AccessLevel.NONE;
+
+/**
+ * One night of a property taken by an active booking or a block. The unique (property, night) key makes
+ * the database reject overlapping writes when {@code booking.overlap.enforcement} is {@code night-table}.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "occupied_night",
+        uniqueConstraints = @UniqueConstraint(name = OccupiedNight.UNIQUE_NIGHT, columnNames = {"property_id", "night"}),
+        indexes = @Index(name = "idx_occupied_night_owner", columnList = "kind, owner_id"))
+public class OccupiedNight {
+
+    public static final String UNIQUE_NIGHT = "uk_occupied_night_property_night";
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE, generator = "occupied_night_seq")
+    @SequenceGenerator(name = "occupied_night_seq", sequenceName = "occupied_night_seq", allocationSize = 50)
+    @Setter(NONE)
+    private Long id;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Column(nullable = false)
+    private LocalDate night;
+
+    @Enumerated(STRING)
+    @Column(nullable = false, length = 50)
+    private OccupancyKind kind;
+
+    /** Id of the booking or block, depending on {@code kind}. */
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    public static OccupiedNight of(OccupancyKind kind, Long ownerId, Long propertyId, LocalDate night) {
+        OccupiedNight result = new OccupiedNight();
+        result.setKind(kind);
+        result.setOwnerId(ownerId);
+        result.setPropertyId(propertyId);
+        result.setNight(night);
+        return result;
+    }
+}
@@ -1,11 +1,13 @@
 package com.booking.system.model;
 
+import com.booking.system.enumeration.PropertyLockMode;
 import com.booking.system.enumeration.PropertyType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -30,4 +32,22 @@ public class Property {
     @Enumerated(STRING)
     @Column(nullable = false, length = 50)
     private PropertyType type;
+
+    /** How concurrent booking and block writes on this property are serialized. */
+    @Enumerated(STRING)
+    @Column(nullable = false, length = 50)
+    private PropertyLockMode lockMode = PropertyLockMode.PESSIMISTIC;
+
+    @Version
+    @Setter(NONE)
+    private Long version;
+
+    /**
+     * Bumped at commit by booking and block writes under {@code OPTIMISTIC} locking. Only ever written by
+     * {@code PropertyRepository.incrementLockVersion}, so it neither changes {@link #version} nor gets overwritten by
+     * an update of the property itself.
+     */
+    @Column(insertable = false, updatable = false)
+    @Setter(NONE)
+    private long lockVersion;
 }
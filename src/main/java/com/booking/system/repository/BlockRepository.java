@@ -1,14 +1,46 @@
 package com.booking.system.repository;
 
 import com.booking.system.model.Block;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BlockRepository extends JpaRepository<Block, Long> {
 
+    /** Loads a page of blocks together with their property in a single select, driven by the primary key (see BookingRepository). */
+    @Override
+    @Query(value = "SELECT b FROM Block b LEFT JOIN FETCH b.property",
+            countQuery = "SELECT COUNT(b) FROM Block b")
+    Page<Block> findAll(Pageable pageable);
+
+    /** Keyset page: blocks with an id below {@code id}, in the pageable's order, without a count query. */
+    @EntityGraph(attributePaths = "property")
+    Slice<Block> findByIdLessThan(Long id, Pageable pageable);
+
+    /** Reads only the versions making up the ETag, for conditional GETs that must not load the block. */
+    @Query("SELECT b.version AS version, p.version AS propertyVersion FROM Block b JOIN b.property p WHERE b.id = :id")
+    Optional<BlockVersions> findVersionsById(@Param("id") Long id);
+
+    /** Reads only the id of the block's property, without loading the block. */
+    @Query("SELECT b.property.id FROM Block b WHERE b.id = :id")
+    Optional<Long> findPropertyIdById(@Param("id") Long id);
+
+    /** Loads a block together with its property, for read paths that render it. */
+    @EntityGraph(attributePaths = "property")
+    Optional<Block> findWithPropertyById(Long id);
+
     /**
      * Checks if any block overlaps the given date range on a property.
      *
@@ -23,4 +55,37 @@ public interface BlockRepository extends JpaRepository<Block, Long> {
                        @Param("startDate") LocalDate startDate,
                        @Param("endDate") LocalDate endDate,
                        @Param("excludeId") Long excludeId);
+
+    /** Date ranges of a property's blocks that overlap the date range. */
+    @Query("SELECT b.id AS id, b.property.id AS propertyId, b.startDate AS startDate, b.endDate AS endDate " +
+            "FROM Block b " +
+            "WHERE b.property.id = :propertyId " +
+            "AND b.startDate < :endDate " +
+            "AND b.endDate > :startDate")
+    List<OccupiedRange> findOverlappingRanges(@Param("propertyId") Long propertyId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+
+    /** Date ranges of blocks that end after {@code date}, across every property. */
+    @Query("SELECT b.id AS id, b.property.id AS propertyId, b.startDate AS startDate, b.endDate AS endDate " +
+            "FROM Block b WHERE b.endDate > :date")
+    List<OccupiedRange> findRangesEndingAfter(@Param("date") LocalDate date);
+
+    /** Blocks of a property that end after {@code date}, in calendar order. */
+    @Query("SELECT b FROM Block b WHERE b.property.id = :propertyId AND b.endDate > :date ORDER BY b.startDate, b.id")
+    List<Block> findCalendarEntries(@Param("propertyId") Long propertyId, @Param("date") LocalDate date);
+
+    /** Blocks matching the export filters, oldest first, streamed like {@link BookingRepository#streamForExport}. */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BookingRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Block b " +
+            "WHERE (:propertyId IS NULL OR b.property.id = :propertyId) " +
+            "AND (:from IS NULL OR b.endDate > :from) " +
+            "AND (:to IS NULL OR b.startDate < :to) " +
+            "ORDER BY b.id")
+    Stream<Block> streamForExport(@Param("propertyId") Long propertyId,
+                                  @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
 }
@@ -0,0 +1,9 @@
+package com.booking.system.repository;
+
+/** Versions of a block and of the property embedded in its responses. */
+public interface BlockVersions {
+
+    Long getVersion();
+
+    Long getPropertyVersion();
+}
@@ -2,15 +2,58 @@ package com.booking.system.repository;
 
 import com.booking.system.enumeration.BookingStatus;
 import com.booking.system.model.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    /** Rows fetched per round trip by the export streams. */
+    String EXPORT_FETCH_SIZE = "1000";
+
+    /**
+     * Loads a page of bookings together with their property and guest in a single select. The joins are outer joins
+     * so the database keeps booking as the driving table and reads the page straight off the primary key; with inner
+     * joins H2 may start from guest or property and sort every booking before applying the limit.
+     */
+    @Override
+    @Query(value = "SELECT b FROM Booking b LEFT JOIN FETCH b.property LEFT JOIN FETCH b.guest",
+            countQuery = "SELECT COUNT(b) FROM Booking b")
+    Page<Booking> findAll(Pageable pageable);
+
+    /**
+     * Keyset page: bookings with an id below {@code id}, in the pageable's order, without a count query.
+     * Cost is independent of how deep the page is.
+     */
+    @EntityGraph(attributePaths = {"property", "guest"})
+    Slice<Booking> findByIdLessThan(Long id, Pageable pageable);
+
+    /** Reads only the versions making up the ETag, for conditional GETs that must not load the booking. */
+    @Query("SELECT b.version AS version, p.version AS propertyVersion, g.version AS guestVersion " +
+            "FROM Booking b JOIN b.property p JOIN b.guest g WHERE b.id = :id")
+    Optional<BookingVersions> findVersionsById(@Param("id") Long id);
+
+    /** Reads only the id of the booking's property, without loading the booking. */
+    @Query("SELECT b.property.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findPropertyIdById(@Param("id") Long id);
+
+    /** Loads a booking together with its property and guest, for read paths that render them. */
+    @EntityGraph(attributePaths = {"property", "guest"})
+    Optional<Booking> findWithAssociationsById(Long id);
+
     /**
      * Checks if any active booking overlaps the given date range on a property.
      * Adjacent dates don't conflict (checkout day = next check-in day is allowed).
@@ -28,4 +71,79 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                        @Param("endDate") LocalDate endDate,
                        @Param("statuses") List<BookingStatus> statuses,
                        @Param("excludeId") Long excludeId);
-}
\ No newline at end of file
+
+    /** Date ranges of a property's bookings in the given statuses that overlap the date range. */
+    @Query("SELECT b.id AS id, b.property.id AS propertyId, b.startDate AS startDate, b.endDate AS endDate " +
+            "FROM Booking b " +
+            "WHERE b.property.id = :propertyId " +
+            "AND b.startDate < :endDate " +
+            "AND b.endDate > :startDate " +
+            "AND b.status IN :statuses")
+    List<OccupiedRange> findOverlappingRanges(@Param("propertyId") Long propertyId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate,
+                                              @Param("statuses") List<BookingStatus> statuses);
+
+    /** Date ranges of bookings in the given statuses that end after {@code date}, across every property. */
+    @Query("SELECT b.id AS id, b.property.id AS propertyId, b.startDate AS startDate, b.endDate AS endDate " +
+            "FROM Booking b WHERE b.status IN :statuses AND b.endDate > :date")
+    List<OccupiedRange> findRangesEndingAfter(@Param("statuses") List<BookingStatus> statuses,
+                                              @Param("date") LocalDate date);
+
+    /**
+     * Ranges of the properties' bookings in the given statuses and of their blocks that overlap {@code [from, to)},
+     * in one statement. Both halves are served by the (property, start date, end date) indexes.
+     */
+    @Query("SELECT b.property.id AS propertyId, com.booking.system.enumeration.OccupancyKind.BOOKING AS kind, " +
+            "b.startDate AS startDate, b.endDate AS endDate " +
+            "FROM Booking b " +
+            "WHERE b.property.id IN :propertyIds AND b.startDate < :to AND b.endDate > :from AND b.status IN :statuses " +
+            "UNION ALL " +
+            "SELECT k.property.id, com.booking.system.enumeration.OccupancyKind.BLOCK, k.startDate, k.endDate " +
+            "FROM Block k " +
+            "WHERE k.property.id IN :propertyIds AND k.startDate < :to AND k.endDate > :from")
+    List<OccupancySpan> findOccupancy(@Param("propertyIds") Collection<Long> propertyIds,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to,
+                                      @Param("statuses") List<BookingStatus> statuses);
+
+    /** Every range of the properties' bookings in the given statuses and of their blocks, in one statement. */
+    @Query("SELECT b.property.id AS propertyId, com.booking.system.enumeration.OccupancyKind.BOOKING AS kind, " +
+            "b.startDate AS startDate, b.endDate AS endDate " +
+            "FROM Booking b " +
+            "WHERE b.property.id IN :propertyIds AND b.status IN :statuses " +
+            "UNION ALL " +
+            "SELECT k.property.id, com.booking.system.enumeration.OccupancyKind.BLOCK, k.startDate, k.endDate " +
+            "FROM Block k " +
+            "WHERE k.property.id IN :propertyIds")
+    List<OccupancySpan> findAllOccupancy(@Param("propertyIds") Collection<Long> propertyIds,
+                                         @Param("statuses") List<BookingStatus> statuses);
+
+    /** Bookings of a property in the given statuses that end after {@code date}, in calendar order. */
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.property.id = :propertyId AND b.status IN :statuses AND b.endDate > :date " +
+            "ORDER BY b.startDate, b.id")
+    List<Booking> findCalendarEntries(@Param("propertyId") Long propertyId,
+                                      @Param("statuses") List<BookingStatus> statuses,
+                                      @Param("date") LocalDate date);
+
+    /**
+     * Bookings matching the export filters, oldest first, as a forward-only stream read {@code fetchSize} rows at a
+     * time. Null filters match everything; {@code from}/{@code to} select bookings overlapping that range.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b " +
+            "WHERE (:propertyId IS NULL OR b.property.id = :propertyId) " +
+            "AND (:status IS NULL OR b.status = :status) " +
+            "AND (:from IS NULL OR b.endDate > :from) " +
+            "AND (:to IS NULL OR b.startDate < :to) " +
+            "ORDER BY b.id")
+    Stream<Booking> streamForExport(@Param("propertyId") Long propertyId,
+                                    @Param("status") BookingStatus status,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+}
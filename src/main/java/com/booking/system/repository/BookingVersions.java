@@ -0,0 +1,11 @@
+package com.booking.system.repository;
+
+/** Versions of a booking and of the property and guest embedded in its responses. */
+public interface BookingVersions {
+
+    Long getVersion();
+
+    Long getPropertyVersion();
+
+    Long getGuestVersion();
+}
@@ -0,0 +1,8 @@
+package com.booking.system.repository;
+
+import com.booking.system.model.ChangeEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** Appends outbox rows inside the writing transaction; {@link ChangeFeedRepository} publishes and reads them. */
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+}
@@ -0,0 +1,94 @@
+package com.booking.system.repository;
+
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.model.ChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes and reads {@code change_event} rows with plain JDBC. The dispatcher runs on its own thread all the time,
+ * needs no persistence context, and this keeps its polling out of the Hibernate session statistics.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChangeFeedRepository {
+
+    private static final RowMapper<ChangeEvent> ROW_MAPPER = ChangeFeedRepository::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Ids of committed rows without a feed position, oldest first. */
+    public List<Long> findUnpublishedIds(int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM change_event WHERE feed_position IS NULL ORDER BY id FETCH FIRST ? ROWS ONLY", Long.class, limit);
+    }
+
+    /** The last assigned feed position, 0 if none. */
+    public long findMaxPosition() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(feed_position) FROM change_event", Long.class);
+        return max != null ? max : 0;
+    }
+
+    /** Gives the rows consecutive feed positions starting at {@code firstPosition}, in the given order. */
+    public void assignPositions(List<Long> ids, long firstPosition) {
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            args.add(new Object[]{firstPosition + i, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE change_event SET feed_position = ? WHERE id = ?", args);
+    }
+
+    /** Published rows after {@code since}, by position; with a property id only those touching it before or after. */
+    public List<ChangeEvent> findSince(long since, Long propertyId, int limit) {
+        if (propertyId == null) {
+            return jdbcTemplate.query("SELECT * FROM change_event WHERE feed_position > ? "
+                    + "ORDER BY feed_position FETCH FIRST ? ROWS ONLY", ROW_MAPPER, since, limit);
+        }
+        return jdbcTemplate.query("SELECT * FROM change_event WHERE feed_position > ? "
+                + "AND (old_property_id = ? OR new_property_id = ?) "
+                + "ORDER BY feed_position FETCH FIRST ? ROWS ONLY", ROW_MAPPER, since, propertyId, propertyId, limit);
+    }
+
+    public int deletePublishedBefore(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM change_event WHERE feed_position IS NOT NULL AND created_at < ?",
+                OffsetDateTime.ofInstant(cutoff, ZoneOffset.UTC));
+    }
+
+    private static ChangeEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+        ChangeEvent event = new ChangeEvent();
+        event.setPosition(rs.getLong("feed_position"));
+        event.setKind(OccupancyKind.valueOf(rs.getString("kind")));
+        event.setEntityId(rs.getLong("entity_id"));
+        event.setOldPropertyId(rs.getObject("old_property_id", Long.class));
+        event.setOldStartDate(toLocalDate(rs.getDate("old_start_date")));
+        event.setOldEndDate(toLocalDate(rs.getDate("old_end_date")));
+        event.setOldStatus(toStatus(rs.getString("old_status")));
+        event.setNewPropertyId(rs.getObject("new_property_id", Long.class));
+        event.setNewStartDate(toLocalDate(rs.getDate("new_start_date")));
+        event.setNewEndDate(toLocalDate(rs.getDate("new_end_date")));
+        event.setNewStatus(toStatus(rs.getString("new_status")));
+        event.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class).toInstant());
+        return event;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    private static BookingStatus toStatus(String status) {
+        return status != null ? BookingStatus.valueOf(status) : null;
+    }
+}
@@ -1,7 +1,12 @@
 package com.booking.system.repository;
 
 import com.booking.system.model.Guest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface GuestRepository extends JpaRepository<Guest, Long> {
+
+    /** Keyset page: guests with an id below {@code id}, in the pageable's order, without a count query. */
+    Slice<Guest> findByIdLessThan(Long id, Pageable pageable);
 }
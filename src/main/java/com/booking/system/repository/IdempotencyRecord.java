@@ -0,0 +1,10 @@
+package com.booking.system.repository;
+
+import java.time.Instant;
+
+/**
+ * Recorded response of a write sent with an {@code Idempotency-Key}: the request fingerprint it belongs to, and the
+ * status, ETag and JSON body to replay.
+ */
+public record IdempotencyRecord(String key, String fingerprint, int status, String etag, String body, Instant createdAt) {
+}
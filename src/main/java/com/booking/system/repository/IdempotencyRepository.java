@@ -0,0 +1,64 @@
+package com.booking.system.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Stores {@code idempotency_record} rows with plain JDBC, outside the write's transaction: a record is only saved once
+ * the write has committed, and a replay needs no persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepository {
+
+    private static final RowMapper<IdempotencyRecord> ROW_MAPPER = (rs, rowNum) -> new IdempotencyRecord(
+            rs.getString("idempotency_key"),
+            rs.getString("fingerprint"),
+            rs.getInt("status"),
+            rs.getString("etag"),
+            rs.getString("body"),
+            rs.getObject("created_at", OffsetDateTime.class).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** The record of the key, unless it was created before {@code notBefore}. */
+    public Optional<IdempotencyRecord> find(String key, Instant notBefore) {
+        return jdbcTemplate.query("SELECT * FROM idempotency_record WHERE idempotency_key = ? AND created_at >= ?",
+                ROW_MAPPER, key, toTimestamp(notBefore)).stream().findFirst();
+    }
+
+    /**
+     * Saves the record, replacing an expired one of the same key. Returns false when the key is already recorded, e.g.
+     * by another node.
+     */
+    public boolean save(IdempotencyRecord record, Instant expiredBefore) {
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_record "
+                            + "(idempotency_key, fingerprint, status, etag, body, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                    record.key(), record.fingerprint(), record.status(), record.etag(), record.body(),
+                    toTimestamp(record.createdAt()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return jdbcTemplate.update("UPDATE idempotency_record SET fingerprint = ?, status = ?, etag = ?, body = ?, "
+                            + "created_at = ? WHERE idempotency_key = ? AND created_at < ?",
+                    record.fingerprint(), record.status(), record.etag(), record.body(),
+                    toTimestamp(record.createdAt()), record.key(), toTimestamp(expiredBefore)) == 1;
+        }
+    }
+
+    public int deleteCreatedBefore(Instant cutoff) {
+        return jdbcTemplate.update("DELETE FROM idempotency_record WHERE created_at < ?", toTimestamp(cutoff));
+    }
+
+    private static OffsetDateTime toTimestamp(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
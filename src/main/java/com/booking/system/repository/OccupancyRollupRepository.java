@@ -0,0 +1,39 @@
+package com.booking.system.repository;
+
+import com.booking.system.model.OccupancyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface OccupancyRollupRepository extends JpaRepository<OccupancyRollup, Long> {
+
+    /** Adds (or, with negative values, removes) nights to a month. Returns 0 if the row doesn't exist yet. */
+    @Modifying
+    @Query("UPDATE OccupancyRollup r " +
+            "SET r.bookedNights = r.bookedNights + :bookedNights, r.blockedNights = r.blockedNights + :blockedNights " +
+            "WHERE r.propertyId = :propertyId AND r.monthStart = :monthStart")
+    int increment(@Param("propertyId") Long propertyId,
+                  @Param("monthStart") LocalDate monthStart,
+                  @Param("bookedNights") int bookedNights,
+                  @Param("blockedNights") int blockedNights);
+
+    /** A property's months from {@code from} to {@code to}, both inclusive, in order. */
+    List<OccupancyRollup> findByPropertyIdAndMonthStartBetweenOrderByMonthStart(Long propertyId, LocalDate from, LocalDate to);
+
+    /** Nights per property type and month, for the months from {@code from} to {@code to}, both inclusive. */
+    @Query("SELECT p.type AS type, r.monthStart AS monthStart, " +
+            "SUM(r.bookedNights) AS bookedNights, SUM(r.blockedNights) AS blockedNights " +
+            "FROM OccupancyRollup r JOIN Property p ON p.id = r.propertyId " +
+            "WHERE r.monthStart BETWEEN :from AND :to " +
+            "GROUP BY p.type, r.monthStart")
+    List<RollupTotals> sumByTypeAndMonth(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM OccupancyRollup r WHERE r.propertyId IN :propertyIds")
+    int deleteByPropertyIds(@Param("propertyIds") Collection<Long> propertyIds);
+}
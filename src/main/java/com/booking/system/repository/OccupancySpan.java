@@ -0,0 +1,17 @@
+package com.booking.system.repository;
+
+import com.booking.system.enumeration.OccupancyKind;
+
+import java.time.LocalDate;
+
+/** Date range occupied by a booking or block, tagged with its kind, as read for the occupancy view. */
+public interface OccupancySpan {
+
+    Long getPropertyId();
+
+    OccupancyKind getKind();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,19 @@
+package com.booking.system.repository;
+
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.model.OccupiedNight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OccupiedNightRepository extends JpaRepository<OccupiedNight, Long> {
+
+    /**
+     * Frees every night of a booking or block. Runs as a bulk statement, immediately, so the same
+     * transaction can re-insert overlapping nights for the owner without tripping the unique key.
+     */
+    @Modifying
+    @Query("DELETE FROM OccupiedNight n WHERE n.kind = :kind AND n.ownerId = :ownerId")
+    int deleteByOwner(@Param("kind") OccupancyKind kind, @Param("ownerId") Long ownerId);
+}
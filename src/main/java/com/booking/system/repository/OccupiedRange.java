@@ -0,0 +1,15 @@
+package com.booking.system.repository;
+
+import java.time.LocalDate;
+
+/** Lightweight projection of a booking or block's date range, without loading its associations. */
+public interface OccupiedRange {
+
+    Long getId();
+
+    Long getPropertyId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
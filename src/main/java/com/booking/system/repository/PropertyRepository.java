@@ -1,18 +1,46 @@
 package com.booking.system.repository;
 
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
 import com.booking.system.model.Property;
-import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PropertyRepository extends JpaRepository<Property, Long> {
 
-    /** Loads a property with a pessimistic write lock (SELECT ... FOR UPDATE) to prevent concurrent bookings. */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT p FROM Property p WHERE p.id = :id")
-    Optional<Property> findAndLockProperty(@Param("id") Long id);
+    /** Reads only the lock mode, without putting the property into the persistence context. */
+    @Query("SELECT p.lockMode FROM Property p WHERE p.id = :id")
+    Optional<PropertyLockMode> findLockModeById(@Param("id") Long id);
+
+    /** Reads only the {@code OPTIMISTIC} lock counter. */
+    @Query("SELECT p.lockVersion FROM Property p WHERE p.id = :id")
+    Optional<Long> findLockVersionById(@Param("id") Long id);
+
+    /** Bumps the {@code OPTIMISTIC} lock counter if it still has the given value. Returns 0 if it doesn't. */
+    @Modifying
+    @Query("UPDATE Property p SET p.lockVersion = p.lockVersion + 1 WHERE p.id = :id AND p.lockVersion = :lockVersion")
+    int incrementLockVersion(@Param("id") Long id, @Param("lockVersion") long lockVersion);
+
+    /** Keyset page: properties with an id below {@code id}, in the pageable's order, without a count query. */
+    Slice<Property> findByIdLessThan(Long id, Pageable pageable);
+
+    /** Ids of all properties, newest first, optionally restricted to one type. */
+    @Query("SELECT p.id FROM Property p WHERE (:type IS NULL OR p.type = :type) ORDER BY p.id DESC")
+    List<Long> findIdsByType(@Param("type") PropertyType type);
+
+    /** Number of properties per type; types without properties are left out. */
+    @Query("SELECT p.type AS type, COUNT(p) AS properties FROM Property p GROUP BY p.type")
+    List<PropertyTypeCount> countByType();
+
+    /** Those of the given ids that belong to an existing property. */
+    @Query("SELECT p.id FROM Property p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
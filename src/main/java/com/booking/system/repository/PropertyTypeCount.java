@@ -0,0 +1,11 @@
+package com.booking.system.repository;
+
+import com.booking.system.enumeration.PropertyType;
+
+/** Number of properties of one type. */
+public interface PropertyTypeCount {
+
+    PropertyType getType();
+
+    Long getProperties();
+}
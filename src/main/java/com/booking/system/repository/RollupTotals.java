@@ -0,0 +1,17 @@
+package com.booking.system.repository;
+
+import com.booking.system.enumeration.PropertyType;
+
+import java.time.LocalDate;
+
+/** Booked and blocked nights of all properties of one type in one month. */
+public interface RollupTotals {
+
+    PropertyType getType();
+
+    LocalDate getMonthStart();
+
+    Long getBookedNights();
+
+    Long getBlockedNights();
+}
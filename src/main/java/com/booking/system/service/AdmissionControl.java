@@ -0,0 +1,146 @@
+package com.booking.system.service;
+
+import com.booking.system.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for booking and block writes, applied before the write's transaction starts so a rejected request
+ * never holds a database connection. Two limits:
+ * <ul>
+ *     <li>{@code booking.admission.max-queue-per-property} — writes of one property running or waiting for its lock.
+ *     A burst on a hot property is turned away with {@code 429} instead of lining up on {@code SELECT ... FOR UPDATE},
+ *     each waiter holding a request thread and a pooled connection.</li>
+ *     <li>{@code booking.admission.max-concurrent} — writes running at once across all properties, kept below the
+ *     connection pool so reads always find a connection. A write waits up to {@code acquire-timeout} for a slot, then
+ *     gets {@code 503}.</li>
+ * </ul>
+ * Both carry {@code Retry-After}. Replays of idempotent retries are answered before admission and never count. Off by
+ * default, so writes run unchecked until {@code booking.admission.enabled: true}: the limits should be sized for the
+ * pool and the expected load first. Queue depth on arrival is recorded as {@code booking.admission.queue.depth}, slots
+ * in use as {@code booking.admission.active}, and rejections as {@code booking.admission.rejected} by reason.
+ */
+@Slf4j
+@Service
+public class AdmissionControl {
+
+    private final boolean enabled;
+    private final int maxQueuePerProperty;
+    private final int maxConcurrent;
+    private final Duration acquireTimeout;
+    private final Duration retryAfter;
+    private final Semaphore slots;
+    private final ConcurrentMap<Long, Integer> queued = new ConcurrentHashMap<>();
+    private final DistributionSummary queueDepth;
+    private final Counter propertyRejections;
+    private final Counter globalRejections;
+
+    public AdmissionControl(MeterRegistry meterRegistry,
+                            @Value("${booking.admission.enabled:false}") boolean enabled,
+                            @Value("${booking.admission.max-queue-per-property:8}") int maxQueuePerProperty,
+                            @Value("${booking.admission.max-concurrent:16}") int maxConcurrent,
+                            @Value("${booking.admission.acquire-timeout:50ms}") Duration acquireTimeout,
+                            @Value("${booking.admission.retry-after:1s}") Duration retryAfter) {
+        this.enabled = enabled;
+        this.maxQueuePerProperty = maxQueuePerProperty;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeout = acquireTimeout;
+        this.retryAfter = retryAfter;
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.queueDepth = DistributionSummary.builder("booking.admission.queue.depth")
+                .description("Writes already running or waiting for the property when a write arrives")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.propertyRejections = rejections(meterRegistry, "property");
+        this.globalRejections = rejections(meterRegistry, "global");
+        Gauge.builder("booking.admission.active", slots, s -> maxConcurrent - s.availablePermits())
+                .description("Writes holding one of the booking.admission.max-concurrent slots")
+                .register(meterRegistry);
+        Gauge.builder("booking.admission.queue.max", queued,
+                        q -> q.values().stream().mapToInt(Integer::intValue).max().orElse(0))
+                .description("Deepest per-property queue right now")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the write once it is admitted for the property it locks (null when it locks none or several, so only the
+     * global limit applies), otherwise throws {@link AdmissionRejectedException}.
+     */
+    public <T> T admit(Long propertyId, Supplier<T> write) {
+        if (!enabled) {
+            return write.get();
+        }
+        if (propertyId != null && !enqueue(propertyId)) {
+            propertyRejections.increment();
+            log.warn("Rejecting write for property {}: {} writes already queued", propertyId, maxQueuePerProperty);
+            throw AdmissionRejectedException.propertyBusy(propertyId, retryAfter);
+        }
+        try {
+            if (!acquireSlot()) {
+                globalRejections.increment();
+                log.warn("Rejecting write for property {}: all {} write slots busy for {}", propertyId, maxConcurrent, acquireTimeout);
+                throw AdmissionRejectedException.overloaded(retryAfter);
+            }
+            try {
+                return write.get();
+            } finally {
+                slots.release();
+            }
+        } finally {
+            if (propertyId != null) {
+                dequeue(propertyId);
+            }
+        }
+    }
+
+    /** Writes of the property currently admitted, running or waiting. */
+    public int queueDepth(Long propertyId) {
+        return queued.getOrDefault(propertyId, 0);
+    }
+
+    private boolean enqueue(Long propertyId) {
+        boolean[] admitted = {false};
+        queued.compute(propertyId, (id, depth) -> {
+            int current = depth == null ? 0 : depth;
+            queueDepth.record(current);
+            if (current >= maxQueuePerProperty) {
+                return depth;
+            }
+            admitted[0] = true;
+            return current + 1;
+        });
+        return admitted[0];
+    }
+
+    private void dequeue(Long propertyId) {
+        queued.computeIfPresent(propertyId, (id, depth) -> depth > 1 ? depth - 1 : null);
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return slots.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("booking.admission.rejected")
+                .description("Writes rejected by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
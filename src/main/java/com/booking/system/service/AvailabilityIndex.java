@@ -0,0 +1,144 @@
+package com.booking.system.service;
+
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupiedInterval;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.OccupiedRange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * In-memory copy of every active booking and block that hasn't ended yet, grouped per property, so overlap
+ * checks can be answered without a database round-trip. Enabled with {@code booking.availability.index-enabled}.
+ * <p>
+ * The index follows each write through {@link OccupancyChangedEvent}s, see {@link OccupancySynchronization}.
+ * Past ranges are not loaded: {@link DateValidationService} rejects start dates in the past, so they can never conflict.
+ * The index lives in a single JVM — run with it disabled when several application nodes share one database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.availability.index-enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AvailabilityIndex implements SmartInitializingSingleton {
+
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Long, PropertyIntervals> properties = new ConcurrentHashMap<>();
+
+    /** Same contract as the repositories' {@code hasOverlap} queries, restricted to one kind of range. */
+    public boolean hasOverlap(OccupancyKind kind, Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        PropertyIntervals intervals = properties.get(propertyId);
+        return intervals != null && intervals.hasOverlap(kind, startDate, endDate, excludeId);
+    }
+
+    /** Rebuilds the index from the repositories before the application starts serving requests. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            properties.clear();
+            LocalDate today = LocalDate.now();
+            List<OccupiedRange> bookings = bookingRepository.findRangesEndingAfter(List.of(BOOKED, REBOOKED), today);
+            bookings.forEach(range -> add(OccupiedInterval.of(OccupancyKind.BOOKING, range)));
+            List<OccupiedRange> blocks = blockRepository.findRangesEndingAfter(today);
+            blocks.forEach(range -> add(OccupiedInterval.of(OccupancyKind.BLOCK, range)));
+            log.info("Availability index built with {} bookings and {} blocks across {} properties",
+                    bookings.size(), blocks.size(), properties.size());
+        });
+    }
+
+    @EventListener
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        OccupancySynchronization.apply(event, this::add, this::remove);
+    }
+
+    private void add(OccupiedInterval interval) {
+        properties.computeIfAbsent(interval.propertyId(), id -> new PropertyIntervals()).add(interval);
+    }
+
+    private void remove(OccupiedInterval interval) {
+        PropertyIntervals intervals = properties.get(interval.propertyId());
+        if (intervals != null) {
+            intervals.remove(interval);
+        }
+    }
+
+    /**
+     * Intervals of one property keyed by start date. Since no interval is longer than {@code maxLengthInDays},
+     * only those starting in {@code (startDate - maxLengthInDays, endDate)} can overlap a range, which keeps
+     * each lookup to a bounded sub-map scan. Uses a read-write lock rather than {@code synchronized}
+     * so lookups don't serialize and virtual threads never pin.
+     */
+    private static final class PropertyIntervals {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final NavigableMap<LocalDate, Set<OccupiedInterval>> byStartDate = new TreeMap<>();
+        private long maxLengthInDays;
+
+        boolean hasOverlap(OccupancyKind kind, LocalDate startDate, LocalDate endDate, Long excludeId) {
+            lock.readLock().lock();
+            try {
+                LocalDate earliestStart = startDate.minusDays(maxLengthInDays);
+                for (Set<OccupiedInterval> sameStart : byStartDate.subMap(earliestStart, false, endDate, false).values()) {
+                    for (OccupiedInterval interval : sameStart) {
+                        if (interval.kind() == kind
+                                && interval.endDate().isAfter(startDate)
+                                && !interval.id().equals(excludeId)) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(OccupiedInterval interval) {
+            lock.writeLock().lock();
+            try {
+                byStartDate.computeIfAbsent(interval.startDate(), date -> new HashSet<>()).add(interval);
+                maxLengthInDays = Math.max(maxLengthInDays, interval.lengthInDays());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(OccupiedInterval interval) {
+            lock.writeLock().lock();
+            try {
+                Set<OccupiedInterval> sameStart = byStartDate.get(interval.startDate());
+                if (sameStart != null && sameStart.remove(interval) && sameStart.isEmpty()) {
+                    byStartDate.remove(interval.startDate());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
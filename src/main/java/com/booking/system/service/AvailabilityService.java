@@ -1,53 +1,372 @@
 package com.booking.system.service;
 
+import com.booking.system.dto.AvailabilityCheckItemDTO;
+import com.booking.system.dto.AvailabilityCheckResultDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.enumeration.AvailabilityStatus;
+import com.booking.system.enumeration.OccupancyKind;
 import com.booking.system.exception.DateAlreadyBookedException;
+import com.booking.system.exception.InvalidDateRangeException;
 import com.booking.system.repository.BlockRepository;
 import com.booking.system.repository.BookingRepository;
-import lombok.RequiredArgsConstructor;
+import com.booking.system.repository.OccupancySpan;
+import com.booking.system.repository.PropertyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.booking.system.enumeration.BookingStatus.BOOKED;
 import static com.booking.system.enumeration.BookingStatus.REBOOKED;
 
+/**
+ * Overlap checks for bookings and blocks. Each check is timed as {@code booking.overlap.check} (tagged by kind
+ * and by whether the index or the database answered); rejections are counted by {@link ConflictMetrics}.
+ * <p>
+ * Writers may run a pre-check before taking the property lock (see {@link #precheckForBooking}), timed as
+ * {@code booking.precheck} tagged by outcome. A write that passed it and still conflicts under the lock lost a race
+ * with a concurrent write; those are counted as {@code booking.precheck.missed}.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AvailabilityService {
 
+    /** Bound to the writing transaction once a pre-check in it passed. */
+    private static final Object PRECHECK_PASSED = new Object();
+
     private final BookingRepository bookingRepository;
     private final BlockRepository blockRepository;
+    private final PropertyRepository propertyRepository;
+    private final DateValidationService dateValidationService;
+    private final Optional<AvailabilityIndex> availabilityIndex;
+    private final OccupancyCalendar occupancyCalendar;
+    private final OccupiedNightService occupiedNightService;
+    private final ConflictMetrics conflictMetrics;
+    private final MeterRegistry meterRegistry;
+    private final boolean precheckEnabled;
+
+    public AvailabilityService(BookingRepository bookingRepository,
+                               BlockRepository blockRepository,
+                               PropertyRepository propertyRepository,
+                               DateValidationService dateValidationService,
+                               Optional<AvailabilityIndex> availabilityIndex,
+                               OccupancyCalendar occupancyCalendar,
+                               OccupiedNightService occupiedNightService,
+                               ConflictMetrics conflictMetrics,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.availability.precheck:true}") boolean precheckEnabled) {
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.propertyRepository = propertyRepository;
+        this.dateValidationService = dateValidationService;
+        this.availabilityIndex = availabilityIndex;
+        this.occupancyCalendar = occupancyCalendar;
+        this.occupiedNightService = occupiedNightService;
+        this.conflictMetrics = conflictMetrics;
+        this.meterRegistry = meterRegistry;
+        this.precheckEnabled = precheckEnabled;
+    }
 
-    /** Throws {@link DateAlreadyBookedException} if the dates overlap any active booking or block. */
+    /**
+     * Throws {@link DateAlreadyBookedException} if the dates overlap any active booking or block.
+     * A no-op when the night table enforces overlaps, see {@link OccupiedNightService}.
+     */
     public void ensureAvailableForBooking(Long propertyId, LocalDate startDate, LocalDate endDate, Long bookingId) {
+        if (occupiedNightService.isEnabled()) {
+            return;
+        }
         log.debug("Checking booking availability for property {}, dates: {} - {}, excludeId: {}",
                 propertyId, startDate, endDate, bookingId);
-        if (bookingRepository.hasOverlap(propertyId, startDate, endDate, List.of(BOOKED, REBOOKED), bookingId)) {
+        if (hasBookingOverlap(propertyId, startDate, endDate, bookingId)) {
             log.warn("Booking overlap detected for property {}, dates: {} - {}", propertyId, startDate, endDate);
+            conflictMetrics.increment(propertyId, OccupancyKind.BOOKING);
+            countMissedPrecheck(OccupancyKind.BOOKING);
             throw new DateAlreadyBookedException("The requested dates are already booked for this property");
         }
 
-        if (blockRepository.hasOverlap(propertyId, startDate, endDate, null)) {
+        if (hasBlockOverlap(propertyId, startDate, endDate, null)) {
             log.warn("Block overlap detected for property {}, dates: {} - {}", propertyId, startDate, endDate);
+            conflictMetrics.increment(propertyId, OccupancyKind.BOOKING);
+            countMissedPrecheck(OccupancyKind.BOOKING);
             throw new DateAlreadyBookedException("The requested dates are blocked for this property");
         }
     }
 
-    /** Throws {@link DateAlreadyBookedException} if the dates overlap any active booking or existing block. */
+    /**
+     * Throws {@link DateAlreadyBookedException} if the dates overlap any active booking or existing block.
+     * A no-op when the night table enforces overlaps, see {@link OccupiedNightService}.
+     */
     public void ensureAvailableForBlock(Long propertyId, LocalDate startDate, LocalDate endDate, Long blockId) {
+        if (occupiedNightService.isEnabled()) {
+            return;
+        }
         log.debug("Checking block availability for property {}, dates: {} - {}, excludeId: {}",
                 propertyId, startDate, endDate, blockId);
-        if (bookingRepository.hasOverlap(propertyId, startDate, endDate, List.of(BOOKED, REBOOKED), null)) {
+        if (hasBookingOverlap(propertyId, startDate, endDate, null)) {
             log.warn("Active bookings found for property {}, dates: {} - {}", propertyId, startDate, endDate);
+            conflictMetrics.increment(propertyId, OccupancyKind.BLOCK);
+            countMissedPrecheck(OccupancyKind.BLOCK);
             throw new DateAlreadyBookedException("Cannot block dates that have active bookings");
         }
 
-        if (blockRepository.hasOverlap(propertyId, startDate, endDate, blockId)) {
+        if (hasBlockOverlap(propertyId, startDate, endDate, blockId)) {
             log.warn("Block overlap detected for property {}, dates: {} - {}", propertyId, startDate, endDate);
+            conflictMetrics.increment(propertyId, OccupancyKind.BLOCK);
+            countMissedPrecheck(OccupancyKind.BLOCK);
             throw new DateAlreadyBookedException("The requested dates are already blocked for this property");
         }
     }
+
+    /**
+     * Throws {@link DateAlreadyBookedException} if any of the stays overlaps an active booking or block of its
+     * property, or another of the stays. Existing ranges of all the properties come from one query over the span from
+     * the earliest check-in to the latest check-out and are matched per stay in memory, so the cost does not grow with
+     * the number of properties. Call with every property locked. A no-op when the night table enforces overlaps.
+     */
+    public void ensureAvailableForBookings(List<BookingRequestDTO> stays) {
+        if (occupiedNightService.isEnabled()) {
+            return;
+        }
+        Map<Long, List<BookingRequestDTO>> staysByProperty = stays.stream()
+                .collect(Collectors.groupingBy(BookingRequestDTO::getPropertyId));
+        staysByProperty.forEach((propertyId, propertyStays) -> {
+            for (int i = 0; i < propertyStays.size(); i++) {
+                for (int j = i + 1; j < propertyStays.size(); j++) {
+                    if (propertyStays.get(i).getStartDate().isBefore(propertyStays.get(j).getEndDate())
+                            && propertyStays.get(i).getEndDate().isAfter(propertyStays.get(j).getStartDate())) {
+                        throw new DateAlreadyBookedException("The group books property " + propertyId + " twice for overlapping dates");
+                    }
+                }
+            }
+        });
+
+        LocalDate from = stays.stream().map(BookingRequestDTO::getStartDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = stays.stream().map(BookingRequestDTO::getEndDate).max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<OccupancySpan>> spans = bookingRepository
+                .findOccupancy(staysByProperty.keySet(), from, to, List.of(BOOKED, REBOOKED)).stream()
+                .collect(Collectors.groupingBy(OccupancySpan::getPropertyId));
+        log.debug("Checking {} stays in {} properties against {} existing ranges",
+                stays.size(), staysByProperty.size(), spans.values().stream().mapToInt(List::size).sum());
+        for (BookingRequestDTO stay : stays) {
+            OccupancyKind conflict = findConflict(spans.getOrDefault(stay.getPropertyId(), List.of()), stay.getStartDate(), stay.getEndDate());
+            if (conflict != null) {
+                log.warn("{} overlap detected for property {}, dates: {} - {}", conflict, stay.getPropertyId(), stay.getStartDate(), stay.getEndDate());
+                conflictMetrics.increment(stay.getPropertyId(), OccupancyKind.BOOKING);
+                throw new DateAlreadyBookedException(conflict == OccupancyKind.BOOKING
+                        ? "The requested dates are already booked for property " + stay.getPropertyId()
+                        : "The requested dates are blocked for property " + stay.getPropertyId());
+            }
+        }
+    }
+
+    /**
+     * Lock-free version of {@link #ensureAvailableForBooking}, run before the property lock so that writes for dates
+     * that are plainly taken are rejected without queueing for it. Free dates, the common case, are settled by the
+     * index when it is enabled, otherwise the {@link OccupancyCalendar}, without a query. Those views also show ranges
+     * of writes that have not committed yet and may still roll back, so a hit there is only rejected once a plain
+     * non-locking query confirms a committed overlap. It can miss a range committed after the read, so passing it is
+     * no promise and the check under the lock still decides. Disabled with {@code booking.availability.precheck}, and
+     * a no-op when the night table enforces overlaps.
+     */
+    public void precheckForBooking(Long propertyId, LocalDate startDate, LocalDate endDate, Long bookingId) {
+        precheck(OccupancyKind.BOOKING, propertyId, () -> {
+            if (committedOverlap(OccupancyKind.BOOKING, propertyId, startDate, endDate, bookingId)) {
+                return "The requested dates are already booked for this property";
+            }
+            if (committedOverlap(OccupancyKind.BLOCK, propertyId, startDate, endDate, null)) {
+                return "The requested dates are blocked for this property";
+            }
+            return null;
+        });
+    }
+
+    /** Lock-free version of {@link #ensureAvailableForBlock}, see {@link #precheckForBooking}. */
+    public void precheckForBlock(Long propertyId, LocalDate startDate, LocalDate endDate, Long blockId) {
+        precheck(OccupancyKind.BLOCK, propertyId, () -> {
+            if (committedOverlap(OccupancyKind.BOOKING, propertyId, startDate, endDate, null)) {
+                return "Cannot block dates that have active bookings";
+            }
+            if (committedOverlap(OccupancyKind.BLOCK, propertyId, startDate, endDate, blockId)) {
+                return "The requested dates are already blocked for this property";
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Checks many (property, stay) candidates, in order, with two queries however many there are: which properties
+     * exist, then the active bookings and blocks of those properties overlapping the span from the earliest check-in
+     * to the latest check-out. Each candidate is matched against its property's ranges in memory with the same rule
+     * as the checks above, so a check-out and a check-in on the same day don't conflict. Nothing is locked: the
+     * answer can be stale by the time a booking is attempted. An item whose dates could not be booked at all gets
+     * {@code INVALID_RANGE} with the reason and is left out of both queries; the other items are still checked.
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityCheckResultDTO> check(List<AvailabilityCheckItemDTO> items) {
+        Map<AvailabilityCheckItemDTO, String> invalid = new IdentityHashMap<>();
+        items.forEach(item -> {
+            String reason = invalidRange(item);
+            if (reason != null) {
+                invalid.put(item, reason);
+            }
+        });
+        List<AvailabilityCheckItemDTO> valid = items.stream().filter(item -> !invalid.containsKey(item)).toList();
+        Set<Long> propertyIds = valid.stream().map(AvailabilityCheckItemDTO::getPropertyId).collect(Collectors.toSet());
+        Set<Long> existing = propertyIds.isEmpty() ? Set.of() : new HashSet<>(propertyRepository.findExistingIds(propertyIds));
+        log.debug("Checking availability of {} stays in {} properties ({} found, {} invalid ranges)",
+                items.size(), propertyIds.size(), existing.size(), invalid.size());
+
+        Map<Long, List<OccupancySpan>> spansByProperty = Map.of();
+        if (!existing.isEmpty()) {
+            LocalDate from = valid.stream().map(AvailabilityCheckItemDTO::getStartDate).min(Comparator.naturalOrder()).orElseThrow();
+            LocalDate to = valid.stream().map(AvailabilityCheckItemDTO::getEndDate).max(Comparator.naturalOrder()).orElseThrow();
+            spansByProperty = bookingRepository.findOccupancy(existing, from, to, List.of(BOOKED, REBOOKED)).stream()
+                    .collect(Collectors.groupingBy(OccupancySpan::getPropertyId));
+        }
+
+        Map<Long, List<OccupancySpan>> spans = spansByProperty;
+        return items.stream()
+                .map(item -> {
+                    if (invalid.containsKey(item)) {
+                        return AvailabilityCheckResultDTO.invalidRange(item, invalid.get(item));
+                    }
+                    if (!existing.contains(item.getPropertyId())) {
+                        return AvailabilityCheckResultDTO.of(item, AvailabilityStatus.PROPERTY_NOT_FOUND, null);
+                    }
+                    OccupancyKind conflict = findConflict(spans.getOrDefault(item.getPropertyId(), List.of()), item.getStartDate(), item.getEndDate());
+                    return AvailabilityCheckResultDTO.of(item, conflict == null ? AvailabilityStatus.AVAILABLE : AvailabilityStatus.CONFLICT, conflict);
+                })
+                .toList();
+    }
+
+    /** Why the item's dates are rejected by {@link DateValidationService}, or null if they are valid. */
+    private String invalidRange(AvailabilityCheckItemDTO item) {
+        try {
+            dateValidationService.validate(item.getStartDate(), item.getEndDate());
+            return null;
+        } catch (InvalidDateRangeException e) {
+            return e.getMessage();
+        }
+    }
+
+    /** The kind of range overlapping the dates, bookings first like the write path, or null if none does. */
+    private static OccupancyKind findConflict(List<OccupancySpan> spans, LocalDate startDate, LocalDate endDate) {
+        OccupancyKind conflict = null;
+        for (OccupancySpan span : spans) {
+            if (span.getStartDate().isBefore(endDate) && span.getEndDate().isAfter(startDate)) {
+                if (span.getKind() == OccupancyKind.BOOKING) {
+                    return OccupancyKind.BOOKING;
+                }
+                conflict = OccupancyKind.BLOCK;
+            }
+        }
+        return conflict;
+    }
+
+    /** @param conflict the rejection message, or null when no overlap was seen */
+    private void precheck(OccupancyKind kind, Long propertyId, Supplier<String> conflict) {
+        if (!precheckEnabled || occupiedNightService.isEnabled()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String message = conflict.get();
+        sample.stop(Timer.builder("booking.precheck")
+                .description("Lock-free overlap checks run before the property lock")
+                .tag("kind", kind.name())
+                .tag("outcome", message == null ? "passed" : "rejected")
+                .register(meterRegistry));
+        if (message != null) {
+            log.warn("Pre-check rejected {} for property {}, dates taken", kind, propertyId);
+            conflictMetrics.increment(propertyId, kind);
+            throw new DateAlreadyBookedException(message);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(PRECHECK_PASSED)) {
+            TransactionSynchronizationManager.bindResource(PRECHECK_PASSED, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PRECHECK_PASSED);
+                }
+            });
+        }
+    }
+
+    private void countMissedPrecheck(OccupancyKind kind) {
+        if (TransactionSynchronizationManager.hasResource(PRECHECK_PASSED)) {
+            Counter.builder("booking.precheck.missed")
+                    .description("Writes that passed the pre-check but conflicted under the property lock")
+                    .tag("kind", kind.name())
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+
+    private boolean hasBookingOverlap(Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        return timed(OccupancyKind.BOOKING, () -> bookingOverlaps(propertyId, startDate, endDate, excludeId));
+    }
+
+    private boolean hasBlockOverlap(Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        return timed(OccupancyKind.BLOCK, () -> blockOverlaps(propertyId, startDate, endDate, excludeId));
+    }
+
+    /** Answers from the in-memory index when it is enabled, otherwise queries the database. */
+    private boolean bookingOverlaps(Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        return availabilityIndex
+                .map(index -> index.hasOverlap(OccupancyKind.BOOKING, propertyId, startDate, endDate, excludeId))
+                .orElseGet(() -> bookingRepository.hasOverlap(propertyId, startDate, endDate, List.of(BOOKED, REBOOKED), excludeId));
+    }
+
+    private boolean blockOverlaps(Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        return availabilityIndex
+                .map(index -> index.hasOverlap(OccupancyKind.BLOCK, propertyId, startDate, endDate, excludeId))
+                .orElseGet(() -> blockRepository.hasOverlap(propertyId, startDate, endDate, excludeId));
+    }
+
+    /**
+     * Whether a committed range overlaps: the in-memory view rules most candidates out without a query, and its hits,
+     * which may belong to a write that is still committing or rolling back, are confirmed against the database.
+     */
+    private boolean committedOverlap(OccupancyKind kind, Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        boolean inMemory = availabilityIndex
+                .map(index -> index.hasOverlap(kind, propertyId, startDate, endDate, excludeId))
+                .orElseGet(() -> occupancyCalendar.hasOverlap(kind, propertyId, startDate, endDate, excludeId));
+        if (!inMemory) {
+            return false;
+        }
+        return kind == OccupancyKind.BOOKING
+                ? bookingRepository.hasOverlap(propertyId, startDate, endDate, List.of(BOOKED, REBOOKED), excludeId)
+                : blockRepository.hasOverlap(propertyId, startDate, endDate, excludeId);
+    }
+
+    private boolean timed(OccupancyKind kind, BooleanSupplier check) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return check.getAsBoolean();
+        } finally {
+            sample.stop(Timer.builder("booking.overlap.check")
+                    .description("Time spent checking one kind of range for overlaps")
+                    .tag("kind", kind.name())
+                    .tag("source", availabilityIndex.isPresent() ? "index" : "database")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 }
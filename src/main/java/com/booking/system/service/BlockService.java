@@ -2,20 +2,30 @@ package com.booking.system.service;
 
 import com.booking.system.dto.BlockRequestDTO;
 import com.booking.system.dto.BlockResponseDTO;
+import com.booking.system.dto.CursorPageDTO;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupancyChangedEvent.Snapshot;
 import com.booking.system.exception.BlockNotFoundException;
-import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.exception.PropertyLockTimeoutException;
 import com.booking.system.model.Block;
 import com.booking.system.model.Property;
 import com.booking.system.repository.BlockRepository;
-import com.booking.system.repository.PropertyRepository;
+import com.booking.system.repository.BlockVersions;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -25,17 +35,23 @@ public class BlockService {
     private final BlockRepository blockRepository;
     private final AvailabilityService availabilityService;
     private final DateValidationService dateValidationService;
-    private final PropertyRepository propertyRepository;
+    private final PropertyLockService propertyLockService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
     public BlockResponseDTO create(BlockRequestDTO blockRequestDTO) {
         log.info("Creating block for property {}, dates: {} - {}",
                 blockRequestDTO.getPropertyId(),
                 blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate());
         dateValidationService.validate(blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate());
-        Property property = propertyRepository.findAndLockProperty(blockRequestDTO.getPropertyId())
-                .orElseThrow(() -> new PropertyNotFoundException(blockRequestDTO.getPropertyId()));
+        availabilityService.precheckForBlock(blockRequestDTO.getPropertyId(), blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate(), null);
+        Property property = propertyLockService.lock(blockRequestDTO.getPropertyId());
         availabilityService.ensureAvailableForBlock(property.getId(), blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate(), null);
         Block saved = blockRepository.save(BlockRequestDTO.toBlock(blockRequestDTO, property));
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBlock(saved.getId(), null, Snapshot.of(saved)));
         log.info("Block created successfully with id {}", saved.getId());
         return BlockResponseDTO.of(saved);
     }
@@ -46,28 +62,68 @@ public class BlockService {
                 .map(BlockResponseDTO::of);
     }
 
+    /** Keyset alternative to {@link #getAll}: the page of blocks older than {@code after}, or the newest when null. */
+    public CursorPageDTO<BlockResponseDTO> getAfter(Long after, int size) {
+        log.debug("Fetching blocks after {} with size {}", after, size);
+        return CursorPageDTO.of(
+                blockRepository.findByIdLessThan(after == null ? Long.MAX_VALUE : after,
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))),
+                BlockResponseDTO::of, Block::getId);
+    }
+
     public BlockResponseDTO get(Long blockId) {
         log.debug("Fetching block with id {}", blockId);
-        return BlockResponseDTO.of(findBlock(blockId));
+        Block block = blockRepository.findWithPropertyById(blockId)
+                .orElseThrow(() -> new BlockNotFoundException(blockId));
+        return BlockResponseDTO.of(block);
+    }
+
+    /** Current versions of the block and what its responses embed, read without loading it, for conditional GETs. */
+    @Transactional(readOnly = true)
+    public BlockVersions getVersions(Long blockId) {
+        return blockRepository.findVersionsById(blockId).orElseThrow(() -> new BlockNotFoundException(blockId));
+    }
+
+    /** Id of the block's property, read without loading the block, for admission control of writes by block id. */
+    @Transactional(readOnly = true)
+    public Long getPropertyId(Long blockId) {
+        return blockRepository.findPropertyIdById(blockId).orElseThrow(() -> new BlockNotFoundException(blockId));
     }
 
-    public BlockResponseDTO update(BlockRequestDTO blockRequestDTO, Long id) {
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
+    public BlockResponseDTO update(BlockRequestDTO blockRequestDTO, Long id, Long expectedVersion) {
         log.info("Updating block {} for property {}, dates: {} - {}",
                 id, blockRequestDTO.getPropertyId(),
                 blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate());
         dateValidationService.validate(blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate());
         Block blockDB = findBlock(id);
-        Property property = propertyRepository.findAndLockProperty(blockRequestDTO.getPropertyId())
-                .orElseThrow(() -> new PropertyNotFoundException(blockRequestDTO.getPropertyId()));
+        Versions.ensureMatches(expectedVersion, blockDB.getVersion());
+        Snapshot before = Snapshot.of(blockDB);
+        availabilityService.precheckForBlock(blockRequestDTO.getPropertyId(), blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate(), id);
+        // Moving to another property locks both, in the same order as group bookings
+        Property property = propertyLockService.lockAll(List.of(blockDB.getProperty().getId(), blockRequestDTO.getPropertyId()))
+                .get(blockRequestDTO.getPropertyId());
         availabilityService.ensureAvailableForBlock(blockRequestDTO.getPropertyId(), blockRequestDTO.getStartDate(), blockRequestDTO.getEndDate(), id);
         Block updated = updateBlock(blockRequestDTO, blockDB, property);
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBlock(id, before, Snapshot.of(updated)));
+        blockRepository.flush();
         log.info("Block {} updated successfully", id);
         return BlockResponseDTO.of(updated);
     }
 
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
     public void delete(Long blockId) {
         log.info("Deleting block {}", blockId);
-        blockRepository.delete(findBlock(blockId));
+        Block blockDB = findBlock(blockId);
+        propertyLockService.lock(blockDB.getProperty().getId());
+        blockRepository.delete(blockDB);
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBlock(blockId, Snapshot.of(blockDB), null));
         log.info("Block {} deleted successfully", blockId);
     }
 
@@ -0,0 +1,263 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.BulkImportResponseDTO;
+import com.booking.system.dto.BulkImportRowDTO;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupancyChangedEvent.Snapshot;
+import com.booking.system.exception.GuestNotFoundException;
+import com.booking.system.exception.InvalidDateRangeException;
+import com.booking.system.exception.PropertyLockTimeoutException;
+import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.model.Booking;
+import com.booking.system.model.Property;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.OccupiedRange;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Imports many bookings at once. Rows are grouped by property and each group runs in its own transaction:
+ * the property is locked once, existing bookings and blocks in the group's date span are read with one query each,
+ * conflicts (with existing data and within the batch) are decided in memory, and accepted rows are inserted
+ * with JDBC batching. A failing row never affects other rows; a failing group only affects its own rows. A group
+ * that lost a race (a version conflict or a lock wait timeout) is retried like the single-booking writes.
+ * NDJSON is read and imported {@value #NDJSON_CHUNK} lines at a time, so a large upload is never held in memory as
+ * requests.
+ */
+@Slf4j
+@Service
+public class BookingImportService {
+
+    private static final String MALFORMED_ROW = "Malformed JSON row";
+    /** Lines parsed and imported together; each chunk locks each of its properties once. */
+    private static final int NDJSON_CHUNK = 1000;
+
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PropertyLockService propertyLockService;
+    private final GuestRepository guestRepository;
+    private final DateValidationService dateValidationService;
+    private final ConflictMetrics conflictMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final RetryTemplate retryTemplate;
+
+    public BookingImportService(BookingRepository bookingRepository,
+                                BlockRepository blockRepository,
+                                PropertyLockService propertyLockService,
+                                GuestRepository guestRepository,
+                                DateValidationService dateValidationService,
+                                ConflictMetrics conflictMetrics,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${booking.locking.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${booking.locking.retry.delay-ms:10}") long delayMs) {
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.propertyLockService = propertyLockService;
+        this.guestRepository = guestRepository;
+        this.dateValidationService = dateValidationService;
+        this.conflictMetrics = conflictMetrics;
+        this.eventPublisher = eventPublisher;
+        this.transactionManager = transactionManager;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        // Same policy as the @Retryable writes in BookingService
+        this.retryTemplate = RetryTemplate.builder()
+                .maxAttempts(maxAttempts)
+                .exponentialBackoff(Math.max(delayMs, 1), 2, Math.max(delayMs, 1) * 100, true)
+                .retryOn(List.of(OptimisticLockingFailureException.class, PropertyLockTimeoutException.class))
+                .build();
+    }
+
+    /** Imports newline-delimited JSON, one booking per line. Blank lines are skipped, malformed lines fail on their own. */
+    public BulkImportResponseDTO importBookings(Reader ndjson) throws IOException {
+        List<BulkImportRowDTO> results = new ArrayList<>();
+        List<BookingRequestDTO> chunk = new ArrayList<>(NDJSON_CHUNK);
+        BufferedReader reader = new BufferedReader(ndjson);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(objectMapper.readValue(line, BookingRequestDTO.class));
+            } catch (JsonProcessingException e) {
+                chunk.add(null);
+            }
+            if (chunk.size() == NDJSON_CHUNK) {
+                importChunk(chunk, results);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, results);
+        return finish(results);
+    }
+
+    /** Imports the bookings and reports, per row and in request order, the created id or the reason it was rejected. */
+    public BulkImportResponseDTO importBookings(List<BookingRequestDTO> requests) {
+        List<BulkImportRowDTO> results = new ArrayList<>(requests.size());
+        importChunk(requests, results);
+        return finish(results);
+    }
+
+    /** Imports the requests as rows {@code results.size()} onwards and appends their outcomes to {@code results}. */
+    private void importChunk(List<BookingRequestDTO> requests, List<BulkImportRowDTO> results) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        int offset = results.size();
+        log.info("Importing {} bookings from row {}", requests.size(), offset);
+        BulkImportRowDTO[] chunkResults = new BulkImportRowDTO[requests.size()];
+        Map<Long, List<Row>> rowsByProperty = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequestDTO request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                chunkResults[i] = BulkImportRowDTO.failed(offset + i, error);
+            } else {
+                rowsByProperty.computeIfAbsent(request.getPropertyId(), id -> new ArrayList<>()).add(new Row(i, offset + i, request));
+            }
+        }
+
+        Set<Long> existingGuestIds = findExistingGuestIds(rowsByProperty);
+        rowsByProperty.forEach((propertyId, rows) -> importProperty(propertyId, rows, existingGuestIds, chunkResults));
+        results.addAll(Arrays.asList(chunkResults));
+    }
+
+    private BulkImportResponseDTO finish(List<BulkImportRowDTO> results) {
+        BulkImportResponseDTO response = BulkImportResponseDTO.of(results);
+        log.info("Bulk import finished: {} created, {} failed", response.getCreated(), response.getFailed());
+        return response;
+    }
+
+    private String validate(BookingRequestDTO request) {
+        if (request == null) {
+            return MALFORMED_ROW;
+        }
+        Set<ConstraintViolation<BookingRequestDTO>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            dateValidationService.validate(request.getStartDate(), request.getEndDate());
+            return null;
+        } catch (InvalidDateRangeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private Set<Long> findExistingGuestIds(Map<Long, List<Row>> rowsByProperty) {
+        Set<Long> requested = rowsByProperty.values().stream()
+                .flatMap(List::stream)
+                .map(row -> row.request().getGuestId())
+                .collect(Collectors.toSet());
+        Set<Long> existing = new HashSet<>();
+        guestRepository.findAllById(requested).forEach(guest -> existing.add(guest.getId()));
+        return existing;
+    }
+
+    private void importProperty(Long propertyId, List<Row> rows, Set<Long> existingGuestIds, BulkImportRowDTO[] results) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            // Every attempt is a fresh transaction and rewrites the outcome of every row
+            retryTemplate.execute(context -> {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Property property = propertyLockService.lock(propertyId);
+                    insertNonConflicting(property, rows, existingGuestIds, results);
+                });
+                return null;
+            });
+        } catch (PropertyNotFoundException e) {
+            rows.forEach(row -> results[row.slot()] = BulkImportRowDTO.failed(row.index(), e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Bulk import of {} rows for property {} rolled back", rows.size(), propertyId, e);
+            String error = "Import failed for property " + propertyId + " and was rolled back";
+            rows.forEach(row -> results[row.slot()] = BulkImportRowDTO.failed(row.index(), error));
+        }
+    }
+
+    private void insertNonConflicting(Property property, List<Row> rows, Set<Long> existingGuestIds, BulkImportRowDTO[] results) {
+        LocalDate spanStart = rows.stream().map(row -> row.request().getStartDate()).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate spanEnd = rows.stream().map(row -> row.request().getEndDate()).max(Comparator.naturalOrder()).orElseThrow();
+        OccupiedDates booked = toOccupiedDates(
+                bookingRepository.findOverlappingRanges(property.getId(), spanStart, spanEnd, List.of(BOOKED, REBOOKED)));
+        OccupiedDates blocked = toOccupiedDates(blockRepository.findOverlappingRanges(property.getId(), spanStart, spanEnd));
+
+        List<Row> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (Row row : rows) {
+            BookingRequestDTO request = row.request();
+            if (!existingGuestIds.contains(request.getGuestId())) {
+                results[row.slot()] = BulkImportRowDTO.failed(row.index(), new GuestNotFoundException(request.getGuestId()).getMessage());
+            } else if (booked.overlaps(request.getStartDate(), request.getEndDate())) {
+                conflictMetrics.increment(property.getId(), OccupancyKind.BOOKING);
+                results[row.slot()] = BulkImportRowDTO.failed(row.index(), "The requested dates are already booked for this property");
+            } else if (blocked.overlaps(request.getStartDate(), request.getEndDate())) {
+                conflictMetrics.increment(property.getId(), OccupancyKind.BOOKING);
+                results[row.slot()] = BulkImportRowDTO.failed(row.index(), "The requested dates are blocked for this property");
+            } else {
+                booked.add(request.getStartDate(), request.getEndDate());
+                accepted.add(row);
+                bookings.add(BookingRequestDTO.toBooking(request, property, guestRepository.getReferenceById(request.getGuestId())));
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            Row row = accepted.get(i);
+            results[row.slot()] = BulkImportRowDTO.created(row.index(), booking.getId());
+            eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(booking.getId(), null, Snapshot.of(booking)));
+        }
+        log.info("Imported {} of {} bookings for property {}", saved.size(), rows.size(), property.getId());
+    }
+
+    private OccupiedDates toOccupiedDates(List<OccupiedRange> ranges) {
+        OccupiedDates occupied = new OccupiedDates();
+        ranges.forEach(range -> occupied.add(range.getStartDate(), range.getEndDate()));
+        return occupied;
+    }
+
+    /** A row at {@code slot} of its chunk and {@code index} of the whole import. */
+    private record Row(int slot, int index, BookingRequestDTO request) {
+    }
+}
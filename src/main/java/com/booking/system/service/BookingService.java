@@ -2,24 +2,41 @@ package com.booking.system.service;
 
 import com.booking.system.dto.BookingRequestDTO;
 import com.booking.system.dto.BookingResponseDTO;
+import com.booking.system.dto.CursorPageDTO;
+import com.booking.system.dto.GroupBookingRequestDTO;
+import com.booking.system.dto.GroupBookingResponseDTO;
+import com.booking.system.dto.GuestResponseDTO;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupancyChangedEvent.Snapshot;
 import com.booking.system.exception.BookingNotFoundException;
 import com.booking.system.exception.GuestNotFoundException;
 import com.booking.system.exception.InvalidBookingStateException;
-import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.exception.PropertyLockTimeoutException;
 import com.booking.system.model.Booking;
 import com.booking.system.model.Guest;
 import com.booking.system.model.Property;
 import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.BookingVersions;
 import com.booking.system.repository.GuestRepository;
-import com.booking.system.repository.PropertyRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static com.booking.system.enumeration.BookingStatus.CANCELLED;
 import static com.booking.system.enumeration.BookingStatus.REBOOKED;
 
@@ -32,22 +49,29 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final AvailabilityService availabilityService;
     private final DateValidationService dateValidationService;
-    private final PropertyRepository propertyRepository;
+    private final PropertyLockService propertyLockService;
+    private final GuestService guestService;
     private final GuestRepository guestRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
     public BookingResponseDTO create(BookingRequestDTO bookingRequestDTO) {
         log.info("Creating booking for property {} with guest {}, dates: {} - {}",
                 bookingRequestDTO.getPropertyId(), bookingRequestDTO.getGuestId(),
                 bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate());
         dateValidationService.validate(bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate());
-        Property property = propertyRepository.findAndLockProperty(bookingRequestDTO.getPropertyId())
-                .orElseThrow(() -> new PropertyNotFoundException(bookingRequestDTO.getPropertyId()));
+        availabilityService.precheckForBooking(bookingRequestDTO.getPropertyId(), bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate(), null);
+        Property property = propertyLockService.lock(bookingRequestDTO.getPropertyId());
         availabilityService.ensureAvailableForBooking(property.getId(), bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate(), null);
-        Guest guest = guestRepository.findById(bookingRequestDTO.getGuestId())
-                .orElseThrow(() -> new GuestNotFoundException(bookingRequestDTO.getGuestId()));
-        Booking saved = bookingRepository.save(BookingRequestDTO.toBooking(bookingRequestDTO, property, guest));
+        GuestResponseDTO guest = guestService.get(bookingRequestDTO.getGuestId());
+        Booking saved = bookingRepository.save(BookingRequestDTO.toBooking(bookingRequestDTO, property,
+                guestRepository.getReferenceById(guest.getId())));
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(saved.getId(), null, Snapshot.of(saved)));
         log.info("Booking created successfully with id {}", saved.getId());
-        return BookingResponseDTO.of(saved);
+        return BookingResponseDTO.of(saved, guest);
     }
 
     public Page<BookingResponseDTO> getAll(int page, int size) {
@@ -56,66 +80,164 @@ public class BookingService {
                 .map(BookingResponseDTO::of);
     }
 
+    /** Keyset alternative to {@link #getAll}: the page of bookings older than {@code after}, or the newest when null. */
+    public CursorPageDTO<BookingResponseDTO> getAfter(Long after, int size) {
+        log.debug("Fetching bookings after {} with size {}", after, size);
+        return CursorPageDTO.of(
+                bookingRepository.findByIdLessThan(after == null ? Long.MAX_VALUE : after,
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))),
+                BookingResponseDTO::of, Booking::getId);
+    }
+
     public BookingResponseDTO get(Long bookingId) {
         log.debug("Fetching booking with id {}", bookingId);
-        Booking bookingDB = findBooking(bookingId);
+        Booking bookingDB = bookingRepository.findWithAssociationsById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
         return BookingResponseDTO.of(bookingDB);
     }
 
-    public BookingResponseDTO update(BookingRequestDTO bookingRequestDTO, Long id) {
+    /** Current versions of the booking and what its responses embed, read without loading it, for conditional GETs. */
+    @Transactional(readOnly = true)
+    public BookingVersions getVersions(Long bookingId) {
+        return bookingRepository.findVersionsById(bookingId).orElseThrow(() -> new BookingNotFoundException(bookingId));
+    }
+
+    /** Id of the booking's property, read without loading the booking, for admission control of writes by booking id. */
+    @Transactional(readOnly = true)
+    public Long getPropertyId(Long bookingId) {
+        return bookingRepository.findPropertyIdById(bookingId).orElseThrow(() -> new BookingNotFoundException(bookingId));
+    }
+
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
+    public BookingResponseDTO update(BookingRequestDTO bookingRequestDTO, Long id, Long expectedVersion) {
         log.info("Updating booking {} for property {}, dates: {} - {}",
                 id, bookingRequestDTO.getPropertyId(),
                 bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate());
         Booking bookingDB = findBooking(id);
+        Versions.ensureMatches(expectedVersion, bookingDB.getVersion());
         if (bookingDB.getStatus() == CANCELLED) {
             throw new InvalidBookingStateException("Cannot update a cancelled booking");
         }
+        Snapshot before = Snapshot.of(bookingDB);
         dateValidationService.validate(bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate());
-        Property property = propertyRepository.findAndLockProperty(bookingRequestDTO.getPropertyId())
-                .orElseThrow(() -> new PropertyNotFoundException(bookingRequestDTO.getPropertyId()));
+        availabilityService.precheckForBooking(bookingRequestDTO.getPropertyId(), bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate(), id);
+        // Moving to another property locks both, in the same order as group bookings
+        Property property = propertyLockService.lockAll(List.of(bookingDB.getProperty().getId(), bookingRequestDTO.getPropertyId()))
+                .get(bookingRequestDTO.getPropertyId());
         availabilityService.ensureAvailableForBooking(bookingRequestDTO.getPropertyId(), bookingRequestDTO.getStartDate(), bookingRequestDTO.getEndDate(), id);
 
-        Guest guest = guestRepository.findById(bookingRequestDTO.getGuestId())
-                .orElseThrow(() -> new GuestNotFoundException(bookingRequestDTO.getGuestId()));
-        Booking updated = updateBooking(bookingRequestDTO, bookingDB, guest, property);
+        GuestResponseDTO guest = guestService.get(bookingRequestDTO.getGuestId());
+        Booking updated = updateBooking(bookingRequestDTO, bookingDB, guestRepository.getReferenceById(guest.getId()), property);
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(id, before, Snapshot.of(updated)));
+        // Flush now so the response (and its ETag) carries the incremented version
+        bookingRepository.flush();
         log.info("Booking {} updated successfully", id);
-        return BookingResponseDTO.of(updated);
+        return BookingResponseDTO.of(updated, guest);
     }
 
-    public BookingResponseDTO cancel(Long bookingId) {
+    /**
+     * Creates all the bookings or none, in one transaction. The properties are locked up front in
+     * {@link PropertyLockService#lockAll} order, so concurrent groups sharing properties cannot deadlock, then every
+     * stay is checked against existing bookings, blocks and the rest of the group with one query.
+     */
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
+    public GroupBookingResponseDTO createGroup(GroupBookingRequestDTO groupRequestDTO) {
+        List<BookingRequestDTO> stays = groupRequestDTO.getBookings();
+        List<Long> propertyIds = stays.stream().map(BookingRequestDTO::getPropertyId).toList();
+        log.info("Creating group of {} bookings for properties {}", stays.size(), propertyIds);
+        stays.forEach(stay -> dateValidationService.validate(stay.getStartDate(), stay.getEndDate()));
+        Map<Long, Property> properties = propertyLockService.lockAll(propertyIds);
+        availabilityService.ensureAvailableForBookings(stays);
+        Map<Long, Guest> guests = findGuests(stays);
+
+        List<Booking> saved = bookingRepository.saveAll(stays.stream()
+                .map(stay -> BookingRequestDTO.toBooking(stay, properties.get(stay.getPropertyId()), guests.get(stay.getGuestId())))
+                .toList());
+        saved.forEach(booking ->
+                eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(booking.getId(), null, Snapshot.of(booking))));
+        bookingRepository.flush();
+        log.info("Group of {} bookings created successfully", saved.size());
+        return new GroupBookingResponseDTO(saved.stream().map(BookingResponseDTO::of).toList());
+    }
+
+    /** Takes the property lock like every other occupancy write, so the rollup rebuild cannot interleave with it. */
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
+    public BookingResponseDTO cancel(Long bookingId, Long expectedVersion) {
         log.info("Cancelling booking {}", bookingId);
         Booking bookingDB = findBooking(bookingId);
+        Versions.ensureMatches(expectedVersion, bookingDB.getVersion());
         if (bookingDB.getStatus() == CANCELLED) {
             throw new InvalidBookingStateException("Booking is already cancelled");
         }
+        propertyLockService.lock(bookingDB.getProperty().getId());
+        Snapshot before = Snapshot.of(bookingDB);
         bookingDB.setStatus(CANCELLED);
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(bookingId, before, Snapshot.of(bookingDB)));
+        bookingRepository.flush();
         log.info("Booking {} cancelled successfully", bookingId);
         return BookingResponseDTO.of(bookingDB);
     }
 
     /** Reactivates a cancelled booking. Re-validates dates and checks for overlaps since they may have changed. */
-    public BookingResponseDTO rebook(Long bookingId) {
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
+    public BookingResponseDTO rebook(Long bookingId, Long expectedVersion) {
         log.info("Rebooking booking {}", bookingId);
         Booking bookingDB = findBooking(bookingId);
+        Versions.ensureMatches(expectedVersion, bookingDB.getVersion());
         if (bookingDB.getStatus() != CANCELLED) {
             throw new InvalidBookingStateException("Only cancelled bookings can be rebooked");
         }
         dateValidationService.validate(bookingDB.getStartDate(), bookingDB.getEndDate());
-        propertyRepository.findAndLockProperty(bookingDB.getProperty().getId())
-                .orElseThrow(() -> new PropertyNotFoundException(bookingDB.getProperty().getId()));
+        availabilityService.precheckForBooking(bookingDB.getProperty().getId(), bookingDB.getStartDate(), bookingDB.getEndDate(), bookingDB.getId());
+        propertyLockService.lock(bookingDB.getProperty().getId());
 
         availabilityService.ensureAvailableForBooking(bookingDB.getProperty().getId(), bookingDB.getStartDate(), bookingDB.getEndDate(), bookingDB.getId());
+        Snapshot before = Snapshot.of(bookingDB);
         bookingDB.setStatus(REBOOKED);
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(bookingId, before, Snapshot.of(bookingDB)));
+        bookingRepository.flush();
         log.info("Booking {} rebooked successfully", bookingId);
         return BookingResponseDTO.of(bookingDB);
     }
 
+    @Timed(value = "booking.service", histogram = true)
+    @Retryable(retryFor = {OptimisticLockingFailureException.class, PropertyLockTimeoutException.class},
+            maxAttemptsExpression = "${booking.locking.retry.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${booking.locking.retry.delay-ms:10}", multiplier = 2, random = true))
     public void delete(Long bookingId) {
         log.info("Deleting booking {}", bookingId);
-        bookingRepository.delete(findBooking(bookingId));
+        Booking bookingDB = findBooking(bookingId);
+        propertyLockService.lock(bookingDB.getProperty().getId());
+        bookingRepository.delete(bookingDB);
+        eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(bookingId, Snapshot.of(bookingDB), null));
         log.info("Booking {} deleted successfully", bookingId);
     }
 
+    /** The stays' guests by id, loaded with one query. */
+    private Map<Long, Guest> findGuests(List<BookingRequestDTO> stays) {
+        Set<Long> guestIds = stays.stream().map(BookingRequestDTO::getGuestId).collect(Collectors.toSet());
+        Map<Long, Guest> guests = new HashMap<>();
+        guestRepository.findAllById(guestIds).forEach(guest -> guests.put(guest.getId(), guest));
+        for (Long guestId : guestIds) {
+            if (!guests.containsKey(guestId)) {
+                throw new GuestNotFoundException(guestId);
+            }
+        }
+        return guests;
+    }
+
     private Booking findBooking(Long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(() -> new BookingNotFoundException(bookingId));
     }
@@ -0,0 +1,234 @@
+package com.booking.system.service;
+
+import com.booking.system.config.CacheConfig;
+import com.booking.system.dto.CalendarFeedDTO;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupancyChangedEvent.Snapshot;
+import com.booking.system.event.PropertyChangedEvent;
+import com.booking.system.model.Block;
+import com.booking.system.model.Booking;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Renders each property's active bookings and blocks as an iCalendar (RFC 5545) feed for channel managers.
+ * A feed costs two queries to render and is then served from the {@link CacheConfig#CALENDARS} cache until a
+ * booking or block of that property changes ({@link OccupancyChangedEvent}) or the property itself is updated or
+ * deleted ({@link PropertyChangedEvent}); the eviction is applied after the writing transaction commits. Only stays that have not ended yet are listed,
+ * and events carry no guest data.
+ * <p>
+ * A render that started before a write committed can finish after that write's eviction, so each eviction bumps a
+ * per-property generation and a render whose generation changed meanwhile is not left in the cache.
+ */
+@Slf4j
+@Service
+public class CalendarService {
+
+    private static final String PRODUCT_ID = "-//Booking System//Property Calendar//EN";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PropertyService propertyService;
+    private final TransactionTemplate readOnlyTransaction;
+    /** Puts and evictions go straight to Caffeine; this class orders them against commits itself. */
+    private final Cache calendarCache;
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    public CalendarService(BookingRepository bookingRepository,
+                           BlockRepository blockRepository,
+                           PropertyService propertyService,
+                           CacheManager cacheManager,
+                           PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.propertyService = propertyService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        Cache cache = cacheManager.getCache(CacheConfig.CALENDARS);
+        this.calendarCache = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    public CalendarFeedDTO get(Long propertyId) {
+        CalendarFeedDTO cached = calendarCache.get(propertyId, CalendarFeedDTO.class);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = generation(propertyId);
+        CalendarFeedDTO feed = readOnlyTransaction.execute(status -> render(propertyId));
+        calendarCache.put(propertyId, feed);
+        // Checked after the put: an eviction either bumped the generation already, or runs after the put and removes it
+        if (generation(propertyId) != generation) {
+            log.debug("Calendar of property {} changed while rendering, not caching it", propertyId);
+            calendarCache.evict(propertyId);
+        }
+        return feed;
+    }
+
+    private CalendarFeedDTO render(Long propertyId) {
+        String propertyName = propertyService.get(propertyId).getName();
+        LocalDate today = LocalDate.now();
+        List<Booking> bookings = bookingRepository.findCalendarEntries(propertyId, List.of(BOOKED, REBOOKED), today);
+        List<Block> blocks = blockRepository.findCalendarEntries(propertyId, today);
+        Instant renderedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        FeedWriter feed = new FeedWriter(renderedAt);
+        feed.line("BEGIN", "VCALENDAR");
+        feed.line("VERSION", "2.0");
+        feed.line("PRODID", PRODUCT_ID);
+        feed.line("CALSCALE", "GREGORIAN");
+        feed.line("METHOD", "PUBLISH");
+        feed.line("X-WR-CALNAME", escape(propertyName));
+        for (Booking booking : bookings) {
+            feed.event("booking-" + booking.getId(), booking.getStartDate(), booking.getEndDate(), "Booked", null);
+        }
+        for (Block block : blocks) {
+            feed.event("block-" + block.getId(), block.getStartDate(), block.getEndDate(), "Blocked", block.getReason());
+        }
+        feed.line("END", "VCALENDAR");
+        log.debug("Rendered calendar of property {} with {} bookings and {} blocks", propertyId, bookings.size(), blocks.size());
+        return feed.toFeed();
+    }
+
+    @EventListener
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        // Also on changes that keep the dates, such as a new block reason
+        evict(event.before());
+        evict(event.after());
+    }
+
+    /** The feed shows the property's name, and a deleted property's feed must not outlive it. */
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        evictAfterCommit(event.propertyId());
+    }
+
+    private void evict(Snapshot snapshot) {
+        if (snapshot != null) {
+            evictAfterCommit(snapshot.propertyId());
+        }
+    }
+
+    private void evictAfterCommit(Long propertyId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(propertyId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(propertyId);
+            }
+        });
+    }
+
+    /** Bumps the generation before evicting, so a render in flight either sees the bump or has its put evicted. */
+    private void evict(Long propertyId) {
+        generations.merge(propertyId, 1L, Long::sum);
+        calendarCache.evict(propertyId);
+    }
+
+    private long generation(Long propertyId) {
+        return generations.getOrDefault(propertyId, 0L);
+    }
+
+    /** Escapes a TEXT value: backslashes, semicolons, commas and line breaks. */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n")
+                .replace("\r", "");
+    }
+
+    /**
+     * Appends content lines folded at 75 octets and hashes everything but the {@code DTSTAMP}s into the ETag,
+     * so a feed re-rendered from unchanged data keeps its tag.
+     */
+    private static final class FeedWriter {
+
+        private static final int MAX_LINE_OCTETS = 75;
+
+        private final StringBuilder body = new StringBuilder();
+        private final MessageDigest digest;
+        private final Instant renderedAt;
+
+        FeedWriter(Instant renderedAt) {
+            this.renderedAt = renderedAt;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        void event(String uid, LocalDate startDate, LocalDate endDate, String summary, String description) {
+            line("BEGIN", "VEVENT");
+            line("UID", uid + "@booking-system");
+            append("DTSTAMP:" + DATE_TIME.format(renderedAt));
+            line("DTSTART;VALUE=DATE", DATE.format(startDate));
+            line("DTEND;VALUE=DATE", DATE.format(endDate));
+            line("SUMMARY", summary);
+            if (description != null && !description.isBlank()) {
+                line("DESCRIPTION", escape(description));
+            }
+            line("TRANSP", "OPAQUE");
+            line("END", "VEVENT");
+        }
+
+        void line(String name, String value) {
+            int start = body.length();
+            append(name + ":" + value);
+            digest.update(body.substring(start).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void append(String line) {
+            int octets = 0;
+            for (int i = 0; i < line.length(); ) {
+                int codePoint = line.codePointAt(i);
+                int size = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (octets + size > MAX_LINE_OCTETS) {
+                    body.append("\r\n ");
+                    octets = 1;
+                }
+                body.appendCodePoint(codePoint);
+                octets += size;
+                i += Character.charCount(codePoint);
+            }
+            body.append("\r\n");
+        }
+
+        CalendarFeedDTO toFeed() {
+            String etag = HexFormat.of().formatHex(digest.digest(), 0, 8);
+            return new CalendarFeedDTO(body.toString(), etag, renderedAt);
+        }
+    }
+}
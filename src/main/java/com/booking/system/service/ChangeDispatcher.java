@@ -0,0 +1,295 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.ChangeEventDTO;
+import com.booking.system.repository.ChangeFeedRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the change outbox. A single thread, woken after every commit that wrote a change (and every
+ * {@code booking.changes.poll-interval} as a backstop), gives committed rows consecutive feed positions in the order
+ * it finds them and pushes them to the open {@code /api/v1/changes} streams.
+ * <p>
+ * Positions are assigned after commit rather than taken from the id sequence, so a transaction that committed late
+ * with a lower id still lands after everything a client has already seen. All subscriber state is only touched by
+ * the dispatcher thread: a new stream is first caught up from the table to the current head, then receives the
+ * batches as they are published; a stream that finds a gap before a batch (positions published by another node) fills
+ * it from the table. A stream that cannot be written to is dropped; its client reconnects with {@code Last-Event-ID}.
+ */
+@Slf4j
+@Service
+public class ChangeDispatcher implements SmartLifecycle {
+
+    private static final String EVENT_NAME = "change";
+
+    private final ChangeFeedRepository changeFeedRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration heartbeat;
+    private final Duration streamTimeout;
+    private final Duration retention;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Queue<Subscriber> pending = new ConcurrentLinkedQueue<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private volatile Thread thread;
+    private Instant lastHeartbeat = Instant.now();
+    private Instant lastPrune = Instant.EPOCH;
+
+    public ChangeDispatcher(ChangeFeedRepository changeFeedRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${booking.changes.batch-size:500}") int batchSize,
+                            @Value("${booking.changes.poll-interval:1s}") Duration pollInterval,
+                            @Value("${booking.changes.heartbeat:15s}") Duration heartbeat,
+                            @Value("${booking.changes.stream-timeout:30m}") Duration streamTimeout,
+                            @Value("${booking.changes.retention:7d}") Duration retention) {
+        this.changeFeedRepository = changeFeedRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.heartbeat = heartbeat;
+        this.streamTimeout = streamTimeout;
+        this.retention = retention;
+    }
+
+    /**
+     * Opens a stream of changes after position {@code since} (only new ones when null), optionally only those
+     * touching one property.
+     */
+    public SseEmitter subscribe(Long since, Long propertyId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since, propertyId);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscriber.close());
+        pending.add(subscriber);
+        wakeUp();
+        return emitter;
+    }
+
+    /** Published changes after {@code since}, oldest first. */
+    public List<ChangeEventDTO> read(long since, Long propertyId, int limit) {
+        return changeFeedRepository.findSince(since, propertyId, limit).stream().map(ChangeEventDTO::of).toList();
+    }
+
+    /** Asks the dispatcher to publish now instead of at the next poll. */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    @Override
+    public synchronized void start() {
+        // Assigned before starting: the loop runs while this field holds a thread
+        thread = Thread.ofPlatform().name("change-dispatcher").daemon().unstarted(this::run);
+        thread.start();
+        log.info("Change dispatcher started, polling every {}", pollInterval);
+    }
+
+    @Override
+    public synchronized void stop() {
+        Thread running = thread;
+        thread = null;
+        if (running != null) {
+            running.interrupt();
+            try {
+                running.join(pollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return thread != null;
+    }
+
+    private void run() {
+        while (thread != null) {
+            try {
+                wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUps.drainPermits();
+                dispatch();
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                if (thread != null) {
+                    log.warn("Change dispatch failed, retrying at the next poll", e);
+                }
+            }
+        }
+        subscribers.addAll(pending);
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void dispatch() {
+        Batch batch;
+        do {
+            batch = transactionTemplate.execute(status -> publishBatch());
+            admitPending(batch.head());
+            deliver(batch.changes());
+        } while (batch.changes().size() == batchSize);
+
+        Instant now = Instant.now();
+        if (batch.changes().isEmpty() && now.isAfter(lastHeartbeat.plus(heartbeat))) {
+            forEachSubscriber(Subscriber::heartbeat);
+            lastHeartbeat = now;
+        }
+        if (now.isAfter(lastPrune.plus(Duration.ofHours(1)))) {
+            int deleted = changeFeedRepository.deletePublishedBefore(now.minus(retention));
+            log.debug("Pruned {} changes older than {}", deleted, retention);
+            lastPrune = now;
+        }
+    }
+
+    private Batch publishBatch() {
+        long head = changeFeedRepository.findMaxPosition();
+        List<Long> ids = changeFeedRepository.findUnpublishedIds(batchSize);
+        if (ids.isEmpty()) {
+            return new Batch(head, List.of());
+        }
+        changeFeedRepository.assignPositions(ids, head + 1);
+        log.debug("Published changes {} to {}", head + 1, head + ids.size());
+        return new Batch(head, read(head, null, ids.size()));
+    }
+
+    /** Catches new streams up to {@code head}, the last position published before the current batch. */
+    private void admitPending(long head) {
+        Subscriber subscriber;
+        while ((subscriber = pending.poll()) != null) {
+            if (subscriber.last == null) {
+                subscriber.last = head;
+            }
+            subscribers.add(subscriber);
+            final Subscriber admitted = subscriber;
+            deliverTo(admitted, () -> fill(admitted, head));
+        }
+    }
+
+    private void deliver(List<ChangeEventDTO> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        long first = changes.get(0).getPosition();
+        forEachSubscriber(subscriber -> {
+            if (first > subscriber.last + 1) {
+                fill(subscriber, first - 1);
+            }
+            for (ChangeEventDTO change : changes) {
+                subscriber.offer(change);
+            }
+        });
+    }
+
+    /** Sends the stored changes after the subscriber's position up to {@code upTo}. */
+    private void fill(Subscriber subscriber, long upTo) throws IOException {
+        while (subscriber.last < upTo) {
+            List<ChangeEventDTO> page = read(subscriber.last, subscriber.propertyId, batchSize);
+            for (ChangeEventDTO change : page) {
+                if (change.getPosition() > upTo) {
+                    break;
+                }
+                subscriber.offer(change);
+            }
+            if (page.size() < batchSize || page.get(page.size() - 1).getPosition() >= upTo) {
+                break;
+            }
+        }
+        subscriber.last = Math.max(subscriber.last, upTo);
+    }
+
+    private void forEachSubscriber(SubscriberAction action) {
+        Iterator<Subscriber> iterator = subscribers.iterator();
+        while (iterator.hasNext()) {
+            Subscriber subscriber = iterator.next();
+            if (subscriber.closed || !deliverTo(subscriber, () -> action.accept(subscriber))) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private boolean deliverTo(Subscriber subscriber, IoAction action) {
+        try {
+            action.run();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping change stream: {}", e.getMessage());
+            subscriber.close();
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private record Batch(long head, List<ChangeEventDTO> changes) {
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface SubscriberAction {
+        void accept(Subscriber subscriber) throws IOException;
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long propertyId;
+        /** Last position sent or skipped; only the dispatcher thread reads or writes it. */
+        private Long last;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, Long since, Long propertyId) {
+            this.emitter = emitter;
+            this.last = since;
+            this.propertyId = propertyId;
+        }
+
+        /** Sends the change unless it was sent already or is for another property. */
+        private void offer(ChangeEventDTO change) throws IOException {
+            if (change.getPosition() <= last) {
+                return;
+            }
+            if (propertyId == null || touches(change)) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getPosition()))
+                        .name(EVENT_NAME)
+                        .data(change, MediaType.APPLICATION_JSON));
+            }
+            last = change.getPosition();
+        }
+
+        private boolean touches(ChangeEventDTO change) {
+            return (change.getBefore() != null && propertyId.equals(change.getBefore().getPropertyId()))
+                    || (change.getAfter() != null && propertyId.equals(change.getAfter().getPropertyId()));
+        }
+
+        private void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        private void close() {
+            closed = true;
+        }
+    }
+}
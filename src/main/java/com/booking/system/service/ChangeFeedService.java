@@ -0,0 +1,54 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.ChangeFeedPageDTO;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.model.ChangeEvent;
+import com.booking.system.repository.ChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Change feed for partners: every {@link OccupancyChangedEvent} is appended to the {@code change_event} outbox in the
+ * writing transaction, so a change is in the feed if and only if it committed. {@link ChangeDispatcher} publishes
+ * the rows after commit; clients either stream them or page through them with {@code since}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeDispatcher changeDispatcher;
+
+    @EventListener
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        changeEventRepository.save(ChangeEvent.of(event));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeDispatcher.wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changeDispatcher.wakeUp();
+            }
+        });
+    }
+
+    /** Up to {@code limit} published changes after position {@code since}, optionally only for one property. */
+    public ChangeFeedPageDTO getChanges(long since, Long propertyId, int limit) {
+        log.debug("Reading up to {} changes after {} for property {}", limit, since, propertyId);
+        return ChangeFeedPageDTO.of(since, changeDispatcher.read(since, propertyId, limit));
+    }
+
+    /** Streams changes after {@code since} (only new ones when null), optionally only for one property. */
+    public SseEmitter subscribe(Long since, Long propertyId) {
+        log.debug("Opening change stream after {} for property {}", since, propertyId);
+        return changeDispatcher.subscribe(since, propertyId);
+    }
+}
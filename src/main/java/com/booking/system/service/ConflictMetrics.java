@@ -0,0 +1,25 @@
+package com.booking.system.service;
+
+import com.booking.system.enumeration.OccupancyKind;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Counts writes rejected because their dates were taken, as {@code booking.conflicts} per property. */
+@Component
+@RequiredArgsConstructor
+public class ConflictMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /** @param rejectedKind whether a booking or a block write was rejected */
+    public void increment(Long propertyId, OccupancyKind rejectedKind) {
+        Counter.builder("booking.conflicts")
+                .description("Writes rejected because the dates were taken")
+                .tag("property", String.valueOf(propertyId))
+                .tag("kind", rejectedKind.name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
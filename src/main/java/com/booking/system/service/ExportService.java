@@ -0,0 +1,115 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.BlockExportRowDTO;
+import com.booking.system.dto.BookingExportRowDTO;
+import com.booking.system.enumeration.BookingStatus;
+import com.booking.system.enumeration.ExportFormat;
+import com.booking.system.exception.InvalidDateRangeException;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes bookings and blocks to an output stream as NDJSON or CSV in constant memory. Rows are read through a
+ * forward-only, read-only cursor ({@link BookingRepository#EXPORT_FETCH_SIZE} rows per round trip), converted to
+ * flat rows without touching associations, and written straight to the output. After every fetch-size rows the
+ * output is flushed and the persistence context is cleared, so neither the response nor the session grows with
+ * the size of the export.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final int FLUSH_EVERY = Integer.parseInt(BookingRepository.EXPORT_FETCH_SIZE);
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /** Writes the bookings matching the filters, oldest first, and returns how many were written. Null filters match everything. */
+    public long exportBookings(ExportFormat format, Long propertyId, BookingStatus status, LocalDate from, LocalDate to,
+                               OutputStream out) throws IOException {
+        validateRange(from, to);
+        try (Stream<BookingExportRowDTO> rows = bookingRepository.streamForExport(propertyId, status, from, to)
+                .map(BookingExportRowDTO::of)) {
+            long written = write(rows, BookingExportRowDTO.class, format, out);
+            log.info("Exported {} bookings as {}", written, format);
+            return written;
+        }
+    }
+
+    /** Writes the blocks matching the filters, oldest first, and returns how many were written. Null filters match everything. */
+    public long exportBlocks(ExportFormat format, Long propertyId, LocalDate from, LocalDate to,
+                             OutputStream out) throws IOException {
+        validateRange(from, to);
+        try (Stream<BlockExportRowDTO> rows = blockRepository.streamForExport(propertyId, from, to)
+                .map(BlockExportRowDTO::of)) {
+            long written = write(rows, BlockExportRowDTO.class, format, out);
+            log.info("Exported {} blocks as {}", written, format);
+            return written;
+        }
+    }
+
+    /**
+     * Rejects a range whose {@code from} is not before {@code to}. Callers that set response headers before exporting
+     * check this first: once the export content type is set, the error body can no longer be written as JSON.
+     */
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidDateRangeException("'from' must be before 'to'");
+        }
+    }
+
+    private <R> long write(Stream<R> rows, Class<R> type, ExportFormat format, OutputStream out) throws IOException {
+        long written = 0;
+        try (SequenceWriter writer = writerFor(type, format).writeValues(out)) {
+            Iterator<R> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        if (format == ExportFormat.NDJSON && written > 0) {
+            // The sequence writer only separates rows; NDJSON also terminates the last one
+            out.write('\n');
+        }
+        out.flush();
+        return written;
+    }
+
+    private ObjectWriter writerFor(Class<?> type, ExportFormat format) {
+        ObjectWriter writer = switch (format) {
+            case NDJSON -> objectMapper.writerFor(type).withRootValueSeparator("\n");
+            case CSV -> CSV_MAPPER.writer(CSV_MAPPER.schemaFor(type).withHeader());
+        };
+        // The caller owns the response stream
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+}
@@ -1,5 +1,7 @@
 package com.booking.system.service;
 
+import com.booking.system.config.CacheConfig;
+import com.booking.system.dto.CursorPageDTO;
 import com.booking.system.dto.GuestRequestDTO;
 import com.booking.system.dto.GuestResponseDTO;
 import com.booking.system.exception.GuestNotFoundException;
@@ -7,6 +9,8 @@ import com.booking.system.model.Guest;
 import com.booking.system.repository.GuestRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -34,6 +38,16 @@ public class GuestService {
                 .map(GuestResponseDTO::of);
     }
 
+    /** Keyset alternative to {@link #getAll}: the page of guests older than {@code after}, or the newest when null. */
+    public CursorPageDTO<GuestResponseDTO> getAfter(Long after, int size) {
+        log.debug("Fetching guests after {} with size {}", after, size);
+        return CursorPageDTO.of(
+                guestRepository.findByIdLessThan(after == null ? Long.MAX_VALUE : after,
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))),
+                GuestResponseDTO::of, Guest::getId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.GUESTS, key = "#guestId")
     public GuestResponseDTO get(Long guestId) {
         log.debug("Fetching guest with id {}", guestId);
         Guest guest = guestRepository.findById(guestId)
@@ -41,16 +55,20 @@ public class GuestService {
         return GuestResponseDTO.of(guest);
     }
 
-    public GuestResponseDTO update(GuestRequestDTO guestRequestDTO, Long id) {
+    @CacheEvict(cacheNames = CacheConfig.GUESTS, key = "#id")
+    public GuestResponseDTO update(GuestRequestDTO guestRequestDTO, Long id, Long expectedVersion) {
         log.info("Updating guest {}", id);
         Guest guestDB = guestRepository.findById(id)
                 .orElseThrow(() -> new GuestNotFoundException(id));
+        Versions.ensureMatches(expectedVersion, guestDB.getVersion());
         guestDB.setName(guestRequestDTO.getName());
         guestDB.setEmail(guestRequestDTO.getEmail());
+        guestRepository.flush();
         log.info("Guest {} updated successfully", id);
         return GuestResponseDTO.of(guestDB);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.GUESTS, key = "#guestId")
     public void delete(Long guestId) {
         log.info("Deleting guest {}", guestId);
         Guest guest = guestRepository.findById(guestId).orElseThrow(() -> new GuestNotFoundException(guestId));
@@ -0,0 +1,238 @@
+package com.booking.system.service;
+
+import com.booking.system.exception.IdempotencyKeyReusedException;
+import com.booking.system.repository.IdempotencyRecord;
+import com.booking.system.repository.IdempotencyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs writes sent with an {@code Idempotency-Key} at most once. The first request with a key runs the write and its
+ * successful response is recorded for {@code booking.idempotency.ttl}; a retry with the same key and the same request
+ * gets that response back without running the service at all, so it neither takes the property lock nor queries for
+ * overlaps. A duplicate that arrives while the first one is still running waits for it and shares its outcome.
+ * <p>
+ * Records live in a bounded in-memory cache ({@code booking.idempotency.maximum-size}); with
+ * {@code booking.idempotency.persistent} they are also written to {@code idempotency_record}, so retries that reach
+ * another node or outlive a restart are replayed too. Failed requests are not recorded: their retry runs again.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final boolean persistent;
+    private final Cache<String, IdempotencyRecord> recorded;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicReference<Instant> lastPrune = new AtomicReference<>(Instant.EPOCH);
+
+    public IdempotencyService(IdempotencyRepository idempotencyRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${booking.idempotency.maximum-size:100000}") long maximumSize,
+                              @Value("${booking.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${booking.idempotency.persistent:false}") boolean persistent) {
+        this.idempotencyRepository = idempotencyRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.persistent = persistent;
+        // Expire by the time the write happened, also for records read back from the table
+        this.recorded = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<String, IdempotencyRecord>creating(
+                        (key, record) -> maxOf(Duration.ZERO, Duration.between(Instant.now(), record.createdAt().plus(ttl)))))
+                .build();
+    }
+
+    /**
+     * Runs {@code action}, or replays its recorded response when {@code key} was already used for the same request.
+     * {@code operation} and {@code request} identify the request; reusing a key for a different one is rejected.
+     * Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Class<T> type,
+                                         Supplier<ResponseEntity<T>> action) {
+        return execute(key, operation, request, null, type, action);
+    }
+
+    /**
+     * {@link #execute(String, String, Object, Class, Supplier)} for a conditional write: its {@code If-Match} header
+     * (null when absent) is part of the request, so the key can't replay a response to a different precondition.
+     */
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, String ifMatch, Class<T> type,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        String fingerprint = fingerprint(operation, request, ifMatch);
+        IdempotencyRecord record = lookup(key);
+        if (record != null) {
+            return replay(key, fingerprint, record, type);
+        }
+
+        InFlight mine = new InFlight(fingerprint);
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            checkFingerprint(key, fingerprint, running.fingerprint);
+            log.debug("Waiting for the request in flight with idempotency key {}", key);
+            return replay(key, fingerprint, running.await(), type);
+        }
+        try {
+            // The previous holder of the key may have recorded its response and left since the lookup
+            record = recorded.getIfPresent(key);
+            if (record != null) {
+                mine.future.complete(record);
+                return replay(key, fingerprint, record, type);
+            }
+            ResponseEntity<T> response = action.get();
+            mine.future.complete(record(key, fingerprint, response));
+            return response;
+        } catch (RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private IdempotencyRecord lookup(String key) {
+        IdempotencyRecord record = recorded.getIfPresent(key);
+        if (record == null && persistent) {
+            record = idempotencyRepository.find(key, Instant.now().minus(ttl)).orElse(null);
+            if (record != null) {
+                recorded.put(key, record);
+            }
+        }
+        return record;
+    }
+
+    /** Builds the record of a response, and keeps it when the request succeeded. */
+    private IdempotencyRecord record(String key, String fingerprint, ResponseEntity<?> response) {
+        IdempotencyRecord record = new IdempotencyRecord(key, fingerprint, response.getStatusCode().value(),
+                response.getHeaders().getETag(), toJson(response.getBody()), Instant.now());
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return record;
+        }
+        recorded.put(key, record);
+        if (persistent) {
+            persist(record);
+        }
+        return record;
+    }
+
+    /** The write has committed by now, so a failure here only costs replays on other nodes. */
+    private void persist(IdempotencyRecord record) {
+        Instant expiredBefore = record.createdAt().minus(ttl);
+        try {
+            if (!idempotencyRepository.save(record, expiredBefore)) {
+                log.debug("Idempotency key {} was already recorded", record.key());
+            }
+            Instant previous = lastPrune.get();
+            if (record.createdAt().isAfter(previous.plus(Duration.ofHours(1)))
+                    && lastPrune.compareAndSet(previous, record.createdAt())) {
+                int deleted = idempotencyRepository.deleteCreatedBefore(expiredBefore);
+                log.debug("Pruned {} idempotency records older than {}", deleted, ttl);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not persist idempotency key {}: {}", record.key(), e.getMessage());
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(String key, String fingerprint, IdempotencyRecord record, Class<T> type) {
+        checkFingerprint(key, fingerprint, record.fingerprint());
+        log.debug("Replaying response {} for idempotency key {}", record.status(), key);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(record.status()).header(REPLAYED_HEADER, "true");
+        if (record.etag() != null) {
+            builder.eTag(record.etag());
+        }
+        try {
+            return builder.body(objectMapper.readValue(record.body(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable response recorded for idempotency key " + key, e);
+        }
+    }
+
+    private static Duration maxOf(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static void checkFingerprint(String key, String fingerprint, String recordedFingerprint) {
+        if (!fingerprint.equals(recordedFingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+    }
+
+    /**
+     * The operation plus a SHA-256 of the request's JSON and its {@code If-Match}, so neither the body nor the header
+     * is ever stored and the fingerprint fits its column whatever their length.
+     */
+    private String fingerprint(String operation, Object request, String ifMatch) {
+        if (request == null && ifMatch == null) {
+            return operation;
+        }
+        String hashed = (request == null ? "" : toJson(request)) + (ifMatch == null ? "" : "\nIf-Match: " + ifMatch.trim());
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(hashed.getBytes(StandardCharsets.UTF_8));
+            return operation + " " + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static final class InFlight {
+
+        private final String fingerprint;
+        private final CompletableFuture<IdempotencyRecord> future = new CompletableFuture<>();
+
+        private InFlight(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        /** The first request's response, or its exception rethrown. */
+        private IdempotencyRecord await() {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a duplicate request", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.booking.system.service;
+
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupiedInterval;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Day-granularity occupancy bitset per property, used to answer "which properties are free between X and Y"
+ * in one pass over the candidates. Bit {@code i} stands for the night of {@code epoch + i}; since bookings can't
+ * start in the past nor end more than two years ahead, each property needs only a few hundred bits.
+ * <p>
+ * Each property's calendar is an immutable snapshot replaced on every change, so searches never lock.
+ * The bitset is rebuilt from the property's interval set rather than cleared in place, which keeps
+ * add and remove commutative while a released range is still waiting for its transaction to commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancyCalendar implements SmartInitializingSingleton {
+
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /** Day zero of every bitset, fixed for the lifetime of the application. Earlier nights are not tracked. */
+    private final LocalDate epoch = LocalDate.now();
+    private final Map<Long, PropertyCalendar> properties = new ConcurrentHashMap<>();
+
+    /** Returns, in the given order, the ids of properties with no active booking or block in the date range. */
+    public List<Long> findAvailable(List<Long> propertyIds, LocalDate startDate, LocalDate endDate) {
+        BitSet requested = new BitSet();
+        setRange(requested, startDate, endDate);
+        List<Long> available = new ArrayList<>();
+        for (Long propertyId : propertyIds) {
+            PropertyCalendar calendar = properties.get(propertyId);
+            if (calendar == null || !calendar.nights().intersects(requested)) {
+                available.add(propertyId);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Same contract as the repositories' {@code hasOverlap} queries, restricted to one kind of range, answered from
+     * the property's snapshot without locking. Free dates, the common case, are settled by the bitset alone.
+     */
+    public boolean hasOverlap(OccupancyKind kind, Long propertyId, LocalDate startDate, LocalDate endDate, Long excludeId) {
+        PropertyCalendar calendar = properties.get(propertyId);
+        if (calendar == null) {
+            return false;
+        }
+        BitSet requested = new BitSet();
+        setRange(requested, startDate, endDate);
+        if (!calendar.nights().intersects(requested)) {
+            return false;
+        }
+        for (OccupiedInterval interval : calendar.intervals()) {
+            if (interval.kind() == kind && interval.overlaps(startDate, endDate) && !interval.id().equals(excludeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Set<OccupiedInterval>> intervalsByProperty = new HashMap<>();
+            bookingRepository.findRangesEndingAfter(List.of(BOOKED, REBOOKED), epoch).forEach(range -> intervalsByProperty
+                    .computeIfAbsent(range.getPropertyId(), id -> new HashSet<>()).add(OccupiedInterval.of(OccupancyKind.BOOKING, range)));
+            blockRepository.findRangesEndingAfter(epoch).forEach(range -> intervalsByProperty
+                    .computeIfAbsent(range.getPropertyId(), id -> new HashSet<>()).add(OccupiedInterval.of(OccupancyKind.BLOCK, range)));
+            // Build each calendar once rather than copying it per interval
+            properties.clear();
+            intervalsByProperty.forEach((propertyId, intervals) -> properties.put(propertyId, PropertyCalendar.of(intervals, this)));
+            log.info("Occupancy calendar built for {} properties starting {}", properties.size(), epoch);
+        });
+    }
+
+    @EventListener
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        OccupancySynchronization.apply(event, this::occupy, this::release);
+    }
+
+    private void occupy(OccupiedInterval interval) {
+        properties.compute(interval.propertyId(),
+                (id, calendar) -> (calendar == null ? PropertyCalendar.EMPTY : calendar).with(interval, this));
+    }
+
+    private void release(OccupiedInterval interval) {
+        properties.computeIfPresent(interval.propertyId(), (id, calendar) -> calendar.without(interval, this));
+    }
+
+    private void setRange(BitSet nights, LocalDate startDate, LocalDate endDate) {
+        int from = (int) Math.max(0, ChronoUnit.DAYS.between(epoch, startDate));
+        int to = (int) Math.max(0, ChronoUnit.DAYS.between(epoch, endDate));
+        if (to > from) {
+            nights.set(from, to);
+        }
+    }
+
+    /** Immutable; never mutate {@code nights} once the calendar is published. */
+    private record PropertyCalendar(Set<OccupiedInterval> intervals, BitSet nights) {
+
+        static final PropertyCalendar EMPTY = new PropertyCalendar(Set.of(), new BitSet());
+
+        static PropertyCalendar of(Set<OccupiedInterval> intervals, OccupancyCalendar owner) {
+            BitSet nights = new BitSet();
+            intervals.forEach(interval -> owner.setRange(nights, interval.startDate(), interval.endDate()));
+            return new PropertyCalendar(intervals, nights);
+        }
+
+        PropertyCalendar with(OccupiedInterval interval, OccupancyCalendar owner) {
+            Set<OccupiedInterval> updated = new HashSet<>(intervals);
+            updated.add(interval);
+            BitSet updatedNights = (BitSet) nights.clone();
+            owner.setRange(updatedNights, interval.startDate(), interval.endDate());
+            return new PropertyCalendar(updated, updatedNights);
+        }
+
+        /** Returns null once no interval is left, removing the property from the map. */
+        PropertyCalendar without(OccupiedInterval interval, OccupancyCalendar owner) {
+            Set<OccupiedInterval> updated = new HashSet<>(intervals);
+            if (!updated.remove(interval)) {
+                return this;
+            }
+            return updated.isEmpty() ? null : of(updated, owner);
+        }
+    }
+}
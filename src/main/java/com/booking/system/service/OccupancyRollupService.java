@@ -0,0 +1,281 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.OccupancyRateDTO;
+import com.booking.system.dto.PropertyOccupancyRatesDTO;
+import com.booking.system.dto.RollupRebuildDTO;
+import com.booking.system.dto.TypeOccupancyRatesDTO;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupiedInterval;
+import com.booking.system.exception.InvalidDateRangeException;
+import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.model.OccupancyRollup;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.OccupancyRollupRepository;
+import com.booking.system.repository.PropertyRepository;
+import com.booking.system.repository.PropertyTypeCount;
+import com.booking.system.repository.RollupTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Keeps {@code occupancy_rollup} — booked and blocked nights per property and calendar month — in step with every
+ * booking and block write, and answers occupancy-rate reports from it instead of scanning bookings.
+ * <p>
+ * Each {@link OccupancyChangedEvent} becomes per-month deltas added inside the writing transaction, so the rollup
+ * commits or rolls back with the write. A month row that doesn't exist yet is inserted in the same transaction, so
+ * the write never needs a second pooled connection.
+ * {@link #rebuild()} recomputes everything from bookings and blocks, with properties partitioned across a fork-join
+ * pool. Each partition locks its properties through {@link PropertyLockService}, as every booking and block write
+ * (including cancel and delete) does, so a write either completes before a partition reads or waits until it has
+ * replaced its rows. For {@code OPTIMISTIC} properties both sides bump the property's lock counter instead, and
+ * whichever commits second fails. With the night table writers take no lock, and writes made during a rebuild can be
+ * lost.
+ */
+@Slf4j
+@Service
+public class OccupancyRollupService implements SmartInitializingSingleton {
+
+    /** Properties rebuilt per transaction; each is locked, so this also bounds how long writers wait. */
+    private static final int REBUILD_CHUNK = 64;
+    private static final Comparator<MonthKey> MONTH_KEY_ORDER =
+            Comparator.comparing(MonthKey::propertyId).thenComparing(MonthKey::monthStart);
+
+    private final OccupancyRollupRepository rollupRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyLockService propertyLockService;
+    private final PlatformTransactionManager transactionManager;
+    private final int rebuildParallelism;
+
+    public OccupancyRollupService(OccupancyRollupRepository rollupRepository,
+                                  BookingRepository bookingRepository,
+                                  BlockRepository blockRepository,
+                                  PropertyRepository propertyRepository,
+                                  PropertyLockService propertyLockService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${booking.rollup.rebuild-parallelism:4}") int rebuildParallelism) {
+        this.rollupRepository = rollupRepository;
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.propertyRepository = propertyRepository;
+        this.propertyLockService = propertyLockService;
+        this.transactionManager = transactionManager;
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    /** Fills an empty rollup from existing bookings and blocks, e.g. right after the table was introduced. */
+    @Override
+    public void afterSingletonsInstantiated() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        Boolean empty = transactionTemplate.execute(status -> rollupRepository.count() == 0
+                && (bookingRepository.count() > 0 || blockRepository.count() > 0));
+        if (Boolean.TRUE.equals(empty)) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        OccupiedInterval released = event.released();
+        OccupiedInterval occupied = event.occupied();
+        if (Objects.equals(released, occupied)) {
+            return;
+        }
+        // Ordered, so concurrent writers always update rows in the same order
+        Map<MonthKey, int[]> deltas = new TreeMap<>(MONTH_KEY_ORDER);
+        if (released != null) {
+            addNights(deltas, released.propertyId(), released.kind(), released.startDate(), released.endDate(), -1);
+        }
+        if (occupied != null) {
+            addNights(deltas, occupied.propertyId(), occupied.kind(), occupied.startDate(), occupied.endDate(), 1);
+        }
+        deltas.forEach((key, nights) -> {
+            if (nights[0] != 0 || nights[1] != 0) {
+                increment(key, nights[0], nights[1]);
+            }
+        });
+    }
+
+    /** Monthly occupancy of one property for the months from {@code from} to {@code to}, both inclusive. */
+    @Transactional(readOnly = true)
+    public PropertyOccupancyRatesDTO getPropertyRates(Long propertyId, YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new PropertyNotFoundException(propertyId);
+        }
+        Map<LocalDate, OccupancyRollup> rows = rollupRepository
+                .findByPropertyIdAndMonthStartBetweenOrderByMonthStart(propertyId, from.atDay(1), to.atDay(1)).stream()
+                .collect(Collectors.toMap(OccupancyRollup::getMonthStart, Function.identity()));
+        List<OccupancyRateDTO> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            OccupancyRollup row = rows.get(month.atDay(1));
+            months.add(OccupancyRateDTO.of(month, month.lengthOfMonth(),
+                    row == null ? 0 : row.getBookedNights(), row == null ? 0 : row.getBlockedNights()));
+        }
+        return new PropertyOccupancyRatesDTO(propertyId, months);
+    }
+
+    /** Monthly occupancy per property type, for every type that has properties, in enum order. */
+    @Transactional(readOnly = true)
+    public List<TypeOccupancyRatesDTO> getTypeRates(YearMonth from, YearMonth to) {
+        validateRange(from, to);
+        Map<PropertyType, Map<LocalDate, RollupTotals>> totals = new EnumMap<>(PropertyType.class);
+        rollupRepository.sumByTypeAndMonth(from.atDay(1), to.atDay(1)).forEach(row -> totals
+                .computeIfAbsent(row.getType(), type -> new HashMap<>()).put(row.getMonthStart(), row));
+
+        return propertyRepository.countByType().stream()
+                .sorted(Comparator.comparing(PropertyTypeCount::getType))
+                .map(count -> {
+                    Map<LocalDate, RollupTotals> byMonth = totals.getOrDefault(count.getType(), Map.of());
+                    List<OccupancyRateDTO> months = new ArrayList<>();
+                    for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                        RollupTotals row = byMonth.get(month.atDay(1));
+                        months.add(OccupancyRateDTO.of(month, count.getProperties() * month.lengthOfMonth(),
+                                row == null ? 0 : row.getBookedNights(), row == null ? 0 : row.getBlockedNights()));
+                    }
+                    return new TypeOccupancyRatesDTO(count.getType(), count.getProperties(), months);
+                })
+                .toList();
+    }
+
+    /**
+     * Recomputes the rollup of every property from its bookings and blocks. Properties are split in halves on a
+     * fork-join pool down to chunks of {@value #REBUILD_CHUNK}; each chunk locks its properties with
+     * {@link PropertyLockService#lockAllExisting}, reads their ranges with one query and replaces their rows in its
+     * own transaction.
+     */
+    public RollupRebuildDTO rebuild() {
+        long started = System.nanoTime();
+        List<Long> propertyIds = propertyRepository.findIdsByType(null).stream().sorted().toList();
+        ForkJoinPool pool = new ForkJoinPool(rebuildParallelism);
+        int rows;
+        try {
+            rows = pool.invoke(new RebuildTask(propertyIds));
+        } finally {
+            pool.shutdown();
+        }
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Occupancy rollup rebuilt for {} properties: {} rows in {} ms", propertyIds.size(), rows, durationMs);
+        return new RollupRebuildDTO(propertyIds.size(), rows, durationMs);
+    }
+
+    private void increment(MonthKey key, int bookedNights, int blockedNights) {
+        if (rollupRepository.increment(key.propertyId(), key.monthStart(), bookedNights, blockedNights) == 0) {
+            insertRow(key, bookedNights, blockedNights);
+        }
+    }
+
+    /**
+     * Inserts a missing month row in the writing transaction. Pessimistic and striped property locks keep other
+     * writers of the property from inserting the same row meanwhile; {@code OPTIMISTIC} and night-table writers are not
+     * excluded and can race on the unique key. The loser gets an {@link OptimisticLockingFailureException}, which the
+     * writing services retry in a new transaction, where the row exists.
+     */
+    private void insertRow(MonthKey key, int bookedNights, int blockedNights) {
+        try {
+            rollupRepository.saveAndFlush(OccupancyRollup.of(key.propertyId(), key.monthStart(), bookedNights, blockedNights));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Rollup row for property {} and {} was created concurrently", key.propertyId(), key.monthStart());
+            throw new OptimisticLockingFailureException("Rollup row for property " + key.propertyId() + " and "
+                    + key.monthStart() + " was created concurrently", e);
+        }
+    }
+
+    private int rebuildChunk(List<Long> propertyIds) {
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+            // Same lock order as group bookings and cross-property updates, see PropertyLockService.lockAll
+            List<Long> locked = List.copyOf(propertyLockService.lockAllExisting(propertyIds).keySet());
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            Map<MonthKey, int[]> nights = new TreeMap<>(MONTH_KEY_ORDER);
+            bookingRepository.findAllOccupancy(locked, List.of(BOOKED, REBOOKED)).forEach(span -> addNights(
+                    nights, span.getPropertyId(), span.getKind(), span.getStartDate(), span.getEndDate(), 1));
+            rollupRepository.deleteByPropertyIds(locked);
+            List<OccupancyRollup> rollups = nights.entrySet().stream()
+                    .map(entry -> OccupancyRollup.of(entry.getKey().propertyId(), entry.getKey().monthStart(),
+                            entry.getValue()[0], entry.getValue()[1]))
+                    .toList();
+            rollupRepository.saveAll(rollups);
+            return rollups.size();
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private void validateRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException("'from' must not be after 'to'");
+        }
+    }
+
+    /** Adds {@code sign} times the nights of {@code [startDate, endDate)} to each month they fall in. */
+    private static void addNights(Map<MonthKey, int[]> nights, Long propertyId, OccupancyKind kind,
+                                  LocalDate startDate, LocalDate endDate, int sign) {
+        int slot = kind == OccupancyKind.BOOKING ? 0 : 1;
+        LocalDate night = startDate;
+        while (night.isBefore(endDate)) {
+            LocalDate monthStart = night.withDayOfMonth(1);
+            LocalDate nextMonth = monthStart.plusMonths(1);
+            LocalDate stop = endDate.isBefore(nextMonth) ? endDate : nextMonth;
+            nights.computeIfAbsent(new MonthKey(propertyId, monthStart), key -> new int[2])[slot] +=
+                    sign * (int) (stop.toEpochDay() - night.toEpochDay());
+            night = stop;
+        }
+    }
+
+    private record MonthKey(Long propertyId, LocalDate monthStart) {
+    }
+
+    /** Splits the (sorted) property ids in halves until a chunk is small enough to rebuild in one transaction. */
+    private final class RebuildTask extends RecursiveTask<Integer> {
+
+        private final List<Long> propertyIds;
+
+        RebuildTask(List<Long> propertyIds) {
+            this.propertyIds = propertyIds;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (propertyIds.size() <= REBUILD_CHUNK) {
+                return rebuildChunk(propertyIds);
+            }
+            int middle = propertyIds.size() / 2;
+            RebuildTask left = new RebuildTask(propertyIds.subList(0, middle));
+            RebuildTask right = new RebuildTask(propertyIds.subList(middle, propertyIds.size()));
+            left.fork();
+            return right.compute() + left.join();
+        }
+    }
+}
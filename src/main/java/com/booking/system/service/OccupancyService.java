@@ -0,0 +1,87 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.PropertyOccupancyDTO;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.enumeration.OccupancyState;
+import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.OccupancySpan;
+import com.booking.system.repository.PropertyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Month-view occupancy for dashboards: the state of every night of a range, for one or many properties, built from a
+ * single query over bookings and blocks and returned run-length encoded. Nights are free unless an active booking or
+ * a block covers them; a block wins if both do.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OccupancyService {
+
+    private final BookingRepository bookingRepository;
+    private final PropertyRepository propertyRepository;
+
+    /**
+     * Occupancy of each property, in the order given, for {@code months} months starting at {@code from}
+     * (the first day of the current month when null).
+     */
+    public List<PropertyOccupancyDTO> get(List<Long> propertyIds, LocalDate from, int months) {
+        LocalDate start = from != null ? from : LocalDate.now().withDayOfMonth(1);
+        LocalDate end = start.plusMonths(months);
+        int days = (int) ChronoUnit.DAYS.between(start, end);
+        log.debug("Computing occupancy of {} properties from {} to {}", propertyIds.size(), start, end);
+
+        Map<Long, OccupancyState[]> nightsByProperty = new LinkedHashMap<>();
+        for (Long propertyId : propertyIds) {
+            nightsByProperty.computeIfAbsent(propertyId, id -> {
+                OccupancyState[] nights = new OccupancyState[days];
+                Arrays.fill(nights, OccupancyState.FREE);
+                return nights;
+            });
+        }
+        ensureExist(nightsByProperty.keySet());
+
+        for (OccupancySpan span : bookingRepository.findOccupancy(nightsByProperty.keySet(), start, end, List.of(BOOKED, REBOOKED))) {
+            OccupancyState state = span.getKind() == OccupancyKind.BLOCK ? OccupancyState.BLOCKED : OccupancyState.BOOKED;
+            OccupancyState[] nights = nightsByProperty.get(span.getPropertyId());
+            int first = (int) Math.max(0, ChronoUnit.DAYS.between(start, span.getStartDate()));
+            int last = (int) Math.min(days, ChronoUnit.DAYS.between(start, span.getEndDate()));
+            for (int night = first; night < last; night++) {
+                if (state.compareTo(nights[night]) > 0) {
+                    nights[night] = state;
+                }
+            }
+        }
+
+        return nightsByProperty.entrySet().stream()
+                .map(entry -> PropertyOccupancyDTO.of(entry.getKey(), start, end, entry.getValue()))
+                .toList();
+    }
+
+    private void ensureExist(Set<Long> propertyIds) {
+        Set<Long> existing = new HashSet<>(propertyRepository.findExistingIds(propertyIds));
+        propertyIds.stream()
+                .filter(id -> !existing.contains(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new PropertyNotFoundException(id);
+                });
+    }
+}
@@ -0,0 +1,65 @@
+package com.booking.system.service;
+
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupiedInterval;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Applies an {@link OccupancyChangedEvent} to an in-memory view in step with the writing transaction.
+ * <p>
+ * The newly occupied range is applied in {@code beforeCommit}, before the database commit, and undone once the
+ * transaction completes without committing. For pessimistic and striped properties the property lock is still held
+ * then, but an {@code OPTIMISTIC} writer's version check and the commit itself can still fail, so the range may belong
+ * to a write that is about to roll back. The released range is only dropped after a successful commit.
+ * A view therefore never shows committed dates as free, but may briefly show dates as taken that are not (or no
+ * longer) taken in the database; readers that must not act on that, such as the pre-check in
+ * {@link AvailabilityService}, confirm a hit with a query.
+ */
+final class OccupancySynchronization {
+
+    private OccupancySynchronization() {
+    }
+
+    static void apply(OccupancyChangedEvent event, Consumer<OccupiedInterval> occupy, Consumer<OccupiedInterval> release) {
+        OccupiedInterval released = event.released();
+        OccupiedInterval occupied = event.occupied();
+        if (Objects.equals(released, occupied)) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acceptIfPresent(release, released);
+            acceptIfPresent(occupy, occupied);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean occupiedApplied;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                acceptIfPresent(occupy, occupied);
+                occupiedApplied = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    acceptIfPresent(release, released);
+                } else if (occupiedApplied) {
+                    acceptIfPresent(release, occupied);
+                }
+            }
+        });
+    }
+
+    private static void acceptIfPresent(Consumer<OccupiedInterval> consumer, OccupiedInterval interval) {
+        if (interval != null) {
+            consumer.accept(interval);
+        }
+    }
+}
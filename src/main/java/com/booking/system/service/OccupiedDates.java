@@ -0,0 +1,28 @@
+package com.booking.system.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable set of non-overlapping date ranges of one property, used to decide conflicts in memory
+ * while a batch of writes is processed under a single property lock. Same semantics as
+ * {@code hasOverlap}: end dates are exclusive, so adjacent ranges don't conflict.
+ */
+final class OccupiedDates {
+
+    private final TreeMap<LocalDate, LocalDate> endByStart = new TreeMap<>();
+
+    boolean overlaps(LocalDate startDate, LocalDate endDate) {
+        Map.Entry<LocalDate, LocalDate> before = endByStart.floorEntry(startDate);
+        if (before != null && before.getValue().isAfter(startDate)) {
+            return true;
+        }
+        Map.Entry<LocalDate, LocalDate> after = endByStart.higherEntry(startDate);
+        return after != null && after.getKey().isBefore(endDate);
+    }
+
+    void add(LocalDate startDate, LocalDate endDate) {
+        endByStart.merge(startDate, endDate, (existing, added) -> existing.isAfter(added) ? existing : added);
+    }
+}
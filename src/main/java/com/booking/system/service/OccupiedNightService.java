@@ -0,0 +1,122 @@
+package com.booking.system.service;
+
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.enumeration.OverlapEnforcement;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupiedInterval;
+import com.booking.system.model.OccupiedNight;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.OccupiedNightRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Keeps the {@code occupied_night} table in step with bookings and blocks when overlap enforcement is
+ * {@link OverlapEnforcement#NIGHT_TABLE}. In that mode writers take no property lock and skip the overlap
+ * queries: each write inserts one row per night inside its own transaction, and the unique (property, night)
+ * key rejects the loser of any race. The violation surfaces at flush and is answered with 409 Conflict.
+ */
+@Slf4j
+@Service
+public class OccupiedNightService implements SmartInitializingSingleton {
+
+    private final OccupiedNightRepository occupiedNightRepository;
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ConflictMetrics conflictMetrics;
+    private final boolean enabled;
+
+    public OccupiedNightService(OccupiedNightRepository occupiedNightRepository,
+                                BookingRepository bookingRepository,
+                                BlockRepository blockRepository,
+                                PlatformTransactionManager transactionManager,
+                                ConflictMetrics conflictMetrics,
+                                @Value("${booking.overlap.enforcement:lock-and-check}") OverlapEnforcement enforcement) {
+        this.occupiedNightRepository = occupiedNightRepository;
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.transactionManager = transactionManager;
+        this.conflictMetrics = conflictMetrics;
+        this.enabled = enforcement == OverlapEnforcement.NIGHT_TABLE;
+    }
+
+    /** Whether overlaps are rejected by the night table instead of lock-then-check. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rebuilds the night table from current bookings and blocks before the application serves requests. The table
+     * is only maintained in this mode, so rows left from an earlier night-table run are stale once writes have gone
+     * through lock-and-check: they would reject dates freed since and miss stays booked since, letting overlapping
+     * stays through. Every row is therefore dropped and the nights from today onward rewritten. Switch all nodes
+     * sharing a database at once; a node still writing in the other mode leaves the table incomplete again.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            occupiedNightRepository.deleteAllInBatch();
+            LocalDate today = LocalDate.now();
+            List<OccupiedNight> nights = new ArrayList<>();
+            bookingRepository.findRangesEndingAfter(List.of(BOOKED, REBOOKED), today)
+                    .forEach(range -> addNights(nights, OccupiedInterval.of(OccupancyKind.BOOKING, range), today));
+            blockRepository.findRangesEndingAfter(today)
+                    .forEach(range -> addNights(nights, OccupiedInterval.of(OccupancyKind.BLOCK, range), today));
+            occupiedNightRepository.saveAll(nights);
+            log.info("Occupied night table rebuilt with {} nights", nights.size());
+        });
+    }
+
+    @EventListener
+    public void onOccupancyChanged(OccupancyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        OccupiedInterval released = event.released();
+        OccupiedInterval occupied = event.occupied();
+        if (Objects.equals(released, occupied)) {
+            return;
+        }
+        if (released != null) {
+            occupiedNightRepository.deleteByOwner(released.kind(), released.id());
+        }
+        if (occupied != null) {
+            List<OccupiedNight> nights = new ArrayList<>();
+            addNights(nights, occupied, occupied.startDate());
+            try {
+                occupiedNightRepository.saveAllAndFlush(nights);
+            } catch (DataIntegrityViolationException e) {
+                conflictMetrics.increment(occupied.propertyId(), occupied.kind());
+                throw e;
+            }
+            log.debug("Occupied {} nights of property {} for {} {}",
+                    nights.size(), occupied.propertyId(), occupied.kind(), occupied.id());
+        }
+    }
+
+    private void addNights(List<OccupiedNight> nights, OccupiedInterval interval, LocalDate from) {
+        LocalDate night = interval.startDate().isBefore(from) ? from : interval.startDate();
+        for (; night.isBefore(interval.endDate()); night = night.plusDays(1)) {
+            nights.add(OccupiedNight.of(interval.kind(), interval.id(), interval.propertyId(), night));
+        }
+    }
+}
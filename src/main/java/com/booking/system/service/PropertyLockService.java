@@ -0,0 +1,247 @@
+package com.booking.system.service;
+
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.exception.PropertyLockTimeoutException;
+import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.model.Property;
+import com.booking.system.repository.PropertyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes concurrent booking and block writes on one property, using the property's {@link PropertyLockMode}:
+ * <ul>
+ *     <li>{@code PESSIMISTIC} — {@code SELECT ... FOR UPDATE} on the property row, held until commit.</li>
+ *     <li>{@code OPTIMISTIC} — no lock; the property's lock counter is read now and bumped at commit if unchanged,
+ *     so of two writers that both passed the overlap check only the first commits and the other fails and is retried
+ *     by the caller. The counter is not the property's {@code @Version}, so its ETag stays put.</li>
+ *     <li>{@code STRIPED} — an in-process lock picked by property id, held until the transaction completes.
+ *     Only safe with a single application node, so {@code booking.locking.multi-node} turns it back into
+ *     {@code PESSIMISTIC}.</li>
+ * </ul>
+ * When the night table enforces overlaps ({@link OccupiedNightService}) no lock is taken at all.
+ * <p>
+ * Waiting for a pessimistic or striped lock is bounded by {@code booking.locking.wait-timeout}; {@code 0} fails at
+ * once ({@code NOWAIT}). Once it runs out, {@link PropertyLockTimeoutException} is thrown, which the writing services
+ * retry with jittered backoff in a new transaction and then answer with {@code 503}. The row lock's timeout is passed
+ * as the JPA lock timeout hint and rendered by the dialect; on databases without a per-statement wait the session's
+ * own lock timeout applies, which {@code LockTimeoutConfig} sets to the same value on H2.
+ * <p>
+ * Must be called inside the writing transaction. Time spent acquiring the lock is recorded as
+ * {@code booking.property.lock.wait}, tagged by mode, and waits that ran out as {@code booking.property.lock.timeouts}.
+ */
+@Slf4j
+@Service
+public class PropertyLockService {
+
+    private final PropertyRepository propertyRepository;
+    private final EntityManager entityManager;
+    private final OccupiedNightService occupiedNightService;
+    private final MeterRegistry meterRegistry;
+    private final boolean multiNode;
+    private final Duration waitTimeout;
+    private final Map<String, Object> lockHints;
+    private final ReentrantLock[] stripes;
+
+    public PropertyLockService(PropertyRepository propertyRepository,
+                               EntityManager entityManager,
+                               OccupiedNightService occupiedNightService,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.locking.multi-node:false}") boolean multiNode,
+                               @Value("${booking.locking.stripes:256}") int stripes,
+                               @Value("${booking.locking.wait-timeout:2s}") Duration waitTimeout) {
+        this.propertyRepository = propertyRepository;
+        this.entityManager = entityManager;
+        this.occupiedNightService = occupiedNightService;
+        this.meterRegistry = meterRegistry;
+        this.multiNode = multiNode;
+        this.waitTimeout = waitTimeout;
+        this.lockHints = Map.of("jakarta.persistence.lock.timeout", waitTimeout.toMillis());
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** Loads the property and excludes concurrent writers for it until the current transaction ends. */
+    public Property lock(Long propertyId) {
+        if (occupiedNightService.isEnabled()) {
+            return findProperty(propertyId);
+        }
+        PropertyLockMode mode = propertyRepository.findLockModeById(propertyId)
+                .orElseThrow(() -> new PropertyNotFoundException(propertyId));
+        if (mode == PropertyLockMode.STRIPED && multiNode) {
+            mode = PropertyLockMode.PESSIMISTIC;
+        }
+        log.debug("Locking property {} with mode {}", propertyId, mode);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return acquire(propertyId, mode);
+        } catch (PropertyLockTimeoutException e) {
+            Counter.builder("booking.property.lock.timeouts")
+                    .description("Writes that gave up waiting for the property lock")
+                    .tag("mode", mode.name())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Gave up waiting {} for the lock of property {}", waitTimeout, propertyId);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("booking.property.lock.wait")
+                    .description("Time spent acquiring the property lock")
+                    .tag("mode", mode.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Locks several properties for one transaction, each once, always in the same global order: by lock stripe, then
+     * by id. Every caller that holds more than one property lock at a time goes through here, so two of them locking
+     * overlapping sets of properties wait on each other in one direction only and cannot deadlock. For row locks any
+     * fixed order would do; the stripe comes first because ids sharing a stripe share its lock. Returns the properties
+     * by id; throws {@link PropertyNotFoundException} for the first one that doesn't exist.
+     */
+    public Map<Long, Property> lockAll(Collection<Long> propertyIds) {
+        return lockAll(propertyIds, false);
+    }
+
+    /** {@link #lockAll}, leaving out properties that don't exist (any more). */
+    public Map<Long, Property> lockAllExisting(Collection<Long> propertyIds) {
+        return lockAll(propertyIds, true);
+    }
+
+    private Map<Long, Property> lockAll(Collection<Long> propertyIds, boolean skipMissing) {
+        Map<Long, Property> locked = new LinkedHashMap<>();
+        propertyIds.stream()
+                .distinct()
+                .sorted(Comparator.<Long>comparingInt(this::stripeIndex).thenComparingLong(Long::longValue))
+                .forEach(propertyId -> {
+                    try {
+                        locked.put(propertyId, lock(propertyId));
+                    } catch (PropertyNotFoundException e) {
+                        if (!skipMissing) {
+                            throw e;
+                        }
+                        log.debug("Property {} no longer exists, not locking it", propertyId);
+                    }
+                });
+        return locked;
+    }
+
+    private Property acquire(Long propertyId, PropertyLockMode mode) {
+        return switch (mode) {
+            case PESSIMISTIC -> lockRow(propertyId);
+            case OPTIMISTIC -> {
+                checkLockVersionAtCommit(propertyId);
+                yield findProperty(propertyId);
+            }
+            case STRIPED -> {
+                lockStripeUntilCompletion(propertyId);
+                yield findProperty(propertyId);
+            }
+        };
+    }
+
+    /** {@code SELECT ... FOR UPDATE} on the property row, waiting at most {@code waitTimeout}. */
+    private Property lockRow(Long propertyId) {
+        Property property;
+        try {
+            property = entityManager.find(Property.class, propertyId, LockModeType.PESSIMISTIC_WRITE, lockHints);
+        } catch (LockTimeoutException | PessimisticLockException e) {
+            throw new PropertyLockTimeoutException(propertyId, waitTimeout);
+        }
+        if (property == null) {
+            throw new PropertyNotFoundException(propertyId);
+        }
+        return property;
+    }
+
+    private Property findProperty(Long propertyId) {
+        return propertyRepository.findById(propertyId).orElseThrow(() -> new PropertyNotFoundException(propertyId));
+    }
+
+    private int stripeIndex(Long propertyId) {
+        return Math.floorMod(Long.hashCode(propertyId * 0x9E3779B97F4A7C15L), stripes.length);
+    }
+
+    /** Remembers the property's lock counter, once per transaction, to be bumped by {@link LockVersionCheck}. */
+    private void checkLockVersionAtCommit(Long propertyId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Optimistic property locks require an active transaction");
+        }
+        LockVersionCheck check = TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(LockVersionCheck.class::isInstance)
+                .map(LockVersionCheck.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    LockVersionCheck registered = new LockVersionCheck();
+                    TransactionSynchronizationManager.registerSynchronization(registered);
+                    return registered;
+                });
+        if (!check.lockVersions.containsKey(propertyId)) {
+            long lockVersion = propertyRepository.findLockVersionById(propertyId)
+                    .orElseThrow(() -> new PropertyNotFoundException(propertyId));
+            check.lockVersions.put(propertyId, lockVersion);
+        }
+    }
+
+    /**
+     * Bumps the lock counters read by this transaction right before it commits, in the order they were locked. One
+     * that changed since means another writer committed first: the transaction rolls back with an optimistic locking
+     * failure.
+     */
+    private final class LockVersionCheck implements TransactionSynchronization {
+
+        private final Map<Long, Long> lockVersions = new LinkedHashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            lockVersions.forEach((propertyId, lockVersion) -> {
+                if (propertyRepository.incrementLockVersion(propertyId, lockVersion) == 0) {
+                    throw new ObjectOptimisticLockingFailureException(Property.class, propertyId);
+                }
+            });
+        }
+    }
+
+    private void lockStripeUntilCompletion(Long propertyId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Striped property locks require an active transaction");
+        }
+        ReentrantLock stripe = stripes[stripeIndex(propertyId)];
+        try {
+            if (!stripe.tryLock(waitTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new PropertyLockTimeoutException(propertyId, waitTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PropertyLockTimeoutException(propertyId, waitTimeout);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+}
@@ -1,18 +1,31 @@
 package com.booking.system.service;
 
+import com.booking.system.config.CacheConfig;
+import com.booking.system.dto.CursorPageDTO;
 import com.booking.system.dto.PropertyRequestDTO;
 import com.booking.system.dto.PropertyResponseDTO;
+import com.booking.system.event.PropertyChangedEvent;
+import com.booking.system.enumeration.PropertyType;
 import com.booking.system.exception.PropertyNotFoundException;
 import com.booking.system.model.Property;
+import com.booking.system.repository.OccupancyRollupRepository;
 import com.booking.system.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -20,6 +33,10 @@ import org.springframework.transaction.annotation.Transactional;
 public class PropertyService {
 
     private final PropertyRepository propertyRepository;
+    private final OccupancyRollupRepository occupancyRollupRepository;
+    private final OccupancyCalendar occupancyCalendar;
+    private final DateValidationService dateValidationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PropertyResponseDTO create(PropertyRequestDTO propertyRequestDTO) {
         log.info("Creating property with name: {}", propertyRequestDTO.getName());
@@ -34,6 +51,38 @@ public class PropertyService {
                 .map(PropertyResponseDTO::of);
     }
 
+    /**
+     * Finds properties with no active booking or block in the date range. Candidate ids come from one query,
+     * are filtered against the in-memory occupancy calendar, and only the requested page is loaded.
+     */
+    @Transactional(readOnly = true)
+    public Page<PropertyResponseDTO> findAvailable(LocalDate startDate, LocalDate endDate, PropertyType type, int page, int size) {
+        log.debug("Searching {} properties available {} - {}, page {} with size {}",
+                type == null ? "all" : type, startDate, endDate, page, size);
+        dateValidationService.validate(startDate, endDate);
+        List<Long> available = occupancyCalendar.findAvailable(propertyRepository.findIdsByType(type), startDate, endDate);
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+        List<Long> pageIds = available.stream()
+                .skip(pageRequest.getOffset())
+                .limit(size)
+                .toList();
+        List<PropertyResponseDTO> content = propertyRepository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Property::getId).reversed())
+                .map(PropertyResponseDTO::of)
+                .toList();
+        return new PageImpl<>(content, pageRequest, available.size());
+    }
+
+    /** Keyset alternative to {@link #getAll}: the page of properties older than {@code after}, or the newest when null. */
+    public CursorPageDTO<PropertyResponseDTO> getAfter(Long after, int size) {
+        log.debug("Fetching properties after {} with size {}", after, size);
+        return CursorPageDTO.of(
+                propertyRepository.findByIdLessThan(after == null ? Long.MAX_VALUE : after,
+                        PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))),
+                PropertyResponseDTO::of, Property::getId);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PROPERTIES, key = "#propertyId")
     public PropertyResponseDTO get(Long propertyId) {
         log.debug("Fetching property with id {}", propertyId);
         Property property = propertyRepository.findById(propertyId)
@@ -41,21 +90,33 @@ public class PropertyService {
         return PropertyResponseDTO.of(property);
     }
 
-    public PropertyResponseDTO update(PropertyRequestDTO propertyRequestDTO, Long id) {
+    /** Evicts the cached property; the calendar feed, which shows its name, is evicted by {@link CalendarService}. */
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#id")
+    public PropertyResponseDTO update(PropertyRequestDTO propertyRequestDTO, Long id, Long expectedVersion) {
         log.info("Updating property {}", id);
         Property propertyDB = propertyRepository.findById(id)
                 .orElseThrow(() -> new PropertyNotFoundException(id));
+        Versions.ensureMatches(expectedVersion, propertyDB.getVersion());
         propertyDB.setName(propertyRequestDTO.getName());
         propertyDB.setType(propertyRequestDTO.getType());
+        if (propertyRequestDTO.getLockMode() != null) {
+            propertyDB.setLockMode(propertyRequestDTO.getLockMode());
+        }
+        propertyRepository.flush();
+        eventPublisher.publishEvent(new PropertyChangedEvent(id));
         log.info("Property {} updated successfully", id);
         return PropertyResponseDTO.of(propertyDB);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PROPERTIES, key = "#propertyId")
     public void delete(Long propertyId) {
         log.info("Deleting property {}", propertyId);
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new PropertyNotFoundException(propertyId));
+        // Only empty months can be left once the property has no bookings or blocks
+        occupancyRollupRepository.deleteByPropertyIds(List.of(propertyId));
         propertyRepository.delete(property);
+        eventPublisher.publishEvent(new PropertyChangedEvent(propertyId));
         log.info("Property {} deleted successfully", propertyId);
     }
 }
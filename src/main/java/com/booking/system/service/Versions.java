@@ -0,0 +1,17 @@
+package com.booking.system.service;
+
+import com.booking.system.exception.PreconditionFailedException;
+
+/** Checks an {@code If-Match} version against the loaded entity before a conditional write. */
+final class Versions {
+
+    private Versions() {
+    }
+
+    /** Throws unless {@code expected} is null (unconditional write) or equals the entity's current version. */
+    static void ensureMatches(Long expected, Long current) {
+        if (expected != null && !expected.equals(current)) {
+            throw new PreconditionFailedException(expected, current);
+        }
+    }
+}
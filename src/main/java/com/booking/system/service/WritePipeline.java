@@ -0,0 +1,392 @@
+package com.booking.system.service;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BlockResponseDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.BookingResponseDTO;
+import com.booking.system.dto.WriteTicketDTO;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.event.OccupancyChangedEvent;
+import com.booking.system.event.OccupancyChangedEvent.Snapshot;
+import com.booking.system.exception.AdmissionRejectedException;
+import com.booking.system.exception.DateAlreadyBookedException;
+import com.booking.system.exception.GuestNotFoundException;
+import com.booking.system.exception.PropertyNotFoundException;
+import com.booking.system.exception.WriteTicketNotFoundException;
+import com.booking.system.model.Block;
+import com.booking.system.model.Booking;
+import com.booking.system.model.Guest;
+import com.booking.system.model.Property;
+import com.booking.system.repository.BlockRepository;
+import com.booking.system.repository.BookingRepository;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.OccupiedRange;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+
+/**
+ * Asynchronous write mode: booking and block creates are queued per property and applied by a single writer per
+ * property, one batch at a time. A batch takes the property lock once, reads the property's bookings and blocks in the
+ * batch's date span with one query each, decides every queued request's conflicts in memory (also against the requests
+ * before it in the batch) and commits all accepted rows in one transaction. Requests therefore never wait on the
+ * property lock themselves, and under contention the lock and the overlap queries are paid once per batch instead of
+ * once per request. The lock is still taken so synchronous writers and other nodes stay excluded.
+ * <p>
+ * Each request gets a future, completed after the batch commits with the created booking or block, or with the
+ * same exception the synchronous {@link BookingService} / {@link BlockService} call would have thrown. If a batch
+ * fails as a whole its requests are replayed one by one through those services, so one bad request never fails the
+ * others. Futures are also kept as tickets for {@code booking.pipeline.ticket-ttl}, for clients that poll.
+ * <p>
+ * At most {@code booking.pipeline.writers} properties are written at once (each holds a database connection), and a
+ * property accepts at most {@code max-queue-per-property} queued requests before rejecting with {@code 429}.
+ */
+@Slf4j
+@Service
+public class WritePipeline {
+
+    private final BookingRepository bookingRepository;
+    private final BlockRepository blockRepository;
+    private final GuestRepository guestRepository;
+    private final PropertyLockService propertyLockService;
+    private final DateValidationService dateValidationService;
+    private final ConflictMetrics conflictMetrics;
+    private final BookingService bookingService;
+    private final BlockService blockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxQueuePerProperty;
+    private final Duration retryAfter;
+    private final ExecutorService writers;
+    private final ConcurrentMap<Long, PropertyQueue> queues = new ConcurrentHashMap<>();
+    private final Cache<String, Ticket> tickets;
+    private final DistributionSummary batchSizes;
+
+    public WritePipeline(BookingRepository bookingRepository,
+                         BlockRepository blockRepository,
+                         GuestRepository guestRepository,
+                         PropertyLockService propertyLockService,
+                         DateValidationService dateValidationService,
+                         ConflictMetrics conflictMetrics,
+                         BookingService bookingService,
+                         BlockService blockService,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${booking.pipeline.writers:4}") int writers,
+                         @Value("${booking.pipeline.batch-size:100}") int batchSize,
+                         @Value("${booking.pipeline.max-queue-per-property:1000}") int maxQueuePerProperty,
+                         @Value("${booking.pipeline.ticket-ttl:10m}") Duration ticketTtl,
+                         @Value("${booking.admission.retry-after:1s}") Duration retryAfter) {
+        this.bookingRepository = bookingRepository;
+        this.blockRepository = blockRepository;
+        this.guestRepository = guestRepository;
+        this.propertyLockService = propertyLockService;
+        this.dateValidationService = dateValidationService;
+        this.conflictMetrics = conflictMetrics;
+        this.bookingService = bookingService;
+        this.blockService = blockService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxQueuePerProperty = maxQueuePerProperty;
+        this.retryAfter = retryAfter;
+        AtomicInteger threads = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writers,
+                task -> Thread.ofPlatform().name("property-writer-" + threads.incrementAndGet()).daemon().unstarted(task));
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTtl).build();
+        this.batchSizes = DistributionSummary.builder("booking.pipeline.batch.size")
+                .description("Requests committed together by a property writer")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a booking create. Dates are validated right away; everything else, including the property and guest
+     * lookups, is decided by the property's writer.
+     */
+    public CompletableFuture<BookingResponseDTO> submit(BookingRequestDTO request) {
+        dateValidationService.validate(request.getStartDate(), request.getEndDate());
+        return enqueue(new Command<>(OccupancyKind.BOOKING, request.getPropertyId(), request.getStartDate(),
+                request.getEndDate(), request, null));
+    }
+
+    /** Queues a block create, like {@link #submit(BookingRequestDTO)}. */
+    public CompletableFuture<BlockResponseDTO> submit(BlockRequestDTO request) {
+        dateValidationService.validate(request.getStartDate(), request.getEndDate());
+        return enqueue(new Command<>(OccupancyKind.BLOCK, request.getPropertyId(), request.getStartDate(),
+                request.getEndDate(), null, request));
+    }
+
+    /** Queues a booking create and returns a ticket to poll instead of the future. */
+    public WriteTicketDTO submitForTicket(BookingRequestDTO request) {
+        return ticket(OccupancyKind.BOOKING, submit(request).thenApply(BookingResponseDTO::getId));
+    }
+
+    /** Queues a block create and returns a ticket to poll instead of the future. */
+    public WriteTicketDTO submitForTicket(BlockRequestDTO request) {
+        return ticket(OccupancyKind.BLOCK, submit(request).thenApply(BlockResponseDTO::getId));
+    }
+
+    /**
+     * The ticket's current state. A failed write rethrows its exception, so it is answered like the synchronous call.
+     */
+    public WriteTicketDTO getTicket(String id) {
+        Ticket ticket = tickets.getIfPresent(id);
+        if (ticket == null) {
+            throw new WriteTicketNotFoundException(id);
+        }
+        if (!ticket.resourceId().isDone()) {
+            return WriteTicketDTO.pending(id, ticket.kind());
+        }
+        try {
+            return WriteTicketDTO.completed(id, ticket.kind(), ticket.resourceId().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    private WriteTicketDTO ticket(OccupancyKind kind, CompletableFuture<Long> resourceId) {
+        String id = UUID.randomUUID().toString();
+        tickets.put(id, new Ticket(kind, resourceId));
+        return WriteTicketDTO.pending(id, kind);
+    }
+
+    private <T> CompletableFuture<T> enqueue(Command<T> command) {
+        PropertyQueue queue = queues.computeIfAbsent(command.propertyId(), PropertyQueue::new);
+        if (queue.size.incrementAndGet() > maxQueuePerProperty) {
+            queue.size.decrementAndGet();
+            log.warn("Rejecting queued write for property {}: {} writes already queued", command.propertyId(), maxQueuePerProperty);
+            throw AdmissionRejectedException.propertyBusy(command.propertyId(), retryAfter);
+        }
+        queue.commands.add(command);
+        schedule(queue);
+        return command.result();
+    }
+
+    private void schedule(PropertyQueue queue) {
+        if (queue.scheduled.compareAndSet(false, true)) {
+            writers.execute(() -> drain(queue));
+        }
+    }
+
+    /** Writes one batch, then hands the property back to the pool so busy properties take turns. */
+    private void drain(PropertyQueue queue) {
+        List<Command<?>> batch = new ArrayList<>();
+        Command<?> command;
+        while (batch.size() < batchSize && (command = queue.commands.poll()) != null) {
+            batch.add(command);
+        }
+        queue.size.addAndGet(-batch.size());
+        try {
+            if (!batch.isEmpty()) {
+                write(queue.propertyId, batch);
+            }
+        } finally {
+            queue.scheduled.set(false);
+            if (!queue.commands.isEmpty()) {
+                schedule(queue);
+            }
+        }
+    }
+
+    private void write(Long propertyId, List<Command<?>> batch) {
+        log.debug("Writing batch of {} for property {}", batch.size(), propertyId);
+        List<Runnable> completions;
+        try {
+            completions = transactionTemplate.execute(status -> writeBatch(propertyId, batch));
+        } catch (PropertyNotFoundException e) {
+            batch.forEach(command -> command.result().completeExceptionally(e));
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} for property {} failed, writing its requests one by one: {}", batch.size(), propertyId, e.getMessage());
+            batch.forEach(this::writeAlone);
+            return;
+        }
+        batchSizes.record(batch.size());
+        // Only now is the batch committed and visible
+        completions.forEach(Runnable::run);
+    }
+
+    /** Applies the batch inside the transaction and returns how to complete each request's future once committed. */
+    private List<Runnable> writeBatch(Long propertyId, List<Command<?>> batch) {
+        Property property = propertyLockService.lock(propertyId);
+        LocalDate spanStart = batch.stream().map(Command::startDate).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate spanEnd = batch.stream().map(Command::endDate).max(Comparator.naturalOrder()).orElseThrow();
+        OccupiedDates booked = toOccupiedDates(
+                bookingRepository.findOverlappingRanges(propertyId, spanStart, spanEnd, List.of(BOOKED, REBOOKED)));
+        OccupiedDates blocked = toOccupiedDates(blockRepository.findOverlappingRanges(propertyId, spanStart, spanEnd));
+        Map<Long, Guest> guests = findGuests(batch);
+
+        List<Runnable> completions = new ArrayList<>();
+        List<Command<?>> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        List<Block> blocks = new ArrayList<>();
+        for (Command<?> command : batch) {
+            RuntimeException rejection = check(command, booked, blocked, guests);
+            if (rejection != null) {
+                completions.add(() -> command.result().completeExceptionally(rejection));
+                continue;
+            }
+            accepted.add(command);
+            if (command.kind() == OccupancyKind.BOOKING) {
+                booked.add(command.startDate(), command.endDate());
+                bookings.add(BookingRequestDTO.toBooking(command.booking(), property, guests.get(command.booking().getGuestId())));
+            } else {
+                blocked.add(command.startDate(), command.endDate());
+                blocks.add(BlockRequestDTO.toBlock(command.block(), property));
+            }
+        }
+
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        List<Block> savedBlocks = blockRepository.saveAll(blocks);
+        savedBookings.forEach(booking ->
+                eventPublisher.publishEvent(OccupancyChangedEvent.ofBooking(booking.getId(), null, Snapshot.of(booking))));
+        savedBlocks.forEach(block ->
+                eventPublisher.publishEvent(OccupancyChangedEvent.ofBlock(block.getId(), null, Snapshot.of(block))));
+        bookingRepository.flush();
+
+        int nextBooking = 0;
+        int nextBlock = 0;
+        for (Command<?> command : accepted) {
+            Object response = command.kind() == OccupancyKind.BOOKING
+                    ? BookingResponseDTO.of(savedBookings.get(nextBooking++))
+                    : BlockResponseDTO.of(savedBlocks.get(nextBlock++));
+            completions.add(() -> command.complete(response));
+        }
+        log.info("Wrote {} of {} queued writes for property {}", accepted.size(), batch.size(), propertyId);
+        return completions;
+    }
+
+    /** Why the command cannot be applied, with the synchronous path's exception and message, or null. */
+    private RuntimeException check(Command<?> command, OccupiedDates booked, OccupiedDates blocked, Map<Long, Guest> guests) {
+        LocalDate startDate = command.startDate();
+        LocalDate endDate = command.endDate();
+        if (command.kind() == OccupancyKind.BOOKING) {
+            if (booked.overlaps(startDate, endDate)) {
+                conflictMetrics.increment(command.propertyId(), OccupancyKind.BOOKING);
+                return new DateAlreadyBookedException("The requested dates are already booked for this property");
+            }
+            if (blocked.overlaps(startDate, endDate)) {
+                conflictMetrics.increment(command.propertyId(), OccupancyKind.BOOKING);
+                return new DateAlreadyBookedException("The requested dates are blocked for this property");
+            }
+            Long guestId = command.booking().getGuestId();
+            return guests.containsKey(guestId) ? null : new GuestNotFoundException(guestId);
+        }
+        if (booked.overlaps(startDate, endDate)) {
+            conflictMetrics.increment(command.propertyId(), OccupancyKind.BLOCK);
+            return new DateAlreadyBookedException("Cannot block dates that have active bookings");
+        }
+        if (blocked.overlaps(startDate, endDate)) {
+            conflictMetrics.increment(command.propertyId(), OccupancyKind.BLOCK);
+            return new DateAlreadyBookedException("The requested dates are already blocked for this property");
+        }
+        return null;
+    }
+
+    private Map<Long, Guest> findGuests(List<Command<?>> batch) {
+        Set<Long> guestIds = batch.stream()
+                .filter(command -> command.kind() == OccupancyKind.BOOKING)
+                .map(command -> command.booking().getGuestId())
+                .collect(Collectors.toSet());
+        Map<Long, Guest> guests = new HashMap<>();
+        if (!guestIds.isEmpty()) {
+            guestRepository.findAllById(guestIds).forEach(guest -> guests.put(guest.getId(), guest));
+        }
+        return guests;
+    }
+
+    /** Runs one request through the synchronous service, each in its own transaction. */
+    private void writeAlone(Command<?> command) {
+        try {
+            Object response = command.kind() == OccupancyKind.BOOKING
+                    ? bookingService.create(command.booking())
+                    : blockService.create(command.block());
+            command.complete(response);
+        } catch (RuntimeException e) {
+            command.result().completeExceptionally(e);
+        }
+    }
+
+    private OccupiedDates toOccupiedDates(List<OccupiedRange> ranges) {
+        OccupiedDates occupied = new OccupiedDates();
+        ranges.forEach(range -> occupied.add(range.getStartDate(), range.getEndDate()));
+        return occupied;
+    }
+
+    /** One queued create; exactly one of {@code booking} and {@code block} is set, matching {@code kind}. */
+    private record Command<T>(OccupancyKind kind, Long propertyId, LocalDate startDate, LocalDate endDate,
+                              BookingRequestDTO booking, BlockRequestDTO block, CompletableFuture<T> result) {
+
+        Command(OccupancyKind kind, Long propertyId, LocalDate startDate, LocalDate endDate,
+                BookingRequestDTO booking, BlockRequestDTO block) {
+            this(kind, propertyId, startDate, endDate, booking, block, new CompletableFuture<>());
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object response) {
+            result.complete((T) response);
+        }
+    }
+
+    private record Ticket(OccupancyKind kind, CompletableFuture<Long> resourceId) {
+    }
+
+    /** Requests of one property waiting for its writer; {@code scheduled} while a batch is queued or running. */
+    private static final class PropertyQueue {
+
+        private final Long propertyId;
+        private final Queue<Command<?>> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private PropertyQueue(Long propertyId) {
+            this.propertyId = propertyId;
+        }
+    }
+}
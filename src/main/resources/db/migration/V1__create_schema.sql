@@ -0,0 +1,66 @@
+-- Baseline schema. Hibernate only validates it (ddl-auto: validate); later changes go into new V<n>__ scripts.
+
+CREATE SEQUENCE booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE block_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE occupied_night_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE property (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name      VARCHAR(255) NOT NULL,
+    type      VARCHAR(50)  NOT NULL,
+    lock_mode VARCHAR(50)  NOT NULL,
+    version   BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE guest (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR(255) NOT NULL,
+    email   VARCHAR(255) NOT NULL,
+    version BIGINT       NOT NULL DEFAULT 0
+);
+
+CREATE TABLE booking (
+    id          BIGINT      NOT NULL PRIMARY KEY,
+    property_id BIGINT      NOT NULL,
+    guest_id    BIGINT      NOT NULL,
+    start_date  DATE        NOT NULL,
+    end_date    DATE        NOT NULL,
+    status      VARCHAR(50) NOT NULL,
+    version     BIGINT      NOT NULL DEFAULT 0
+);
+
+CREATE TABLE blocks (
+    id          BIGINT NOT NULL PRIMARY KEY,
+    property_id BIGINT NOT NULL,
+    start_date  DATE   NOT NULL,
+    end_date    DATE   NOT NULL,
+    reason      VARCHAR(255),
+    version     BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE occupied_night (
+    id          BIGINT      NOT NULL PRIMARY KEY,
+    property_id BIGINT      NOT NULL,
+    night       DATE        NOT NULL,
+    kind        VARCHAR(50) NOT NULL,
+    owner_id    BIGINT      NOT NULL,
+    CONSTRAINT uk_occupied_night_property_night UNIQUE (property_id, night)
+);
+
+-- Overlap checks filter on property_id = ? AND start_date < ? AND end_date > ? (bookings also on status IN ?), so
+-- the property and start date lead and the other filter columns follow: the check never reads the table rows.
+-- H2 has no partial indexes, so status is an index column instead of a WHERE status IN ('BOOKED', 'REBOOKED').
+CREATE INDEX idx_booking_property_dates ON booking (property_id, start_date, end_date, status);
+CREATE INDEX idx_blocks_property_dates ON blocks (property_id, start_date, end_date);
+
+-- A guest's bookings, and the foreign key check when a guest is deleted.
+CREATE INDEX idx_booking_guest ON booking (guest_id);
+
+CREATE INDEX idx_occupied_night_owner ON occupied_night (kind, owner_id);
+
+-- Listings sort by id DESC and are served by the primary keys. Foreign keys come last so H2 backs fk_booking_guest
+-- with idx_booking_guest; for the property keys it still adds its own index, as it only reuses an index on exactly
+-- the key's columns.
+ALTER TABLE booking ADD CONSTRAINT fk_booking_property FOREIGN KEY (property_id) REFERENCES property (id);
+ALTER TABLE booking ADD CONSTRAINT fk_booking_guest FOREIGN KEY (guest_id) REFERENCES guest (id);
+ALTER TABLE blocks ADD CONSTRAINT fk_blocks_property FOREIGN KEY (property_id) REFERENCES property (id);
@@ -0,0 +1,15 @@
+-- Booked and blocked nights per property and calendar month, maintained with every booking and block write.
+-- No foreign key to property; PropertyService removes a property's rows on delete.
+CREATE SEQUENCE occupancy_rollup_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE occupancy_rollup (
+    id             BIGINT  NOT NULL PRIMARY KEY,
+    property_id    BIGINT  NOT NULL,
+    month_start    DATE    NOT NULL,
+    booked_nights  INTEGER NOT NULL,
+    blocked_nights INTEGER NOT NULL,
+    CONSTRAINT uk_occupancy_rollup_property_month UNIQUE (property_id, month_start)
+);
+
+-- Per-type reports read one range of months across all properties.
+CREATE INDEX idx_occupancy_rollup_month ON occupancy_rollup (month_start);
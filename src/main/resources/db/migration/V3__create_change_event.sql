@@ -0,0 +1,21 @@
+-- Transactional outbox of booking and block changes, written in the same transaction as the change itself.
+-- feed_position is assigned by the dispatcher after commit, in the order it finds committed rows, so a client that
+-- has read up to position N never misses a row that committed late with a lower id.
+CREATE SEQUENCE change_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE change_event (
+    id              BIGINT      NOT NULL PRIMARY KEY,
+    feed_position   BIGINT,
+    kind            VARCHAR(50) NOT NULL,
+    entity_id       BIGINT      NOT NULL,
+    old_property_id BIGINT,
+    old_start_date  DATE,
+    old_end_date    DATE,
+    old_status      VARCHAR(50),
+    new_property_id BIGINT,
+    new_start_date  DATE,
+    new_end_date    DATE,
+    new_status      VARCHAR(50),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT uk_change_event_position UNIQUE (feed_position)
+);
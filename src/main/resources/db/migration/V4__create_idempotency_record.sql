@@ -0,0 +1,13 @@
+-- Responses of writes sent with an Idempotency-Key, so a retry on another node (or after a restart) gets the original
+-- response instead of running the write again. Only used with booking.idempotency.persistent; rows older than the
+-- TTL are ignored and pruned.
+CREATE TABLE idempotency_record (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    fingerprint     VARCHAR(300) NOT NULL,
+    status          INTEGER      NOT NULL,
+    etag            VARCHAR(100),
+    body            CLOB         NOT NULL,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_idempotency_record_created ON idempotency_record (created_at);
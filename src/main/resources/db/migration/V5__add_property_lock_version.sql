@@ -0,0 +1,3 @@
+-- Counter bumped at commit by booking and block writes on OPTIMISTIC properties. Kept apart from version, which is the
+-- property's ETag and only changes when the property itself is updated.
+ALTER TABLE property ADD COLUMN lock_version BIGINT NOT NULL DEFAULT 0;
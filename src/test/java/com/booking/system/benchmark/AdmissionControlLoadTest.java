@@ -0,0 +1,189 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.Guest;
+import com.booking.system.model.Property;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.PropertyRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test of admission control under a burst on one hot property. {@code HOT_CLIENTS} clients hammer a single
+ * property, moving on to the next one once its bookable nights are taken so that every hot write is a real insert
+ * rather than a 409, while {@code COLD_CLIENTS} clients write to {@code COLD_PROPERTIES} other properties, over real HTTP on
+ * Tomcat's 200-thread pool. Latency percentiles of the cold writes and the status counts of both groups are logged,
+ * with admission control on and off: with it on, the hot burst is shed with 429 instead of holding request threads and
+ * pooled connections on the property lock, so cold latency stays close to its unloaded value. Run with
+ * {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.com.booking.system=ERROR",
+                "logging.level.com.booking.system.benchmark=INFO"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AdmissionControlLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlLoadTest.class);
+
+    private static final int HOT_CLIENTS = 300;
+    private static final int COLD_CLIENTS = 20;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    private static final int COLD_PROPERTIES = 20;
+    private static final int BOOKABLE_NIGHTS = 700;
+    // Hot stays move on to the next hot property once one's nights are used up, so none of them is a duplicate
+    private static final int HOT_PROPERTIES = (HOT_CLIENTS * REQUESTS_PER_CLIENT + BOOKABLE_NIGHTS - 1) / BOOKABLE_NIGHTS;
+
+    @Nested
+    @TestPropertySource(properties = "booking.admission.enabled=false")
+    class WithoutAdmissionControl extends Scenario {
+
+        @Test
+        void hotPropertyBurst() throws Exception {
+            run("admission off");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "booking.admission.enabled=true")
+    class WithAdmissionControl extends Scenario {
+
+        @Test
+        void hotPropertyBurst() throws Exception {
+            run("admission on");
+        }
+    }
+
+    /** Beans and port come from the nested class's own context, which carries its admission setting. */
+    abstract class Scenario {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private PropertyRepository propertyRepository;
+
+        @Autowired
+        private GuestRepository guestRepository;
+
+        void run(String label) throws Exception {
+            List<Long> hotIds = new ArrayList<>();
+            for (int i = 0; i < HOT_PROPERTIES; i++) {
+                hotIds.add(createProperty("Hot " + i));
+            }
+            List<Long> coldIds = new ArrayList<>();
+            for (int i = 0; i < COLD_PROPERTIES; i++) {
+                coldIds.add(createProperty("Cold " + i));
+            }
+            Guest guest = new Guest();
+            guest.setName("John Doe");
+            guest.setEmail("john@example.com");
+            Long guestId = guestRepository.save(guest).getId();
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String baseUrl = "http://localhost:" + port + "/api/v1";
+            long[] coldLatencies = new long[COLD_CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger hotNext = new AtomicInteger();
+            AtomicInteger coldNext = new AtomicInteger();
+            Map<Integer, AtomicInteger> hotStatuses = new ConcurrentHashMap<>();
+            Map<Integer, AtomicInteger> coldStatuses = new ConcurrentHashMap<>();
+            CountDownLatch startGate = new CountDownLatch(1);
+
+            long start;
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < HOT_CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        startGate.await();
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            int n = hotNext.getAndIncrement();
+                            HttpRequest request = createRequest(baseUrl, hotIds.get(n / BOOKABLE_NIGHTS), guestId,
+                                    n % BOOKABLE_NIGHTS);
+                            int status = client.send(request,
+                                    HttpResponse.BodyHandlers.discarding()).statusCode();
+                            hotStatuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (int c = 0; c < COLD_CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        startGate.await();
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            int n = coldNext.getAndIncrement();
+                            HttpRequest request = createRequest(baseUrl, coldIds.get(n % COLD_PROPERTIES), guestId,
+                                    n / COLD_PROPERTIES);
+                            long sent = System.nanoTime();
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            coldLatencies[n] = System.nanoTime() - sent;
+                            coldStatuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start = System.nanoTime();
+                startGate.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            Arrays.sort(coldLatencies);
+            log.info("{}: {} ms, cold writes p50 {} ms, p99 {} ms, max {} ms, cold statuses {}, hot statuses {}",
+                    label, elapsedNanos / 1_000_000,
+                    percentileMillis(coldLatencies, 0.50), percentileMillis(coldLatencies, 0.99),
+                    coldLatencies[coldLatencies.length - 1] / 1_000_000, coldStatuses, hotStatuses);
+        }
+
+        private Long createProperty(String name) {
+            Property property = new Property();
+            property.setName(name);
+            property.setType(PropertyType.HOUSE);
+            return propertyRepository.save(property).getId();
+        }
+
+        /** Non-overlapping one-night stays: stay {@code n} takes night {@code n} of its property. */
+        private HttpRequest createRequest(String baseUrl, Long propertyId, Long guestId, int n) {
+            LocalDate start = LocalDate.now().plusDays(1 + n);
+            String json = "{\"propertyId\":" + propertyId + ",\"guestId\":" + guestId
+                    + ",\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusDays(1) + "\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        private long percentileMillis(long[] sorted, double percentile) {
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.Guest;
+import com.booking.system.model.Property;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.PropertyRepository;
+import com.booking.system.service.BookingService;
+import com.booking.system.service.OccupiedNightService;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the lock-and-check path with the night table. {@code THREADS} writers each create
+ * {@code BOOKINGS_PER_THREAD} bookings, first spread over many properties, then all on one property
+ * where half of the requests conflict. Run with {@code gradle benchmark}; results are logged.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.booking.system=WARN",
+        "logging.level.com.booking.system.benchmark=INFO"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OverlapEnforcementBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OverlapEnforcementBenchmarkTest.class);
+
+    private static final int THREADS = 16;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Nested
+    @TestPropertySource(properties = "booking.overlap.enforcement=lock-and-check")
+    class LockAndCheck extends Scenario {
+
+        @Test
+        void spreadOverProperties() throws Exception {
+            run("lock-and-check", THREADS * BOOKINGS_PER_THREAD, 1);
+        }
+
+        @Test
+        void oneHotProperty() throws Exception {
+            run("lock-and-check", 1, 2);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "booking.overlap.enforcement=night-table")
+    class NightTable extends Scenario {
+
+        @Test
+        void spreadOverProperties() throws Exception {
+            run("night-table", THREADS * BOOKINGS_PER_THREAD, 1);
+        }
+
+        @Test
+        void oneHotProperty() throws Exception {
+            run("night-table", 1, 2);
+        }
+    }
+
+    /** Beans come from the nested class's own context, which carries its enforcement mode. */
+    abstract class Scenario {
+
+        @Autowired
+        private BookingService bookingService;
+
+        @Autowired
+        private PropertyRepository propertyRepository;
+
+        @Autowired
+        private GuestRepository guestRepository;
+
+        @Autowired
+        private OccupiedNightService occupiedNightService;
+
+        /** Booking {@code n} of the run takes three nights starting at {@code n / attemptsPerNight}. */
+        void run(String label, int properties, int attemptsPerNight) throws Exception {
+            List<Long> propertyIds = new ArrayList<>();
+            for (int i = 0; i < properties; i++) {
+                Property property = new Property();
+                property.setName("Property " + i);
+                property.setType(PropertyType.HOUSE);
+                propertyIds.add(propertyRepository.save(property).getId());
+            }
+            Guest guest = new Guest();
+            guest.setName("John Doe");
+            guest.setEmail("john@example.com");
+            Long guestId = guestRepository.save(guest).getId();
+
+            AtomicInteger rejected = new AtomicInteger();
+            CountDownLatch startGate = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    startGate.await();
+                    for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                        int n = thread * BOOKINGS_PER_THREAD + i;
+                        int night = 1 + 3 * (n / attemptsPerNight) % 700;
+                        BookingRequestDTO dto = new BookingRequestDTO();
+                        dto.setPropertyId(propertyIds.get(n % properties));
+                        dto.setGuestId(guestId);
+                        dto.setStartDate(LocalDate.now().plusDays(night));
+                        dto.setEndDate(LocalDate.now().plusDays(night + 3));
+                        try {
+                            bookingService.create(dto);
+                        } catch (RuntimeException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long start = System.nanoTime();
+            startGate.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            executor.shutdown();
+
+            int total = THREADS * BOOKINGS_PER_THREAD;
+            log.info("{} (night table {}): {} creates on {} properties by {} threads in {} ms ({} ops/s), {} rejected",
+                    label, occupiedNightService.isEnabled() ? "on" : "off", total, properties, THREADS,
+                    elapsedNanos / 1_000_000, Math.round(total / (elapsedNanos / 1e9)), rejected.get());
+        }
+    }
+}
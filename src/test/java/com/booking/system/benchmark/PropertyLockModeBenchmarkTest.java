@@ -0,0 +1,112 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.Guest;
+import com.booking.system.model.Property;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.PropertyRepository;
+import com.booking.system.service.BookingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the lock modes under contention: {@code THREADS} writers create non-overlapping bookings
+ * on {@code HOT_PROPERTIES} properties, so every write competes with the others for the same locks.
+ * Run with {@code gradle benchmark}; results are logged, not asserted beyond correctness.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.booking.system=WARN",
+        "logging.level.com.booking.system.benchmark=INFO", "booking.locking.retry.max-attempts=20"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PropertyLockModeBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyLockModeBenchmarkTest.class);
+
+    private static final int THREADS = 16;
+    private static final int HOT_PROPERTIES = 2;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @ParameterizedTest
+    @EnumSource(PropertyLockMode.class)
+    void contendedCreates(PropertyLockMode lockMode) throws Exception {
+        List<Long> propertyIds = new ArrayList<>();
+        for (int i = 0; i < HOT_PROPERTIES; i++) {
+            Property property = new Property();
+            property.setName("Hot Property " + i);
+            property.setType(PropertyType.HOUSE);
+            property.setLockMode(lockMode);
+            propertyIds.add(propertyRepository.save(property).getId());
+        }
+        Guest guest = new Guest();
+        guest.setName("John Doe");
+        guest.setEmail("john@example.com");
+        Long guestId = guestRepository.save(guest).getId();
+
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    int night = 1 + (thread * BOOKINGS_PER_THREAD + i) / HOT_PROPERTIES;
+                    BookingRequestDTO dto = new BookingRequestDTO();
+                    dto.setPropertyId(propertyIds.get((thread + i) % HOT_PROPERTIES));
+                    dto.setGuestId(guestId);
+                    dto.setStartDate(LocalDate.now().plusDays(night));
+                    dto.setEndDate(LocalDate.now().plusDays(night + 1));
+                    try {
+                        bookingService.create(dto);
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        int total = THREADS * BOOKINGS_PER_THREAD;
+        log.info("{}: {} creates on {} properties by {} threads in {} ms ({} ops/s), {} failed",
+                lockMode, total, HOT_PROPERTIES, THREADS, elapsedNanos / 1_000_000,
+                Math.round(total / (elapsedNanos / 1e9)), failures.get());
+        assertEquals(total, bookingService.getAll(0, 1).getTotalElements() + failures.get());
+    }
+}
@@ -0,0 +1,160 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.Guest;
+import com.booking.system.model.Property;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.PropertyRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test comparing request handling on Tomcat's platform-thread pool with virtual threads.
+ * {@code CLIENTS} concurrent clients each send {@code REQUESTS_PER_CLIENT} requests over real HTTP, mixing
+ * booking creates spread over {@code PROPERTIES} properties (lock + JDBC) with paged reads. Throughput and
+ * latency percentiles are logged. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.jpa.show-sql=false", "logging.level.com.booking.system=WARN",
+                "logging.level.com.booking.system.benchmark=INFO", "booking.admission.enabled=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class VirtualThreadLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int PROPERTIES = 100;
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends Scenario {
+
+        @Test
+        void mixedLoad() throws Exception {
+            run("platform threads");
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads extends Scenario {
+
+        @Test
+        void mixedLoad() throws Exception {
+            run("virtual threads");
+        }
+    }
+
+    /** Beans and port come from the nested class's own context, which carries its threading mode. */
+    abstract class Scenario {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private PropertyRepository propertyRepository;
+
+        @Autowired
+        private GuestRepository guestRepository;
+
+        void run(String label) throws Exception {
+            List<Long> propertyIds = new ArrayList<>();
+            for (int i = 0; i < PROPERTIES; i++) {
+                Property property = new Property();
+                property.setName("Property " + i);
+                property.setType(PropertyType.HOUSE);
+                propertyIds.add(propertyRepository.save(property).getId());
+            }
+            Guest guest = new Guest();
+            guest.setName("John Doe");
+            guest.setEmail("john@example.com");
+            Long guestId = guestRepository.save(guest).getId();
+
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String baseUrl = "http://localhost:" + port + "/api/v1";
+            long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            AtomicInteger next = new AtomicInteger();
+            Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+            CountDownLatch startGate = new CountDownLatch(1);
+
+            long start;
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < CLIENTS; c++) {
+                    futures.add(clients.submit(() -> {
+                        startGate.await();
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            int n = next.getAndIncrement();
+                            HttpRequest request = n % 2 == 0
+                                    ? createRequest(baseUrl, propertyIds.get(n % PROPERTIES), guestId, n)
+                                    : HttpRequest.newBuilder(URI.create(baseUrl + "/bookings?page=0&size=20")).GET().build();
+                            long sent = System.nanoTime();
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            latencies[n] = System.nanoTime() - sent;
+                            statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start = System.nanoTime();
+                startGate.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            log.info("{}: {} requests from {} clients in {} ms ({} req/s), p50 {} ms, p99 {} ms, max {} ms, statuses {}",
+                    label, latencies.length, CLIENTS, elapsedNanos / 1_000_000,
+                    Math.round(latencies.length / (elapsedNanos / 1e9)),
+                    percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99),
+                    latencies[latencies.length - 1] / 1_000_000, statuses);
+        }
+
+        /** Non-overlapping one-night stays: request {@code n} takes night {@code n / PROPERTIES} of its property. */
+        private HttpRequest createRequest(String baseUrl, Long propertyId, Long guestId, int n) {
+            LocalDate start = LocalDate.now().plusDays(1 + n / PROPERTIES);
+            String json = "{\"propertyId\":" + propertyId + ",\"guestId\":" + guestId
+                    + ",\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusDays(1) + "\"}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+
+        private long percentileMillis(long[] sorted, double percentile) {
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.booking.system.benchmark;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.Guest;
+import com.booking.system.model.Property;
+import com.booking.system.repository.GuestRepository;
+import com.booking.system.repository.PropertyRepository;
+import com.booking.system.service.BookingService;
+import com.booking.system.service.WritePipeline;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares committed bookings per second under contention: {@code THREADS} clients create non-overlapping bookings on
+ * {@code HOT_PROPERTIES} properties, either through the synchronous {@link BookingService} (one property lock and
+ * overlap query per booking) or through the {@link WritePipeline} (one writer per property, one lock and query per
+ * batch). Run with {@code gradle benchmark}; results are logged, not asserted beyond correctness.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "logging.level.com.booking.system=WARN",
+        "logging.level.com.booking.system.benchmark=INFO"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class WritePipelineBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WritePipelineBenchmarkTest.class);
+
+    private static final int THREADS = 16;
+    private static final int HOT_PROPERTIES = 2;
+    private static final int BOOKINGS_PER_THREAD = 40;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private WritePipeline writePipeline;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private GuestRepository guestRepository;
+
+    @Test
+    void synchronousCreates() throws Exception {
+        run("synchronous", bookingService::create);
+    }
+
+    @Test
+    void pipelinedCreates() throws Exception {
+        // Each client waits for its booking to commit, like the synchronous call
+        run("pipeline", dto -> writePipeline.submit(dto).join());
+    }
+
+    private void run(String label, Consumer<BookingRequestDTO> writer) throws Exception {
+        List<Long> propertyIds = new ArrayList<>();
+        for (int i = 0; i < HOT_PROPERTIES; i++) {
+            Property property = new Property();
+            property.setName("Hot Property " + i);
+            property.setType(PropertyType.HOUSE);
+            propertyIds.add(propertyRepository.save(property).getId());
+        }
+        Guest guest = new Guest();
+        guest.setName("John Doe");
+        guest.setEmail("john@example.com");
+        Long guestId = guestRepository.save(guest).getId();
+
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                startGate.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    // Every (property, night) pair is taken exactly once
+                    int n = thread * BOOKINGS_PER_THREAD + i;
+                    int night = 1 + n / HOT_PROPERTIES;
+                    BookingRequestDTO dto = new BookingRequestDTO();
+                    dto.setPropertyId(propertyIds.get(n % HOT_PROPERTIES));
+                    dto.setGuestId(guestId);
+                    dto.setStartDate(LocalDate.now().plusDays(night));
+                    dto.setEndDate(LocalDate.now().plusDays(night + 1));
+                    try {
+                        writer.accept(dto);
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+
+        int total = THREADS * BOOKINGS_PER_THREAD;
+        long committed = bookingService.getAll(0, 1).getTotalElements();
+        log.info("{}: {} creates on {} properties by {} threads in {} ms ({} committed/s), {} failed",
+                label, total, HOT_PROPERTIES, THREADS, elapsedNanos / 1_000_000,
+                Math.round(committed / (elapsedNanos / 1e9)), failures.get());
+        assertEquals(total, committed + failures.get());
+    }
+}
@@ -0,0 +1,273 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.AdmissionControl;
+import com.booking.system.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fills the per-property queue or the global write slots with writes parked inside {@link AdmissionControl}, then
+ * checks further writes are turned away with 429/503 and Retry-After while other properties and reads go through.
+ */
+@SpringBootTest(properties = {
+        "booking.admission.enabled=true",
+        "booking.admission.max-queue-per-property=2",
+        "booking.admission.max-concurrent=3",
+        "booking.admission.acquire-timeout=10ms",
+        "booking.admission.retry-after=2s"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AdmissionControlIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Long guestId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        guestId = createGuest();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    // ==================== PER-PROPERTY QUEUE ====================
+
+    @Test
+    void create_propertyQueueFull_returns429WithRetryAfter() throws Exception {
+        Long hot = createProperty();
+        park(hot, 2);
+
+        createBooking(hot, START)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message").value(containsString("property " + hot)));
+        createBlock(hot, START.plusDays(5))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void cancelRebookAndDelete_propertyQueueFull_return429() throws Exception {
+        Long hot = createProperty();
+        Long bookingId = postForId("/api/v1/bookings", bookingDto(hot, START));
+        Long blockId = postForId("/api/v1/blocks", blockDto(hot, START.plusDays(5)));
+        park(hot, 2);
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(patch("/api/v1/bookings/{id}/rebook", bookingId))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(delete("/api/v1/bookings/{id}", bookingId))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(delete("/api/v1/blocks/{id}", blockId))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void create_otherPropertyWhileOneIsFull_isAdmitted() throws Exception {
+        Long hot = createProperty();
+        Long cold = createProperty();
+        park(hot, 2);
+
+        createBooking(cold, START).andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/bookings")).andExpect(status().isOk());
+    }
+
+    @Test
+    void create_afterQueueDrains_isAdmitted() throws Exception {
+        Long hot = createProperty();
+        park(hot, 2);
+        createBooking(hot, START).andExpect(status().isTooManyRequests());
+
+        release.countDown();
+        awaitQueueDepth(hot, 0);
+
+        createBooking(hot, START).andExpect(status().isCreated());
+    }
+
+    // ==================== GLOBAL LIMIT ====================
+
+    @Test
+    void create_allSlotsBusy_returns503WithRetryAfter() throws Exception {
+        Long propertyId = createProperty();
+        Long bookingId = postForId("/api/v1/bookings", bookingDto(propertyId, START.plusDays(20)));
+        park(null, 3);
+
+        createBooking(propertyId, START)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId))
+                .andExpect(status().isServiceUnavailable());
+        assertEquals(0, admissionControl.queueDepth(propertyId));
+    }
+
+    @Test
+    void replay_allSlotsBusy_isNotAdmissionControlled() throws Exception {
+        Long propertyId = createProperty();
+        createBooking(propertyId, START, "key-1").andExpect(status().isCreated());
+        park(null, 3);
+
+        createBooking(propertyId, START, "key-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+    }
+
+    // ==================== METRICS ====================
+
+    @Test
+    void rejections_areCountedByReason() throws Exception {
+        Long hot = createProperty();
+        park(hot, 2);
+        createBooking(hot, START).andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("booking_admission_rejected_total{reason=\"property\"} 1.0")))
+                .andExpect(content().string(containsString("booking_admission_rejected_total{reason=\"global\"} 0.0")))
+                .andExpect(content().string(containsString("booking_admission_active 2.0")))
+                .andExpect(content().string(containsString("booking_admission_queue_max 2.0")))
+                .andExpect(content().string(containsString("booking_admission_queue_depth_count")));
+    }
+
+    // ==================== HELPERS ====================
+
+    /** Admits {@code count} writes of the property (or none) that hold their place until the test ends. */
+    private void park(Long propertyId, int count) throws InterruptedException {
+        CountDownLatch admitted = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            executor.submit(() -> admissionControl.admit(propertyId, () -> {
+                admitted.countDown();
+                awaitRelease();
+                return null;
+            }));
+        }
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitQueueDepth(Long propertyId, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admissionControl.queueDepth(propertyId) != depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, admissionControl.queueDepth(propertyId));
+    }
+
+    private ResultActions createBooking(Long propertyId, LocalDate startDate) throws Exception {
+        return createBooking(propertyId, startDate, null);
+    }
+
+    private ResultActions createBooking(Long propertyId, LocalDate startDate, String idempotencyKey) throws Exception {
+        var builder = post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bookingDto(propertyId, startDate)));
+        if (idempotencyKey != null) {
+            builder.header(IdempotencyService.HEADER, idempotencyKey);
+        }
+        return mockMvc.perform(builder);
+    }
+
+    private ResultActions createBlock(Long propertyId, LocalDate startDate) throws Exception {
+        return mockMvc.perform(post("/api/v1/blocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(blockDto(propertyId, startDate))));
+    }
+
+    private BookingRequestDTO bookingDto(Long propertyId, LocalDate startDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(startDate.plusDays(3));
+        return dto;
+    }
+
+    private BlockRequestDTO blockDto(Long propertyId, LocalDate startDate) {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(startDate.plusDays(2));
+        return dto;
+    }
+
+    private Long createProperty() throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
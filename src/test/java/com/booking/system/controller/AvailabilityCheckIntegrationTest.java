@@ -0,0 +1,237 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.AvailabilityCheckItemDTO;
+import com.booking.system.dto.AvailabilityCheckRequestDTO;
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AvailabilityCheckIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+    private static final String CHECK_URL = "/api/v1/availability/check";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // ==================== RESULTS ====================
+
+    @Test
+    void check_reportsEachItemInOrder() throws Exception {
+        Long beach = createProperty("Beach House");
+        Long cabin = createProperty("Mountain Cabin");
+        Long guestId = createGuest();
+        createBooking(beach, guestId, START, START.plusDays(3));
+        createBlock(cabin, START.plusDays(5), START.plusDays(8));
+
+        check(item(beach, START.plusDays(1), START.plusDays(2)),
+                item(beach, START.plusDays(3), START.plusDays(5)),
+                item(cabin, START.plusDays(7), START.plusDays(9)),
+                item(cabin, START, START.plusDays(5)),
+                item(999L, START, START.plusDays(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].propertyId").value(beach))
+                .andExpect(jsonPath("$[0].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[0].conflict").value("BOOKING"))
+                .andExpect(jsonPath("$[1].status").value("AVAILABLE"))
+                .andExpect(jsonPath("$[1].conflict").doesNotExist())
+                .andExpect(jsonPath("$[2].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[2].conflict").value("BLOCK"))
+                .andExpect(jsonPath("$[3].status").value("AVAILABLE"))
+                .andExpect(jsonPath("$[4].propertyId").value(999))
+                .andExpect(jsonPath("$[4].status").value("PROPERTY_NOT_FOUND"));
+    }
+
+    @Test
+    void check_ignoresCancelledBookings() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long bookingId = createBooking(propertyId, createGuest(), START, START.plusDays(3));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)).andExpect(status().isOk());
+
+        check(item(propertyId, START, START.plusDays(3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("AVAILABLE"));
+    }
+
+    @Test
+    void check_bookingAndBlockOverlap_reportsBooking() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        createBlock(propertyId, START, START.plusDays(2));
+        createBooking(propertyId, createGuest(), START.plusDays(2), START.plusDays(4));
+
+        check(item(propertyId, START.plusDays(1), START.plusDays(3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].conflict").value("BOOKING"));
+    }
+
+    @Test
+    void check_maxItems_runsTwoQueries() throws Exception {
+        Long guestId = createGuest();
+        List<Long> propertyIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Long propertyId = createProperty("Property " + i);
+            createBooking(propertyId, guestId, START, START.plusDays(2));
+            propertyIds.add(propertyId);
+        }
+        List<AvailabilityCheckItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < AvailabilityCheckRequestDTO.MAX_ITEMS; i++) {
+            LocalDate startDate = START.plusDays(i % 50);
+            items.add(item(propertyIds.get(i % propertyIds.size()), startDate, startDate.plusDays(1)));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        check(items.toArray(AvailabilityCheckItemDTO[]::new))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(AvailabilityCheckRequestDTO.MAX_ITEMS))
+                .andExpect(jsonPath("$[0].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[20].status").value("AVAILABLE"));
+
+        // Existence check plus the bookings-and-blocks query
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== VALIDATION ====================
+
+    @Test
+    void check_tooManyItems_returns400() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        AvailabilityCheckItemDTO[] items = new AvailabilityCheckItemDTO[AvailabilityCheckRequestDTO.MAX_ITEMS + 1];
+        Arrays.fill(items, item(propertyId, START, START.plusDays(1)));
+
+        check(items).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void check_noItems_returns400() throws Exception {
+        check().andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void check_itemWithoutProperty_returns400() throws Exception {
+        check(item(null, START, START.plusDays(1))).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void check_invalidDateRange_reportsItemAndChecksOthers() throws Exception {
+        Long propertyId = createProperty("Beach House");
+
+        check(item(propertyId, START, START.plusDays(1)),
+                item(propertyId, START.plusDays(2), START),
+                item(propertyId, LocalDate.now().minusDays(1), START))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("AVAILABLE"))
+                .andExpect(jsonPath("$[0].message").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value("INVALID_RANGE"))
+                .andExpect(jsonPath("$[1].message").value("Start date must be before end date"))
+                .andExpect(jsonPath("$[2].status").value("INVALID_RANGE"))
+                .andExpect(jsonPath("$[2].message").value("Start date cannot be in the past"));
+    }
+
+    @Test
+    void check_onlyInvalidRanges_runsNoQuery() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        check(item(propertyId, START, START))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("INVALID_RANGE"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== HELPERS ====================
+
+    private ResultActions check(AvailabilityCheckItemDTO... items) throws Exception {
+        AvailabilityCheckRequestDTO request = new AvailabilityCheckRequestDTO();
+        request.setItems(List.of(items));
+        return mockMvc.perform(post(CHECK_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private AvailabilityCheckItemDTO item(Long propertyId, LocalDate startDate, LocalDate endDate) {
+        AvailabilityCheckItemDTO dto = new AvailabilityCheckItemDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long createBooking(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return postForId("/api/v1/bookings", dto);
+    }
+
+    private void createBlock(Long propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        postForId("/api/v1/blocks", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
@@ -0,0 +1,195 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.AvailabilityIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the overlap scenarios with the in-memory availability index enabled,
+ * verifying the index follows every create, update, cancel, rebook and delete.
+ */
+@SpringBootTest(properties = "booking.availability.index-enabled=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AvailabilityIndexIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    private Long propertyId;
+    private Long guestId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        assertNotNull(availabilityIndex);
+        propertyId = createProperty("Beach House");
+        guestId = createGuest("John Doe", "john@example.com");
+    }
+
+    @Test
+    void overlappingBooking_isRejected() throws Exception {
+        createBooking(1, 5);
+
+        postBooking(3, 7).andExpect(status().isConflict());
+        postBooking(5, 10).andExpect(status().isCreated());
+    }
+
+    @Test
+    void cancel_freesDates_andRebookOccupiesThemAgain() throws Exception {
+        Long id = createBooking(1, 5);
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", id)).andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/rebook", id)).andExpect(status().isOk());
+        postBooking(2, 4).andExpect(status().isConflict());
+    }
+
+    @Test
+    void update_releasesOldRange_andExcludesItself() throws Exception {
+        Long id = createBooking(1, 5);
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(3, 8)))
+                .andExpect(status().isOk());
+
+        postBooking(1, 3).andExpect(status().isCreated());
+        postBooking(7, 9).andExpect(status().isConflict());
+    }
+
+    @Test
+    void delete_freesDates() throws Exception {
+        Long id = createBooking(1, 5);
+        mockMvc.perform(delete("/api/v1/bookings/{id}", id)).andExpect(status().isNoContent());
+
+        postBooking(1, 5).andExpect(status().isCreated());
+    }
+
+    @Test
+    void createWithUnknownGuest_doesNotOccupyDates() throws Exception {
+        BookingRequestDTO dto = bookingDto(1, 5);
+        dto.setGuestId(999L);
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isNotFound());
+
+        postBooking(1, 5).andExpect(status().isCreated());
+    }
+
+    @Test
+    void blocksAndBookings_excludeEachOther() throws Exception {
+        Long blockId = createBlock(10, 15);
+
+        postBooking(12, 14).andExpect(status().isConflict());
+        mockMvc.perform(put("/api/v1/blocks/{id}", blockId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(blockDto(11, 16))))
+                .andExpect(status().isOk());
+        createBooking(1, 5);
+        mockMvc.perform(post("/api/v1/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(blockDto(4, 6))))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/v1/blocks/{id}", blockId)).andExpect(status().isNoContent());
+        postBooking(12, 14).andExpect(status().isCreated());
+    }
+
+    // ==================== HELPERS ====================
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        String json = mockMvc.perform(post("/api/v1/properties")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private Long createGuest(String name, String email) throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName(name);
+        dto.setEmail(email);
+        String json = mockMvc.perform(post("/api/v1/guests")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private Long createBooking(int startDay, int endDay) throws Exception {
+        String json = postBooking(startDay, endDay)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private ResultActions postBooking(int startDay, int endDay) throws Exception {
+        return mockMvc.perform(post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookingJson(startDay, endDay)));
+    }
+
+    private Long createBlock(int startDay, int endDay) throws Exception {
+        String json = mockMvc.perform(post("/api/v1/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(blockDto(startDay, endDay))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private BlockRequestDTO blockDto(int startDay, int endDay) {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(LocalDate.now().plusDays(startDay));
+        dto.setEndDate(LocalDate.now().plusDays(endDay));
+        dto.setReason("Maintenance");
+        return dto;
+    }
+
+    private BookingRequestDTO bookingDto(int startDay, int endDay) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(startDay));
+        dto.setEndDate(LocalDate.now().plusDays(endDay));
+        return dto;
+    }
+
+    private String bookingJson(int startDay, int endDay) throws Exception {
+        return objectMapper.writeValueAsString(bookingDto(startDay, endDay));
+    }
+}
@@ -0,0 +1,276 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.exception.DateAlreadyBookedException;
+import com.booking.system.service.BookingService;
+import com.booking.system.service.OccupancyCalendar;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Writes for dates that are already taken are rejected by the pre-check without taking the property lock, ranges of
+ * writes that have not committed are never grounds for a rejection, and a write whose pre-check passed but which
+ * conflicts under the lock is counted as a missed pre-check.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AvailabilityPrecheckIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private OccupancyCalendar occupancyCalendar;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void createBooking_datesTaken_rejectedWithoutLocking() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.PESSIMISTIC);
+        Long guestId = createGuest();
+        createBooking(propertyId, guestId, START).andExpect(status().isCreated());
+
+        createBooking(propertyId, guestId, START.plusDays(1))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("The requested dates are already booked for this property"));
+
+        assertEquals(1, lockWaits(PropertyLockMode.PESSIMISTIC));
+        assertEquals(1, prechecks("BOOKING", "rejected"));
+        assertEquals(1, prechecks("BOOKING", "passed"));
+        assertEquals(0, missed("BOOKING"));
+    }
+
+    @Test
+    void createBlock_overBooking_rejectedWithoutLocking() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.PESSIMISTIC);
+        createBooking(propertyId, createGuest(), START).andExpect(status().isCreated());
+
+        BlockRequestDTO block = new BlockRequestDTO();
+        block.setPropertyId(propertyId);
+        block.setStartDate(START.plusDays(2));
+        block.setEndDate(START.plusDays(5));
+        mockMvc.perform(post("/api/v1/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(block)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Cannot block dates that have active bookings"));
+
+        assertEquals(1, lockWaits(PropertyLockMode.PESSIMISTIC));
+        assertEquals(1, prechecks("BLOCK", "rejected"));
+    }
+
+    @Test
+    void createBooking_conflictCommittedWhileWaitingForLock_countedAsMissed() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.STRIPED);
+        Long guestId = createGuest();
+        holdBooking(propertyId, guestId);
+
+        Future<Integer> write = executor.submit(() ->
+                createBooking(propertyId, guestId, START.plusDays(1)).andReturn().getResponse().getStatus());
+        // The holder's own pre-check passed too; wait for the second writer to pass it and queue for the lock
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prechecks("BOOKING", "passed") < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals(409, write.get(5, TimeUnit.SECONDS));
+        assertEquals(1, missed("BOOKING"));
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void createBooking_overOptimisticWriterThatRollsBack_isCreated() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.OPTIMISTIC);
+        Long guestId = createGuest();
+        CountDownLatch applied = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Future<?> loser = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingService.create(bookingRequest(propertyId, guestId, START));
+            // Runs after the calendar took the range in beforeCommit, then fails the commit like a lost version check
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    applied.countDown();
+                    awaitRelease();
+                    throw new OptimisticLockingFailureException("Lost the version check");
+                }
+            });
+        }));
+        assertTrue(applied.await(5, TimeUnit.SECONDS));
+        assertTrue(occupancyCalendar.hasOverlap(OccupancyKind.BOOKING, propertyId, START, START.plusDays(3), null));
+
+        Future<Integer> write = executor.submit(() ->
+                createBooking(propertyId, guestId, START.plusDays(1)).andReturn().getResponse().getStatus());
+        // The loser's own pre-check passed too; once the second one has, let the loser roll back (its uncommitted
+        // rollup row would otherwise hold up the second writer's insert)
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (prechecks("BOOKING", "passed") + prechecks("BOOKING", "rejected") < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, prechecks("BOOKING", "rejected"));
+        release.countDown();
+
+        assertThrows(ExecutionException.class, () -> loser.get(5, TimeUnit.SECONDS));
+        assertEquals(201, write.get(5, TimeUnit.SECONDS));
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void createBooking_afterCancellation_passesPrecheck() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.PESSIMISTIC);
+        Long guestId = createGuest();
+        String json = createBooking(propertyId, guestId, START).andReturn().getResponse().getContentAsString();
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", objectMapper.readTree(json).get("id").asLong()))
+                .andExpect(status().isOk());
+
+        // The calendar frees the nights once the cancellation commits
+        createBooking(propertyId, guestId, START).andExpect(status().isCreated());
+
+        assertEquals(0, prechecks("BOOKING", "rejected"));
+    }
+
+    @Test
+    void dateAlreadyBookedException_hasNoStackTrace() {
+        assertEquals(0, new DateAlreadyBookedException("taken").getStackTrace().length);
+    }
+
+    // ==================== HELPERS ====================
+
+    /** Creates a booking in a transaction that keeps the property lock until released. */
+    private void holdBooking(Long propertyId, Long guestId) throws InterruptedException {
+        CountDownLatch created = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            bookingService.create(bookingRequest(propertyId, guestId, START));
+            created.countDown();
+            awaitRelease();
+        }));
+        assertTrue(created.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long lockWaits(PropertyLockMode mode) {
+        Timer timer = meterRegistry.find("booking.property.lock.wait").tag("mode", mode.name()).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long prechecks(String kind, String outcome) {
+        Timer timer = meterRegistry.find("booking.precheck").tag("kind", kind).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private long missed(String kind) {
+        var counter = meterRegistry.find("booking.precheck.missed").tag("kind", kind).counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+
+    private ResultActions createBooking(Long propertyId, Long guestId, LocalDate startDate) throws Exception {
+        return mockMvc.perform(post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(bookingRequest(propertyId, guestId, startDate))));
+    }
+
+    private BookingRequestDTO bookingRequest(Long propertyId, Long guestId, LocalDate startDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(startDate.plusDays(3));
+        return dto;
+    }
+
+    private Long createProperty(PropertyLockMode lockMode) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        dto.setLockMode(lockMode);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
@@ -155,6 +155,22 @@ class BlockControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getAfter_returnsSliceWithoutCount() throws Exception {
+        Long older = createBlock(1, 5);
+        Long newer = createBlock(10, 15);
+
+        mockMvc.perform(get("/api/v1/blocks/cursor").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(newer))
+                .andExpect(jsonPath("$.nextCursor").value(newer))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/blocks/cursor").param("after", String.valueOf(newer)).param("size", "1"))
+                .andExpect(jsonPath("$.content[0].id").value(older))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     // ==================== UPDATE ====================
 
     @Test
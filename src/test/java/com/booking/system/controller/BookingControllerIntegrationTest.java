@@ -16,6 +16,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -245,6 +246,36 @@ class BookingControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalElements").isNumber());
     }
 
+    @Test
+    void getAfter_walksAllPagesByCursor() throws Exception {
+        Long first = createBooking(1, 2);
+        Long second = createBooking(2, 3);
+        Long third = createBooking(3, 4);
+
+        String json = mockMvc.perform(get("/api/v1/bookings/cursor").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(third))
+                .andExpect(jsonPath("$.content[1].id").value(second))
+                .andExpect(jsonPath("$.nextCursor").value(second))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/v1/bookings/cursor")
+                        .param("after", objectMapper.readTree(json).get("nextCursor").asText())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(first))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getAfter_negativeCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings/cursor").param("after", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
     // ==================== UPDATE ====================
 
     @Test
@@ -430,6 +461,92 @@ class BookingControllerIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    // ==================== BULK IMPORT ====================
+
+    @Test
+    void bulkImport_reportsEachRow() throws Exception {
+        createBooking(1, 5);
+        createBlock(20, 25);
+        BookingRequestDTO unknownGuest = bookingDto(40, 45);
+        unknownGuest.setGuestId(999L);
+        BookingRequestDTO pastDates = bookingDto(-3, -1);
+        String body = objectMapper.writeValueAsString(List.of(
+                bookingDto(10, 15),   // ok
+                bookingDto(3, 7),     // overlaps existing booking
+                bookingDto(12, 14),   // overlaps row 0 of this batch
+                bookingDto(22, 23),   // overlaps block
+                unknownGuest,
+                pastDates,
+                bookingDto(15, 20))); // adjacent to row 0 and the block
+
+        mockMvc.perform(post("/api/v1/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(7))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(5))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[0].id").isNumber())
+                .andExpect(jsonPath("$.rows[1].error").value("The requested dates are already booked for this property"))
+                .andExpect(jsonPath("$.rows[2].error").value("The requested dates are already booked for this property"))
+                .andExpect(jsonPath("$.rows[3].error").value("The requested dates are blocked for this property"))
+                .andExpect(jsonPath("$.rows[4].error").value("Guest with id 999 not found"))
+                .andExpect(jsonPath("$.rows[5].error").value("Start date cannot be in the past"))
+                .andExpect(jsonPath("$.rows[6].status").value("CREATED"));
+
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void bulkImport_ndjson_skipsMalformedLines() throws Exception {
+        String body = objectMapper.writeValueAsString(bookingDto(1, 5)) + "\n"
+                + "{not json}\n"
+                + "\n"
+                + objectMapper.writeValueAsString(bookingDto(5, 9)) + "\n";
+
+        mockMvc.perform(post("/api/v1/bookings/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rows[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.rows[1].error").value("Malformed JSON row"));
+    }
+
+    @Test
+    void bulkImport_ndjson_checksLaterChunksAgainstEarlierOnes() throws Exception {
+        // Rows 0 and 1000 fall in different chunks of 1000 lines
+        StringBuilder body = new StringBuilder(objectMapper.writeValueAsString(bookingDto(1, 5))).append('\n');
+        body.append("not json\n".repeat(999));
+        body.append(objectMapper.writeValueAsString(bookingDto(3, 7))).append('\n');
+
+        mockMvc.perform(post("/api/v1/bookings/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1001))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.rows[1000].index").value(1000))
+                .andExpect(jsonPath("$.rows[1000].error").value("The requested dates are already booked for this property"));
+    }
+
+    @Test
+    void bulkImport_unknownProperty_failsItsRowsOnly() throws Exception {
+        BookingRequestDTO unknownProperty = bookingDto(1, 5);
+        unknownProperty.setPropertyId(999L);
+
+        mockMvc.perform(post("/api/v1/bookings/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(unknownProperty, bookingDto(1, 5)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows[0].error").value("Property with id 999 not found"))
+                .andExpect(jsonPath("$.rows[1].status").value("CREATED"));
+    }
+
     // ==================== HELPERS ====================
 
     private Long createProperty(String name) throws Exception {
@@ -485,11 +602,15 @@ class BookingControllerIntegrationTest {
     }
 
     private String bookingJson(int startDay, int endDay) throws Exception {
+        return objectMapper.writeValueAsString(bookingDto(startDay, endDay));
+    }
+
+    private BookingRequestDTO bookingDto(int startDay, int endDay) {
         BookingRequestDTO dto = new BookingRequestDTO();
         dto.setPropertyId(propertyId);
         dto.setGuestId(guestId);
         dto.setStartDate(LocalDate.now().plusDays(startDay));
         dto.setEndDate(LocalDate.now().plusDays(endDay));
-        return objectMapper.writeValueAsString(dto);
+        return dto;
     }
 }
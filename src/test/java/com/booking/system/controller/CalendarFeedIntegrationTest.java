@@ -0,0 +1,267 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class CalendarFeedIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+    private static final String CALENDAR_URL = "/api/v1/properties/{id}/calendar.ics";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ==================== FEED ====================
+
+    @Test
+    void calendar_listsActiveBookingsAndBlocks() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        Long bookingId = createBooking(propertyId, guestId, START, START.plusDays(3));
+        Long cancelledId = createBooking(propertyId, guestId, START.plusDays(20), START.plusDays(23));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", cancelledId)).andExpect(status().isOk());
+        Long blockId = createBlock(propertyId, START.plusDays(5), "Maintenance");
+
+        mockMvc.perform(get(CALENDAR_URL, propertyId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/calendar"))
+                .andExpect(content().string(containsString("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n")))
+                .andExpect(content().string(containsString("X-WR-CALNAME:Beach House\r\n")))
+                .andExpect(content().string(containsString("UID:booking-" + bookingId + "@booking-system\r\n")))
+                .andExpect(content().string(containsString("DTSTART;VALUE=DATE:" + basic(START) + "\r\n")))
+                .andExpect(content().string(containsString("DTEND;VALUE=DATE:" + basic(START.plusDays(3)) + "\r\n")))
+                .andExpect(content().string(containsString("UID:block-" + blockId + "@booking-system\r\n")))
+                .andExpect(content().string(containsString("DESCRIPTION:Maintenance\r\n")))
+                .andExpect(content().string(not(containsString("booking-" + cancelledId + "@"))))
+                .andExpect(content().string(not(containsString("John Doe"))))
+                .andExpect(content().string(containsString("END:VCALENDAR\r\n")));
+    }
+
+    @Test
+    void calendar_escapesAndFoldsLongText() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        String reason = "Repairs; painting, new roof and a very long note that does not fit on one calendar line";
+        createBlock(propertyId, START, reason);
+
+        String body = mockMvc.perform(get(CALENDAR_URL, propertyId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String line : body.split("\r\n")) {
+            assertTrue(line.length() <= 75, line);
+        }
+        String unfolded = body.replace("\r\n ", "");
+        assertTrue(unfolded.contains("DESCRIPTION:Repairs\\; painting\\, new roof and a very long note"), unfolded);
+    }
+
+    @Test
+    void calendar_unknownProperty_returns404() throws Exception {
+        mockMvc.perform(get(CALENDAR_URL, 999))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== CACHING ====================
+
+    @Test
+    void calendar_repeatedPolls_runNoQueries() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        createBooking(propertyId, createGuest(), START, START.plusDays(3));
+        String first = fetch(propertyId).getContentAsString();
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(first, fetch(propertyId).getContentAsString());
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void calendar_ifNoneMatch_returns304() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        String etag = fetch(propertyId).getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(CALENDAR_URL, propertyId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void calendar_ifModifiedSince_returns304() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        String lastModified = fetch(propertyId).getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get(CALENDAR_URL, propertyId).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void calendar_bookingChange_invalidatesOnlyThatProperty() throws Exception {
+        Long beach = createProperty("Beach House");
+        Long cabin = createProperty("Mountain Cabin");
+        Long guestId = createGuest();
+        String beachTag = fetch(beach).getHeader(HttpHeaders.ETAG);
+        String cabinTag = fetch(cabin).getHeader(HttpHeaders.ETAG);
+
+        Long bookingId = createBooking(beach, guestId, START, START.plusDays(3));
+
+        MockHttpServletResponse changed = fetch(beach);
+        assertNotEquals(beachTag, changed.getHeader(HttpHeaders.ETAG));
+        assertTrue(changed.getContentAsString().contains("UID:booking-" + bookingId + "@booking-system"));
+        mockMvc.perform(get(CALENDAR_URL, cabin).header(HttpHeaders.IF_NONE_MATCH, cabinTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void calendar_cancelAndBlockUpdate_invalidateFeed() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long bookingId = createBooking(propertyId, createGuest(), START, START.plusDays(3));
+        Long blockId = createBlock(propertyId, START.plusDays(5), "Maintenance");
+        assertTrue(fetch(propertyId).getContentAsString().contains("booking-" + bookingId + "@"));
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)).andExpect(status().isOk());
+        BlockRequestDTO block = blockRequest(propertyId, START.plusDays(5), "Painting");
+        mockMvc.perform(put("/api/v1/blocks/{id}", blockId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(block)))
+                .andExpect(status().isOk());
+
+        String body = fetch(propertyId).getContentAsString();
+        assertTrue(!body.contains("booking-" + bookingId + "@"), body);
+        assertTrue(body.contains("DESCRIPTION:Painting"), body);
+    }
+
+    @Test
+    void calendar_propertyRename_invalidatesFeed() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        fetch(propertyId);
+
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Ocean Villa");
+        dto.setType(PropertyType.VILLA);
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        assertTrue(fetch(propertyId).getContentAsString().contains("X-WR-CALNAME:Ocean Villa\r\n"));
+    }
+
+    @Test
+    void calendar_propertyDelete_invalidatesFeed() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        fetch(propertyId);
+
+        mockMvc.perform(delete("/api/v1/properties/{id}", propertyId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(CALENDAR_URL, propertyId))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== HELPERS ====================
+
+    private MockHttpServletResponse fetch(Long propertyId) throws Exception {
+        return mockMvc.perform(get(CALENDAR_URL, propertyId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    private String basic(LocalDate date) {
+        return date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long createBooking(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return postForId("/api/v1/bookings", dto);
+    }
+
+    private Long createBlock(Long propertyId, LocalDate startDate, String reason) throws Exception {
+        return postForId("/api/v1/blocks", blockRequest(propertyId, startDate, reason));
+    }
+
+    private BlockRequestDTO blockRequest(Long propertyId, LocalDate startDate, String reason) {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(startDate.plusDays(3));
+        dto.setReason(reason);
+        return dto;
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
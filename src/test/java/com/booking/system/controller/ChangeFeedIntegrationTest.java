@@ -0,0 +1,281 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ChangeFeedIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+    private static final long TIMEOUT_MS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // ==================== CATCH-UP ====================
+
+    @Test
+    void catchUp_listsEveryMutationInOrder() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        Long bookingId = createBooking(propertyId, guestId, START, START.plusDays(3));
+        mockMvc.perform(put("/api/v1/bookings/{id}", bookingId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(propertyId, guestId, START.plusDays(1), START.plusDays(4)))))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)).andExpect(status().isOk());
+        Long blockId = createBlock(propertyId, START.plusDays(10));
+        mockMvc.perform(delete("/api/v1/blocks/{id}", blockId)).andExpect(status().isNoContent());
+
+        JsonNode changes = awaitChanges(0, 5);
+
+        assertEquals(1, changes.get(0).get("position").asLong());
+        assertEquals("BOOKING", changes.get(0).get("kind").asText());
+        assertEquals(bookingId, changes.get(0).get("id").asLong());
+        assertTrue(changes.get(0).get("before").isNull());
+        assertEquals("BOOKED", changes.get(0).get("after").get("status").asText());
+        assertEquals(START.toString(), changes.get(1).get("before").get("startDate").asText());
+        assertEquals(START.plusDays(1).toString(), changes.get(1).get("after").get("startDate").asText());
+        assertEquals("BOOKED", changes.get(2).get("before").get("status").asText());
+        assertEquals("CANCELLED", changes.get(2).get("after").get("status").asText());
+        assertEquals("BLOCK", changes.get(3).get("kind").asText());
+        assertEquals(propertyId, changes.get(3).get("after").get("propertyId").asLong());
+        assertEquals(blockId, changes.get(4).get("id").asLong());
+        assertTrue(changes.get(4).get("after").isNull());
+    }
+
+    @Test
+    void catchUp_pagesWithSinceAndLimit() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        for (int i = 0; i < 3; i++) {
+            createBooking(propertyId, guestId, START.plusDays(i * 5), START.plusDays(i * 5 + 2));
+        }
+        awaitChanges(0, 3);
+
+        JsonNode page = catchUp("since", "1", "limit", "1");
+        assertEquals(1, page.get("changes").size());
+        assertEquals(2, page.get("changes").get(0).get("position").asLong());
+        assertEquals(2, page.get("next").asLong());
+
+        JsonNode last = catchUp("since", "3");
+        assertEquals(0, last.get("changes").size());
+        assertEquals(3, last.get("next").asLong());
+    }
+
+    @Test
+    void catchUp_filtersByProperty() throws Exception {
+        Long beach = createProperty("Beach House");
+        Long cabin = createProperty("Mountain Cabin");
+        Long guestId = createGuest();
+        Long bookingId = createBooking(beach, guestId, START, START.plusDays(3));
+        createBlock(cabin, START);
+        mockMvc.perform(put("/api/v1/bookings/{id}", bookingId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(cabin, guestId, START.plusDays(5), START.plusDays(8)))))
+                .andExpect(status().isOk());
+        awaitChanges(0, 3);
+
+        JsonNode beachChanges = catchUp("propertyId", beach.toString()).get("changes");
+
+        assertEquals(2, beachChanges.size());
+        assertEquals(1, beachChanges.get(0).get("position").asLong());
+        assertEquals(cabin, beachChanges.get(1).get("after").get("propertyId").asLong());
+        assertEquals(2, catchUp("propertyId", cabin.toString()).get("changes").size());
+    }
+
+    @Test
+    void catchUp_rejectedWrite_isNotInFeed() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        createBooking(propertyId, guestId, START, START.plusDays(3));
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(propertyId, guestId, START.plusDays(1), START.plusDays(2)))))
+                .andExpect(status().isConflict());
+        createBlock(propertyId, START.plusDays(5));
+
+        JsonNode changes = awaitChanges(0, 2);
+
+        assertEquals("BOOKING", changes.get(0).get("kind").asText());
+        assertEquals("BLOCK", changes.get(1).get("kind").asText());
+    }
+
+    @Test
+    void catchUp_invalidLimit_returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/changes/catch-up").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== STREAM ====================
+
+    @Test
+    void stream_pushesCommittedChanges() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        MvcResult stream = openStream(null);
+
+        Long bookingId = createBooking(propertyId, guestId, START, START.plusDays(3));
+
+        String body = awaitStream(stream, content -> content.contains("\"id\":" + bookingId));
+        assertTrue(body.startsWith("id:1\nevent:change\ndata:"), body);
+    }
+
+    @Test
+    void stream_resumesAfterLastEventId() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        for (int i = 0; i < 3; i++) {
+            createBooking(propertyId, guestId, START.plusDays(i * 5), START.plusDays(i * 5 + 2));
+        }
+        awaitChanges(0, 3);
+
+        MvcResult stream = openStream("1");
+        createBlock(propertyId, START.plusDays(20));
+
+        String body = awaitStream(stream, content -> content.contains("id:4"));
+        assertFalse(body.contains("id:1\n"), body);
+        assertTrue(body.indexOf("id:2") < body.indexOf("id:3") && body.indexOf("id:3") < body.indexOf("id:4"), body);
+    }
+
+    @Test
+    void stream_withoutPosition_sendsOnlyNewChanges() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        createBooking(propertyId, guestId, START, START.plusDays(3));
+        awaitChanges(0, 1);
+
+        MvcResult stream = openStream(null);
+        createBlock(propertyId, START.plusDays(5));
+
+        String body = awaitStream(stream, content -> content.contains("id:2"));
+        assertFalse(body.contains("id:1\n"), body);
+    }
+
+    // ==================== HELPERS ====================
+
+    private MvcResult openStream(String lastEventId) throws Exception {
+        var request = get("/api/v1/changes").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitStream(MvcResult stream, Predicate<String> condition) throws Exception {
+        MockHttpServletResponse response = stream.getResponse();
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString();
+            if (condition.test(content)) {
+                return content;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Stream did not receive the expected changes: " + response.getContentAsString());
+    }
+
+    private JsonNode awaitChanges(long since, int count) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            JsonNode changes = catchUp("since", String.valueOf(since)).get("changes");
+            if (changes.size() >= count) {
+                assertEquals(count, changes.size());
+                return changes;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Expected " + count + " published changes");
+    }
+
+    private JsonNode catchUp(String... params) throws Exception {
+        var request = get("/api/v1/changes/catch-up");
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        String json = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private BookingRequestDTO bookingRequest(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    private Long createBooking(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) throws Exception {
+        return postForId("/api/v1/bookings", bookingRequest(propertyId, guestId, startDate, endDate));
+    }
+
+    private Long createBlock(Long propertyId, LocalDate startDate) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(startDate.plusDays(2));
+        return postForId("/api/v1/blocks", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
@@ -0,0 +1,337 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies ETags on single-resource endpoints: 304 on a matching If-None-Match (answered from a versions-only
+ * query for bookings and blocks, whose tags include the embedded property and guest), and 412 when the If-Match of a
+ * write no longer matches.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ConditionalRequestIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long propertyId;
+    private Long guestId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        propertyId = postForId("/api/v1/properties", propertyJson("Beach House", null));
+        guestId = postForId("/api/v1/guests", guestJson("John Doe"));
+    }
+
+    // ==================== CONDITIONAL GET ====================
+
+    @Test
+    void getBooking_returnsBookingPropertyAndGuestVersionsAsETag() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.0.0\""))
+                .andExpect(jsonPath("$.version").value(0));
+    }
+
+    @Test
+    void getBooking_withMatchingIfNoneMatch_returns304FromVersionQuery() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0.0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.0.0\""))
+                .andExpect(content().string(""));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getBooking_afterUpdate_returnsNewETag() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(2, 6)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0.0\""));
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0.0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0.0\""))
+                .andExpect(jsonPath("$.startDate").value(LocalDate.now().plusDays(2).toString()));
+    }
+
+    @Test
+    void getBooking_afterPropertyOrGuestUpdate_returnsNewETagAndBody() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Lake House", null)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0.0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.1.0\""))
+                .andExpect(jsonPath("$.property.name").value("Lake House"));
+
+        mockMvc.perform(put("/api/v1/guests/{id}", guestId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guestJson("Jane Doe")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0.1.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.1.1\""))
+                .andExpect(jsonPath("$.guest.name").value("Jane Doe"));
+    }
+
+    @Test
+    void getBlock_withMatchingIfNoneMatch_returns304() throws Exception {
+        Long id = postForId("/api/v1/blocks", blockJson());
+
+        mockMvc.perform(get("/api/v1/blocks/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "W/\"0.0\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getBlock_afterPropertyUpdate_returnsNewETag() throws Exception {
+        Long id = postForId("/api/v1/blocks", blockJson());
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Lake House", null)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/blocks/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0.1\""))
+                .andExpect(jsonPath("$.property.name").value("Lake House"));
+    }
+
+    @Test
+    void getMissingBooking_withIfNoneMatch_returns404() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings/{id}", 999).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getPropertyAndGuest_withMatchingIfNoneMatch_return304() throws Exception {
+        mockMvc.perform(get("/api/v1/properties/{id}", propertyId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/guests/{id}", guestId)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/properties/{id}", propertyId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/guests/{id}", guestId).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void optimisticProperty_bookingWriteKeepsPropertyETag() throws Exception {
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Beach House", PropertyLockMode.OPTIMISTIC)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+        mockMvc.perform(get("/api/v1/properties/{id}", propertyId))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.1.0\""));
+
+        mockMvc.perform(get("/api/v1/properties/{id}", propertyId).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Lake House", PropertyLockMode.OPTIMISTIC)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
+    // ==================== CONDITIONAL WRITE ====================
+
+    @Test
+    void updateBooking_withCurrentIfMatch_succeeds() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(2, 6)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0.0\""))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void updateBooking_withTagFromBeforePropertyUpdate_succeeds() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Lake House", null)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0.0.0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(2, 6)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.1.0\""));
+    }
+
+    @Test
+    void updateBooking_withStaleIfMatch_returns412() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(2, 6)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(3, 7)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("If-Match requires version 0 but the current version is 1"));
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id))
+                .andExpect(jsonPath("$.startDate").value(LocalDate.now().plusDays(2).toString()));
+    }
+
+    @Test
+    void cancelBooking_withStaleIfMatch_returns412() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", id).header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", id).header(HttpHeaders.IF_MATCH, "\"0.0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0.0\""))
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    void updateBlock_withStaleIfMatch_returns412() throws Exception {
+        Long id = postForId("/api/v1/blocks", blockJson());
+
+        mockMvc.perform(put("/api/v1/blocks/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(blockJson()))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateGuest_withStaleIfMatch_returns412() throws Exception {
+        mockMvc.perform(put("/api/v1/guests/{id}", guestId)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guestJson("Jane Doe")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/api/v1/guests/{id}", guestId)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guestJson("Jim Doe")))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateProperty_withMalformedIfMatch_returns412() throws Exception {
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Mountain Cabin", null)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    // ==================== HELPERS ====================
+
+    private String propertyJson(String name, PropertyLockMode lockMode) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        dto.setLockMode(lockMode);
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String guestJson(String name) throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName(name);
+        dto.setEmail("john@example.com");
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String bookingJson(int startOffset, int endOffset) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(startOffset));
+        dto.setEndDate(LocalDate.now().plusDays(endOffset));
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String blockJson() throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(LocalDate.now().plusDays(10));
+        dto.setEndDate(LocalDate.now().plusDays(12));
+        dto.setReason("Maintenance");
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private Long postForId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
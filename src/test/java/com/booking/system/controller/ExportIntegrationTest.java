@@ -0,0 +1,237 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ExportIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // ==================== BOOKINGS ====================
+
+    @Test
+    void exportBookings_writesOneJsonObjectPerLine() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        Long first = createBooking(propertyId, guestId, START, START.plusDays(3));
+        Long second = createBooking(propertyId, guestId, START.plusDays(5), START.plusDays(8));
+
+        List<JsonNode> rows = exportNdjson("/api/v1/bookings/export");
+
+        assertEquals(2, rows.size());
+        assertEquals(first, rows.get(0).get("id").asLong());
+        assertEquals(second, rows.get(1).get("id").asLong());
+        assertEquals(propertyId, rows.get(0).get("propertyId").asLong());
+        assertEquals(guestId, rows.get(0).get("guestId").asLong());
+        assertEquals(START.toString(), rows.get(0).get("startDate").asText());
+        assertEquals("BOOKED", rows.get(0).get("status").asText());
+        assertEquals(0, rows.get(0).get("version").asLong());
+    }
+
+    @Test
+    void exportBookings_asCsv_writesHeaderAndRows() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        Long id = createBooking(propertyId, guestId, START, START.plusDays(3));
+
+        mockMvc.perform(get("/api/v1/bookings/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.csv\""))
+                .andExpect(content().string("id,propertyId,guestId,startDate,endDate,status,version\n"
+                        + id + "," + propertyId + "," + guestId + "," + START + "," + START.plusDays(3) + ",BOOKED,0\n"));
+    }
+
+    @Test
+    void exportBookings_filtersByPropertyStatusAndDates() throws Exception {
+        Long beach = createProperty("Beach House");
+        Long cabin = createProperty("Mountain Cabin");
+        Long guestId = createGuest();
+        Long early = createBooking(beach, guestId, START, START.plusDays(3));
+        Long late = createBooking(beach, guestId, START.plusDays(20), START.plusDays(23));
+        Long cancelled = createBooking(beach, guestId, START.plusDays(30), START.plusDays(33));
+        createBooking(cabin, guestId, START, START.plusDays(3));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", cancelled)).andExpect(status().isOk());
+
+        assertEquals(List.of(early, late, cancelled), ids(exportNdjson("/api/v1/bookings/export", "propertyId", beach.toString())));
+        assertEquals(List.of(cancelled), ids(exportNdjson("/api/v1/bookings/export", "status", "CANCELLED")));
+        assertEquals(List.of(late), ids(exportNdjson("/api/v1/bookings/export", "propertyId", beach.toString(),
+                "from", START.plusDays(3).toString(), "to", START.plusDays(21).toString())));
+    }
+
+    @Test
+    void exportBookings_invalidRange_returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings/export")
+                        .param("from", START.toString())
+                        .param("to", START.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("'from' must be before 'to'"));
+    }
+
+    @Test
+    void exportBookings_invalidFormat_returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/bookings/export").param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportBookings_beyondFetchSize_streamsAllRowsWithOneSelect() throws Exception {
+        int rows = 2500;
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            bookings.add(new Object[]{i, propertyId, guestId, START.plusDays(i % 300), START.plusDays(i % 300 + 1)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status, version) "
+                + "VALUES (?, ?, ?, ?, ?, 'BOOKED', 0)", bookings);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<JsonNode> exported = exportNdjson("/api/v1/bookings/export");
+
+        assertEquals(rows, exported.size());
+        assertEquals(1, exported.get(0).get("id").asLong());
+        assertEquals(rows, exported.get(rows - 1).get("id").asLong());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== BLOCKS ====================
+
+    @Test
+    void exportBlocks_asCsv_quotesReasons() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long id = createBlock(propertyId, "Repairs, painting");
+
+        mockMvc.perform(get("/api/v1/blocks/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"blocks.csv\""))
+                .andExpect(content().string("id,propertyId,startDate,endDate,reason,version\n"
+                        + id + "," + propertyId + "," + START + "," + START.plusDays(3) + ",\"Repairs, painting\",0\n"));
+    }
+
+    @Test
+    void exportBlocks_filtersByProperty() throws Exception {
+        Long beach = createProperty("Beach House");
+        Long cabin = createProperty("Mountain Cabin");
+        createBlock(beach, "Maintenance");
+        Long cabinBlock = createBlock(cabin, "Maintenance");
+
+        List<JsonNode> rows = exportNdjson("/api/v1/blocks/export", "propertyId", cabin.toString());
+
+        assertEquals(List.of(cabinBlock), ids(rows));
+        assertEquals("Maintenance", rows.get(0).get("reason").asText());
+    }
+
+    // ==================== HELPERS ====================
+
+    private List<JsonNode> exportNdjson(String url, String... params) throws Exception {
+        var request = get(url);
+        for (int i = 0; i < params.length; i += 2) {
+            request.param(params[i], params[i + 1]);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(body.isEmpty() || body.endsWith("\n"));
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private List<Long> ids(List<JsonNode> rows) {
+        return rows.stream().map(row -> row.get("id").asLong()).toList();
+    }
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long createBooking(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return postForId("/api/v1/bookings", dto);
+    }
+
+    private Long createBlock(Long propertyId, String reason) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(START);
+        dto.setEndDate(START.plusDays(3));
+        dto.setReason(reason);
+        return postForId("/api/v1/blocks", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
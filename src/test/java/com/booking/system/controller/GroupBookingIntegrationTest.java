@@ -0,0 +1,313 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GroupBookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.OccupancyRollupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Few stripes, so striped properties of one group share stripes and the lock order matters
+@SpringBootTest(properties = "booking.locking.stripes=4")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class GroupBookingIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OccupancyRollupService occupancyRollupService;
+
+    private Long guestId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        guestId = createGuest();
+    }
+
+    // ==================== ALL OR NOTHING ====================
+
+    @Test
+    void createGroup_allAvailable_createsAllInRequestOrder() throws Exception {
+        Long first = createProperty();
+        Long second = createProperty();
+        Long third = createProperty();
+
+        createGroup(stay(third, START), stay(first, START), stay(second, START.plusDays(5)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.bookings.length()").value(3))
+                .andExpect(jsonPath("$.bookings[0].property.id").value(third))
+                .andExpect(jsonPath("$.bookings[1].property.id").value(first))
+                .andExpect(jsonPath("$.bookings[2].startDate").value(START.plusDays(5).toString()))
+                .andExpect(jsonPath("$.bookings[2].status").value("BOOKED"));
+
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(3));
+    }
+
+    @Test
+    void createGroup_oneStayTaken_createsNone() throws Exception {
+        Long free = createProperty();
+        Long taken = createProperty();
+        createGroup(stay(taken, START.plusDays(1))).andExpect(status().isCreated());
+
+        createGroup(stay(free, START), stay(taken, START))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("The requested dates are already booked for property " + taken));
+
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void createGroup_stayOverBlock_returns409() throws Exception {
+        Long propertyId = createProperty();
+        mockMvc.perform(post("/api/v1/blocks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"propertyId\":" + propertyId + ",\"startDate\":\"" + START + "\",\"endDate\":\"" + START.plusDays(2) + "\"}"))
+                .andExpect(status().isCreated());
+
+        createGroup(stay(propertyId, START.plusDays(1)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("The requested dates are blocked for property " + propertyId));
+    }
+
+    @Test
+    void createGroup_overlappingStaysInGroup_returns409() throws Exception {
+        Long propertyId = createProperty();
+
+        createGroup(stay(propertyId, START), stay(createProperty(), START), stay(propertyId, START.plusDays(2)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("The group books property " + propertyId + " twice for overlapping dates"));
+
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void createGroup_adjacentStaysInGroup_areCreated() throws Exception {
+        Long propertyId = createProperty();
+
+        createGroup(stay(propertyId, START), stay(propertyId, START.plusDays(3)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void createGroup_unknownGuest_createsNone() throws Exception {
+        BookingRequestDTO unknownGuest = stay(createProperty(), START);
+        unknownGuest.setGuestId(999L);
+
+        createGroup(stay(createProperty(), START), unknownGuest)
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void createGroup_unknownProperty_returns404() throws Exception {
+        createGroup(stay(createProperty(), START), stay(999L, START))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void createGroup_empty_returns400() throws Exception {
+        createGroup().andExpect(status().isBadRequest());
+    }
+
+    // ==================== LOCK ORDERING ====================
+
+    @Test
+    void concurrentGroups_sameProperties_inOppositeOrder_allCommit() throws Exception {
+        Long first = createProperty();
+        Long second = createProperty();
+        int threads = 8;
+        int groupsPerThread = 5;
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                startGate.await();
+                int created = 0;
+                for (int i = 0; i < groupsPerThread; i++) {
+                    // Every group takes its own week, half of them listing the properties the other way round
+                    LocalDate start = START.plusDays(7L * (thread * groupsPerThread + i));
+                    ResultActions result = thread % 2 == 0
+                            ? createGroup(stay(first, start), stay(second, start))
+                            : createGroup(stay(second, start), stay(first, start));
+                    if (result.andReturn().getResponse().getStatus() == 201) {
+                        created++;
+                    }
+                }
+                return created;
+            }));
+        }
+        startGate.countDown();
+
+        int created = 0;
+        for (Future<Integer> result : results) {
+            created += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(threads * groupsPerThread, created);
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(2 * threads * groupsPerThread));
+    }
+
+    @Test
+    void concurrentGroups_duringRollupRebuilds_allCommit() throws Exception {
+        List<Long> propertyIds = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            propertyIds.add(createProperty(PropertyLockMode.STRIPED));
+        }
+        List<Long> reversed = propertyIds.reversed();
+        int threads = 4;
+        int groupsPerThread = 5;
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        // Rebuild chunks lock the same properties as the groups, for as long as the groups are being written
+        Future<Integer> rebuilds = executor.submit(() -> {
+            startGate.await();
+            int count = 0;
+            while (writing.get()) {
+                occupancyRollupService.rebuild();
+                count++;
+            }
+            return count;
+        });
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                startGate.await();
+                int created = 0;
+                for (int i = 0; i < groupsPerThread; i++) {
+                    LocalDate start = START.plusDays(7L * (thread * groupsPerThread + i));
+                    List<Long> order = thread % 2 == 0 ? propertyIds : reversed;
+                    BookingRequestDTO[] stays = order.stream().map(id -> stay(id, start)).toArray(BookingRequestDTO[]::new);
+                    if (createGroup(stays).andReturn().getResponse().getStatus() == 201) {
+                        created++;
+                    }
+                }
+                return created;
+            }));
+        }
+        startGate.countDown();
+
+        int created = 0;
+        for (Future<Integer> result : results) {
+            created += result.get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        int rebuildCount = rebuilds.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(threads * groupsPerThread, created);
+        assertTrue(rebuildCount > 0);
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(propertyIds.size() * threads * groupsPerThread));
+    }
+
+    @Test
+    void update_movesBookingToAnotherProperty() throws Exception {
+        Long from = createProperty();
+        Long to = createProperty();
+        String json = createGroup(stay(from, START)).andReturn().getResponse().getContentAsString();
+        long bookingId = objectMapper.readTree(json).get("bookings").get(0).get("id").asLong();
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", bookingId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stay(to, START))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.property.id").value(to));
+
+        // The old property's dates are free again
+        createGroup(stay(from, START)).andExpect(status().isCreated());
+    }
+
+    // ==================== HELPERS ====================
+
+    private ResultActions createGroup(BookingRequestDTO... stays) throws Exception {
+        return mockMvc.perform(post("/api/v1/bookings/group")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new GroupBookingRequestDTO(List.of(stays)))));
+    }
+
+    private BookingRequestDTO stay(Long propertyId, LocalDate startDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(startDate.plusDays(3));
+        return dto;
+    }
+
+    private Long createProperty() throws Exception {
+        return createProperty(null);
+    }
+
+    private Long createProperty(PropertyLockMode lockMode) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        dto.setLockMode(lockMode);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
@@ -0,0 +1,325 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "booking.idempotency.persistent=true"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class IdempotencyIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // ==================== REPLAY ====================
+
+    @Test
+    void create_retryWithSameKey_replaysWithoutQueries() throws Exception {
+        BookingRequestDTO request = bookingRequest(createProperty(), createGuest(), START, START.plusDays(3));
+        String body = createBooking(request, "key-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        createBooking(request, "key-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(result -> assertEquals(body, result.getResponse().getContentAsString()));
+
+        // No property lock, no overlap query
+        assertEquals(0, statistics.getPrepareStatementCount());
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void create_retryWithoutKey_isAConflict() throws Exception {
+        BookingRequestDTO request = bookingRequest(createProperty(), createGuest(), START, START.plusDays(3));
+        createBooking(request, null).andExpect(status().isCreated());
+
+        createBooking(request, null).andExpect(status().isConflict());
+    }
+
+    @Test
+    void cancel_retry_replaysOriginalResponse() throws Exception {
+        Long bookingId = createBookingId(bookingRequest(createProperty(), createGuest(), START, START.plusDays(3)));
+        String etag = mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId).header(IdempotencyService.HEADER, "cancel-1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId).header(IdempotencyService.HEADER, "cancel-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void update_retry_replaysOriginalVersion() throws Exception {
+        Long propertyId = createProperty();
+        Long guestId = createGuest();
+        Long bookingId = createBookingId(bookingRequest(propertyId, guestId, START, START.plusDays(3)));
+        BookingRequestDTO update = bookingRequest(propertyId, guestId, START.plusDays(1), START.plusDays(4));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(put("/api/v1/bookings/{id}", bookingId)
+                            .header(IdempotencyService.HEADER, "update-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(update)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.version").value(1));
+        }
+    }
+
+    @Test
+    void createBlock_retry_replaysOriginalResponse() throws Exception {
+        BlockRequestDTO request = new BlockRequestDTO();
+        request.setPropertyId(createProperty());
+        request.setStartDate(START);
+        request.setEndDate(START.plusDays(2));
+
+        Long first = createBlockId(request, "block-1");
+        Long second = createBlockId(request, "block-1");
+
+        assertEquals(first, second);
+    }
+
+    // ==================== KEY REUSE AND FAILURES ====================
+
+    @Test
+    void create_sameKeyDifferentRequest_returns422() throws Exception {
+        Long propertyId = createProperty();
+        Long guestId = createGuest();
+        createBooking(bookingRequest(propertyId, guestId, START, START.plusDays(3)), "key-1")
+                .andExpect(status().isCreated());
+
+        createBooking(bookingRequest(propertyId, guestId, START.plusDays(5), START.plusDays(7)), "key-1")
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", 1L).header(IdempotencyService.HEADER, "key-1"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void cancel_sameKeyDifferentIfMatch_returns422() throws Exception {
+        Long bookingId = createBookingId(bookingRequest(createProperty(), createGuest(), START, START.plusDays(3)));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)
+                        .header(IdempotencyService.HEADER, "cancel-1")
+                        .header(HttpHeaders.IF_MATCH, "\"0.0.0\""))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)
+                        .header(IdempotencyService.HEADER, "cancel-1")
+                        .header(HttpHeaders.IF_MATCH, "\"0.0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)
+                        .header(IdempotencyService.HEADER, "cancel-1")
+                        .header(HttpHeaders.IF_MATCH, "\"5.0.0\""))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)
+                        .header(IdempotencyService.HEADER, "cancel-1"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void create_failedRequest_isNotRecorded() throws Exception {
+        Long propertyId = createProperty();
+        BlockRequestDTO block = new BlockRequestDTO();
+        block.setPropertyId(propertyId);
+        block.setStartDate(START);
+        block.setEndDate(START.plusDays(5));
+        Long blockId = createBlockId(block, null);
+        BookingRequestDTO request = bookingRequest(propertyId, createGuest(), START, START.plusDays(3));
+        createBooking(request, "key-1").andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/v1/blocks/{id}", blockId)).andExpect(status().isNoContent());
+
+        createBooking(request, "key-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void create_keyTooLong_returns400() throws Exception {
+        BookingRequestDTO request = bookingRequest(createProperty(), createGuest(), START, START.plusDays(3));
+
+        createBooking(request, "k".repeat(256)).andExpect(status().isBadRequest());
+    }
+
+    // ==================== CONCURRENCY AND PERSISTENCE ====================
+
+    @Test
+    void create_concurrentDuplicates_createOneBooking() throws Exception {
+        BookingRequestDTO request = bookingRequest(createProperty(), createGuest(), START, START.plusDays(3));
+        int threads = 8;
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                return createBooking(request, "key-1").andReturn().getResponse();
+            }));
+        }
+        ready.await();
+        go.countDown();
+
+        Set<Long> ids = new HashSet<>();
+        for (Future<MockHttpServletResponse> future : futures) {
+            MockHttpServletResponse response = future.get();
+            assertEquals(201, response.getStatus(), response.getContentAsString());
+            ids.add(objectMapper.readTree(response.getContentAsString()).get("id").asLong());
+        }
+        executor.shutdown();
+
+        assertEquals(1, ids.size());
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void create_keyRecordedByAnotherNode_isReplayedFromTable() throws Exception {
+        BookingRequestDTO request = bookingRequest(createProperty(), createGuest(), START, START.plusDays(3));
+        Long bookingId = createBookingId(request, "key-1");
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT fingerprint, status, etag, body FROM idempotency_record WHERE idempotency_key = 'key-1'");
+        assertEquals(201, ((Number) row.get("status")).intValue());
+        jdbcTemplate.update("INSERT INTO idempotency_record (idempotency_key, fingerprint, status, etag, body, created_at) "
+                        + "VALUES ('key-2', ?, ?, ?, ?, ?)",
+                row.get("fingerprint"), row.get("status"), row.get("etag"), row.get("body"), OffsetDateTime.now());
+
+        createBooking(request, "key-2")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(bookingId));
+    }
+
+    // ==================== HELPERS ====================
+
+    private ResultActions createBooking(BookingRequestDTO request, String idempotencyKey) throws Exception {
+        var builder = post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+        if (idempotencyKey != null) {
+            builder.header(IdempotencyService.HEADER, idempotencyKey);
+        }
+        return mockMvc.perform(builder);
+    }
+
+    private Long createBookingId(BookingRequestDTO request) throws Exception {
+        return createBookingId(request, null);
+    }
+
+    private Long createBookingId(BookingRequestDTO request, String idempotencyKey) throws Exception {
+        String json = createBooking(request, idempotencyKey)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private Long createBlockId(BlockRequestDTO request, String idempotencyKey) throws Exception {
+        var builder = post("/api/v1/blocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+        if (idempotencyKey != null) {
+            builder.header(IdempotencyService.HEADER, idempotencyKey);
+        }
+        String json = mockMvc.perform(builder)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private BookingRequestDTO bookingRequest(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    private Long createProperty() throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
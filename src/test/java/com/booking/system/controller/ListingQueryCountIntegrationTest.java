@@ -0,0 +1,143 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 selects in the listing endpoints: a page costs one select for the rows
+ * (associations included) plus one count, no matter how many distinct properties and guests it shows.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ListingQueryCountIntegrationTest {
+
+    private static final int ROWS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void bookingsPage_usesOneSelectPlusCount() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            Long propertyId = createProperty("Property " + i);
+            Long guestId = createGuest("Guest " + i, "guest" + i + "@example.com");
+            createBooking(propertyId, guestId);
+        }
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/bookings").param("size", String.valueOf(ROWS - 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(ROWS - 1))
+                .andExpect(jsonPath("$.content[0].property.name").value("Property " + (ROWS - 1)))
+                .andExpect(jsonPath("$.content[0].guest.name").value("Guest " + (ROWS - 1)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void blocksPage_usesOneSelectPlusCount() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            createBlock(createProperty("Property " + i));
+        }
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/blocks").param("size", String.valueOf(ROWS - 1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(ROWS - 1))
+                .andExpect(jsonPath("$.content[0].property.name").value("Property " + (ROWS - 1)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void singleBooking_usesOneSelect() throws Exception {
+        Long id = createBooking(createProperty("Beach House"), createGuest("John Doe", "john@example.com"));
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/bookings/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.property.name").value("Beach House"))
+                .andExpect(jsonPath("$.guest.name").value("John Doe"));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    // ==================== HELPERS ====================
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest(String name, String email) throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName(name);
+        dto.setEmail(email);
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long createBooking(Long propertyId, Long guestId) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(1));
+        dto.setEndDate(LocalDate.now().plusDays(5));
+        return postForId("/api/v1/bookings", dto);
+    }
+
+    private void createBlock(Long propertyId) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(LocalDate.now().plusDays(1));
+        dto.setEndDate(LocalDate.now().plusDays(5));
+        postForId("/api/v1/blocks", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
@@ -0,0 +1,191 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.PropertyLockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds a property's lock in another transaction, then checks a write to it gives up after
+ * {@code booking.locking.wait-timeout} with 503 and Retry-After, and succeeds when the lock frees up between retries.
+ * Runs on the default datasource URL, so the row lock wait is bounded by the timeout alone.
+ */
+@SpringBootTest(properties = {
+        "booking.locking.wait-timeout=100ms",
+        "booking.locking.retry.max-attempts=3",
+        "booking.locking.retry.delay-ms=50"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LockTimeoutIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PropertyLockService propertyLockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void create_stripedLockHeld_returns503WithRetryAfter() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.STRIPED);
+        Long guestId = createGuest();
+        holdLock(propertyId);
+
+        createBooking(propertyId, guestId)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value(containsString("Property " + propertyId + " is busy")));
+
+        assertEquals(3, timeouts(PropertyLockMode.STRIPED));
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+    }
+
+    @Test
+    void create_rowLockHeld_returns503() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.PESSIMISTIC);
+        Long guestId = createGuest();
+        holdLock(propertyId);
+
+        long started = System.nanoTime();
+        createBooking(propertyId, guestId)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        assertEquals(3, timeouts(PropertyLockMode.PESSIMISTIC));
+        // Three waits of 100ms plus backoff; H2's own one-second default would take over three seconds
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void create_lockReleasedBetweenRetries_isCreated() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.STRIPED);
+        Long guestId = createGuest();
+        holdLock(propertyId);
+
+        Future<Integer> write = executor.submit(() ->
+                createBooking(propertyId, guestId).andReturn().getResponse().getStatus());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (timeouts(PropertyLockMode.STRIPED) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals(201, write.get(5, TimeUnit.SECONDS));
+        assertEquals(1, timeouts(PropertyLockMode.STRIPED));
+    }
+
+    // ==================== HELPERS ====================
+
+    /** Takes the property's lock in a transaction that stays open until the test ends. */
+    private void holdLock(Long propertyId) throws InterruptedException {
+        CountDownLatch held = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            propertyLockService.lock(propertyId);
+            held.countDown();
+            awaitRelease();
+        }));
+        assertTrue(held.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long timeouts(PropertyLockMode mode) {
+        var counter = meterRegistry.find("booking.property.lock.timeouts").tag("mode", mode.name()).counter();
+        return counter == null ? 0 : (long) counter.count();
+    }
+
+    private ResultActions createBooking(Long propertyId, Long guestId) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(START);
+        dto.setEndDate(START.plusDays(3));
+        return mockMvc.perform(post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+    }
+
+    private Long createProperty(PropertyLockMode lockMode) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        dto.setLockMode(lockMode);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
@@ -0,0 +1,213 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.Guest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies property and guest lookups are served from the cache, that updates and deletes evict,
+ * and that the booking write path no longer loads the guest once it is cached.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class LookupCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ==================== LOOKUPS ====================
+
+    @Test
+    void getProperty_secondLookupRunsNoQuery() throws Exception {
+        Long id = postForId("/api/v1/properties", propertyJson("Beach House"));
+        mockMvc.perform(get("/api/v1/properties/{id}", id)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/properties/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Beach House"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getGuest_secondLookupRunsNoQuery() throws Exception {
+        Long id = postForId("/api/v1/guests", guestJson("John Doe"));
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/guests/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void missingGuest_isNotCached() throws Exception {
+        mockMvc.perform(get("/api/v1/guests/{id}", 999)).andExpect(status().isNotFound());
+        Long id = postForId("/api/v1/guests", guestJson("John Doe"));
+
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isOk());
+    }
+
+    // ==================== EVICTION ====================
+
+    @Test
+    void updateProperty_evictsCachedLookup() throws Exception {
+        Long id = postForId("/api/v1/properties", propertyJson("Beach House"));
+        mockMvc.perform(get("/api/v1/properties/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/v1/properties/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Mountain Cabin")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/properties/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Mountain Cabin"));
+    }
+
+    @Test
+    void deleteProperty_evictsCachedLookup() throws Exception {
+        Long id = postForId("/api/v1/properties", propertyJson("Beach House"));
+        mockMvc.perform(get("/api/v1/properties/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/v1/properties/{id}", id)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/properties/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateGuest_evictsCachedLookup() throws Exception {
+        Long id = postForId("/api/v1/guests", guestJson("John Doe"));
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/v1/guests/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guestJson("Jane Doe")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/guests/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Jane Doe"));
+    }
+
+    @Test
+    void deleteGuest_evictsCachedLookup() throws Exception {
+        Long id = postForId("/api/v1/guests", guestJson("John Doe"));
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/v1/guests/{id}", id)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isNotFound());
+    }
+
+    // ==================== BOOKING PATH ====================
+
+    @Test
+    void createBooking_withCachedGuest_doesNotLoadGuest() throws Exception {
+        Long propertyId = postForId("/api/v1/properties", propertyJson("Beach House"));
+        Long guestId = postForId("/api/v1/guests", guestJson("John Doe"));
+        mockMvc.perform(get("/api/v1/guests/{id}", guestId)).andExpect(status().isOk());
+        statistics.clear();
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(propertyId, guestId)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.guest.name").value("John Doe"));
+
+        assertEquals(0, statistics.getEntityStatistics(Guest.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Guest.class.getName()).getFetchCount());
+    }
+
+    @Test
+    void cacheStats_arePublished() throws Exception {
+        Long id = postForId("/api/v1/guests", guestJson("John Doe"));
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/guests/{id}", id)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"guests\",cache_manager=\"cacheManager\",name=\"guests\",result=\"hit\"} 1")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"guests\",cache_manager=\"cacheManager\",name=\"guests\",result=\"miss\"} 1")))
+                .andExpect(content().string(containsString("cache_evictions_total{cache=\"guests\"")));
+    }
+
+    // ==================== HELPERS ====================
+
+    private String propertyJson(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String guestJson(String name) throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName(name);
+        dto.setEmail("john@example.com");
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String bookingJson(Long propertyId, Long guestId) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(1));
+        dto.setEndDate(LocalDate.now().plusDays(5));
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private Long postForId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,142 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies the service-layer timers, lock wait and overlap check histograms and the
+ * per-property conflict counter are published on the Prometheus endpoint.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MetricsIntegrationTest {
+
+    private static final String SERVICE = "com.booking.system.service.BookingService";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long propertyId;
+    private Long guestId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        propertyId = postForId("/api/v1/properties", propertyJson());
+        guestId = postForId("/api/v1/guests", guestJson());
+    }
+
+    @Test
+    void bookingLifecycle_isTimedPerOperation() throws Exception {
+        Long id = postForId("/api/v1/bookings", bookingJson(1, 5));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", id)).andExpect(status().isOk());
+        mockMvc.perform(patch("/api/v1/bookings/{id}/rebook", id)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/bookings/{id}", id)).andExpect(status().isNoContent());
+
+        scrape()
+                .andExpect(content().string(containsString(
+                        "booking_service_seconds_count{class=\"" + SERVICE + "\",exception=\"none\",method=\"create\"} 1")))
+                .andExpect(content().string(containsString("method=\"cancel\"")))
+                .andExpect(content().string(containsString("method=\"rebook\"")))
+                .andExpect(content().string(containsString("method=\"delete\"")))
+                .andExpect(content().string(containsString("booking_service_seconds_bucket")));
+    }
+
+    @Test
+    void lockWaitAndOverlapChecks_areHistograms() throws Exception {
+        postForId("/api/v1/bookings", bookingJson(1, 5));
+
+        scrape()
+                .andExpect(content().string(containsString(
+                        "booking_property_lock_wait_seconds_count{mode=\"PESSIMISTIC\"} 1")))
+                .andExpect(content().string(containsString("booking_property_lock_wait_seconds_bucket")))
+                .andExpect(content().string(containsString(
+                        "booking_overlap_check_seconds_count{kind=\"BOOKING\",source=\"database\"} 1")))
+                .andExpect(content().string(containsString(
+                        "booking_overlap_check_seconds_count{kind=\"BLOCK\",source=\"database\"} 1")));
+    }
+
+    @Test
+    void conflicts_areCountedPerProperty() throws Exception {
+        postForId("/api/v1/bookings", bookingJson(1, 5));
+        postBooking(2, 4).andExpect(status().isConflict());
+        postBooking(3, 6).andExpect(status().isConflict());
+
+        scrape()
+                .andExpect(content().string(containsString(
+                        "booking_conflicts_total{kind=\"BOOKING\",property=\"" + propertyId + "\"} 2.0")))
+                .andExpect(content().string(containsString(
+                        "booking_service_seconds_count{class=\"" + SERVICE + "\",exception=\"DateAlreadyBookedException\",method=\"create\"} 2")));
+    }
+
+    // ==================== HELPERS ====================
+
+    private ResultActions scrape() throws Exception {
+        return mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+
+    private String propertyJson() throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String guestJson() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String bookingJson(int startOffset, int endOffset) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(startOffset));
+        dto.setEndDate(LocalDate.now().plusDays(endOffset));
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private ResultActions postBooking(int startOffset, int endOffset) throws Exception {
+        return mockMvc.perform(post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookingJson(startOffset, endOffset)));
+    }
+
+    private Long postForId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
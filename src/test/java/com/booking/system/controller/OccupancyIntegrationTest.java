@@ -0,0 +1,205 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OccupancyIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.now().plusDays(1);
+    private static final int DAYS_IN_MONTH = (int) ChronoUnit.DAYS.between(FROM, FROM.plusMonths(1));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // ==================== SINGLE PROPERTY ====================
+
+    @Test
+    void occupancy_encodesNightsAsRuns() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        Long guestId = createGuest();
+        createBooking(propertyId, guestId, FROM.plusDays(2), FROM.plusDays(5));
+        createBlock(propertyId, FROM.plusDays(7), FROM.plusDays(9));
+        Long cancelled = createBooking(propertyId, guestId, FROM.plusDays(12), FROM.plusDays(15));
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", cancelled)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/properties/{id}/occupancy", propertyId)
+                        .param("from", FROM.toString())
+                        .param("months", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propertyId").value(propertyId))
+                .andExpect(jsonPath("$.from").value(FROM.toString()))
+                .andExpect(jsonPath("$.to").value(FROM.plusMonths(1).toString()))
+                .andExpect(jsonPath("$.runs.length()").value(5))
+                .andExpect(jsonPath("$.runs[0].state").value("FREE"))
+                .andExpect(jsonPath("$.runs[0].nights").value(2))
+                .andExpect(jsonPath("$.runs[1].state").value("BOOKED"))
+                .andExpect(jsonPath("$.runs[1].nights").value(3))
+                .andExpect(jsonPath("$.runs[2].state").value("FREE"))
+                .andExpect(jsonPath("$.runs[2].nights").value(2))
+                .andExpect(jsonPath("$.runs[3].state").value("BLOCKED"))
+                .andExpect(jsonPath("$.runs[3].nights").value(2))
+                .andExpect(jsonPath("$.runs[4].state").value("FREE"))
+                .andExpect(jsonPath("$.runs[4].nights").value(DAYS_IN_MONTH - 9));
+    }
+
+    @Test
+    void occupancy_clipsStaysCrossingTheRange() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        createBooking(propertyId, createGuest(), FROM, FROM.plusDays(5));
+
+        mockMvc.perform(get("/api/v1/properties/{id}/occupancy", propertyId)
+                        .param("from", FROM.plusDays(3).toString())
+                        .param("months", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.runs[0].state").value("BOOKED"))
+                .andExpect(jsonPath("$.runs[0].nights").value(2))
+                .andExpect(jsonPath("$.runs[1].state").value("FREE"));
+    }
+
+    @Test
+    void occupancy_defaultsToTwelveMonthsFromStartOfMonth() throws Exception {
+        Long propertyId = createProperty("Beach House");
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+
+        mockMvc.perform(get("/api/v1/properties/{id}/occupancy", propertyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value(monthStart.toString()))
+                .andExpect(jsonPath("$.to").value(monthStart.plusMonths(12).toString()))
+                .andExpect(jsonPath("$.runs.length()").value(1))
+                .andExpect(jsonPath("$.runs[0].nights").value(ChronoUnit.DAYS.between(monthStart, monthStart.plusMonths(12))));
+    }
+
+    @Test
+    void occupancy_unknownProperty_returns404() throws Exception {
+        mockMvc.perform(get("/api/v1/properties/{id}/occupancy", 999))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void occupancy_tooManyMonths_returns400() throws Exception {
+        Long propertyId = createProperty("Beach House");
+
+        mockMvc.perform(get("/api/v1/properties/{id}/occupancy", propertyId).param("months", "25"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== MANY PROPERTIES ====================
+
+    @Test
+    void occupancy_manyProperties_keepsRequestOrderWithOneRangeQuery() throws Exception {
+        Long beach = createProperty("Beach House");
+        Long cabin = createProperty("Mountain Cabin");
+        createBooking(beach, createGuest(), FROM, FROM.plusDays(3));
+        createBlock(cabin, FROM.plusDays(1), FROM.plusDays(2));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/v1/properties/occupancy")
+                        .param("ids", cabin + "," + beach + "," + cabin)
+                        .param("from", FROM.toString())
+                        .param("months", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].propertyId").value(cabin))
+                .andExpect(jsonPath("$[0].runs[1].state").value("BLOCKED"))
+                .andExpect(jsonPath("$[1].propertyId").value(beach))
+                .andExpect(jsonPath("$[1].runs[0].state").value("BOOKED"))
+                .andExpect(jsonPath("$[1].runs[0].nights").value(3));
+
+        // Existence check plus the bookings-and-blocks query
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void occupancy_manyProperties_unknownId_returns404() throws Exception {
+        Long beach = createProperty("Beach House");
+
+        mockMvc.perform(get("/api/v1/properties/occupancy").param("ids", beach + ",999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void occupancy_manyProperties_tooManyIds_returns400() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        mockMvc.perform(get("/api/v1/properties/occupancy").param("ids", ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== HELPERS ====================
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long createBooking(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return postForId("/api/v1/bookings", dto);
+    }
+
+    private void createBlock(Long propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        postForId("/api/v1/blocks", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
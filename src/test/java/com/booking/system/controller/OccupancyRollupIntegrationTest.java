@@ -0,0 +1,301 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.service.OccupancyRollupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OccupancyRollupIntegrationTest {
+
+    /** A future month; its last two nights and the next month's first two are booked in most tests. */
+    private static final YearMonth MONTH = YearMonth.now().plusMonths(2);
+    private static final YearMonth NEXT_MONTH = MONTH.plusMonths(1);
+    private static final LocalDate CROSSING_START = MONTH.atEndOfMonth().minusDays(1);
+    private static final LocalDate CROSSING_END = NEXT_MONTH.atDay(3);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OccupancyRollupService occupancyRollupService;
+
+    // ==================== INCREMENTAL UPDATES ====================
+
+    @Test
+    void bookingCreate_splitsNightsAcrossMonths() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+        createBooking(propertyId, createGuest(), CROSSING_START, CROSSING_END);
+
+        propertyRates(propertyId)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.propertyId").value(propertyId))
+                .andExpect(jsonPath("$.months.length()").value(2))
+                .andExpect(jsonPath("$.months[0].month").value(MONTH.toString()))
+                .andExpect(jsonPath("$.months[0].nights").value(MONTH.lengthOfMonth()))
+                .andExpect(jsonPath("$.months[0].bookedNights").value(2))
+                .andExpect(jsonPath("$.months[1].month").value(NEXT_MONTH.toString()))
+                .andExpect(jsonPath("$.months[1].bookedNights").value(2))
+                .andExpect(jsonPath("$.months[1].blockedNights").value(0));
+    }
+
+    @Test
+    void bookingUpdateCancelRebookDelete_keepRollupInStep() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+        Long guestId = createGuest();
+        Long bookingId = createBooking(propertyId, guestId, CROSSING_START, CROSSING_END);
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", bookingId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(propertyId, guestId, NEXT_MONTH.atDay(1), NEXT_MONTH.atDay(6)))))
+                .andExpect(status().isOk());
+        assertBookedNights(propertyId, 0, 5);
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId)).andExpect(status().isOk());
+        assertBookedNights(propertyId, 0, 0);
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/rebook", bookingId)).andExpect(status().isOk());
+        assertBookedNights(propertyId, 0, 5);
+
+        mockMvc.perform(delete("/api/v1/bookings/{id}", bookingId)).andExpect(status().isNoContent());
+        assertBookedNights(propertyId, 0, 0);
+    }
+
+    @Test
+    void blocks_countAsUnsellableNights() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+        createBooking(propertyId, createGuest(), MONTH.atDay(1), MONTH.atDay(11));
+        createBlock(propertyId, MONTH.atDay(11), MONTH.atDay(21));
+        int sellable = MONTH.lengthOfMonth() - 10;
+
+        propertyRates(propertyId)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.months[0].bookedNights").value(10))
+                .andExpect(jsonPath("$.months[0].blockedNights").value(10))
+                .andExpect(jsonPath("$.months[0].occupancyRate").value(Math.round(10_000.0 * 10 / sellable) / 10_000.0));
+    }
+
+    @Test
+    void propertyDelete_removesItsRollup() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+        Long blockId = createBlock(propertyId, MONTH.atDay(1), MONTH.atDay(5));
+        mockMvc.perform(delete("/api/v1/blocks/{id}", blockId)).andExpect(status().isNoContent());
+
+        mockMvc.perform(delete("/api/v1/properties/{id}", propertyId)).andExpect(status().isNoContent());
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM occupancy_rollup", Integer.class));
+    }
+
+    // ==================== REPORTS ====================
+
+    @Test
+    void typeRates_sumPropertiesOfEachType() throws Exception {
+        Long guestId = createGuest();
+        Long beach = createProperty("Beach House", PropertyType.HOUSE);
+        Long lake = createProperty("Lake House", PropertyType.HOUSE);
+        createProperty("City Studio", PropertyType.STUDIO);
+        createBooking(beach, guestId, MONTH.atDay(1), MONTH.atDay(4));
+        createBooking(lake, guestId, MONTH.atDay(10), MONTH.atDay(15));
+
+        mockMvc.perform(get("/api/v1/reports/occupancy/types")
+                        .param("from", MONTH.toString())
+                        .param("to", MONTH.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].type").value("HOUSE"))
+                .andExpect(jsonPath("$[0].properties").value(2))
+                .andExpect(jsonPath("$[0].months[0].nights").value(2 * MONTH.lengthOfMonth()))
+                .andExpect(jsonPath("$[0].months[0].bookedNights").value(8))
+                .andExpect(jsonPath("$[1].type").value("STUDIO"))
+                .andExpect(jsonPath("$[1].months[0].bookedNights").value(0))
+                .andExpect(jsonPath("$[1].months[0].occupancyRate").value(0.0));
+    }
+
+    @Test
+    void propertyRates_invalidRange_returns400() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+
+        mockMvc.perform(get("/api/v1/reports/occupancy/properties/{id}", propertyId)
+                        .param("from", NEXT_MONTH.toString())
+                        .param("to", MONTH.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void propertyRates_unknownProperty_returns404() throws Exception {
+        mockMvc.perform(get("/api/v1/reports/occupancy/properties/{id}", 999))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== REBUILD ====================
+
+    @Test
+    void rebuild_restoresRollupAcrossChunks() throws Exception {
+        int properties = 150;
+        Long guestId = createGuest();
+        List<Object[]> propertyRows = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        for (int i = 1; i <= properties; i++) {
+            propertyRows.add(new Object[]{1000 + i, "Property " + i});
+            bookingRows.add(new Object[]{i, 1000 + i, guestId, CROSSING_START, CROSSING_END});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO property (id, name, type, lock_mode, version) VALUES (?, ?, 'HOUSE', 'PESSIMISTIC', 0)", propertyRows);
+        jdbcTemplate.batchUpdate("INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status, version) "
+                + "VALUES (?, ?, ?, ?, ?, 'BOOKED', 0)", bookingRows);
+
+        mockMvc.perform(post("/api/v1/reports/occupancy/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.properties").value(properties))
+                .andExpect(jsonPath("$.rows").value(2 * properties));
+
+        mockMvc.perform(get("/api/v1/reports/occupancy/types")
+                        .param("from", MONTH.toString())
+                        .param("to", NEXT_MONTH.toString()))
+                .andExpect(jsonPath("$[0].properties").value(properties))
+                .andExpect(jsonPath("$[0].months[0].bookedNights").value(2 * properties))
+                .andExpect(jsonPath("$[0].months[1].bookedNights").value(2 * properties));
+    }
+
+    @Test
+    void rebuild_correctsDriftedRows() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+        createBooking(propertyId, createGuest(), CROSSING_START, CROSSING_END);
+        jdbcTemplate.update("UPDATE occupancy_rollup SET booked_nights = 99");
+
+        mockMvc.perform(post("/api/v1/reports/occupancy/rebuild")).andExpect(status().isOk());
+
+        assertBookedNights(propertyId, 2, 2);
+    }
+
+    @Test
+    void cancelAndDelete_duringRebuilds_keepRollupInStep() throws Exception {
+        Long propertyId = createProperty("Beach House", PropertyType.HOUSE);
+        Long guestId = createGuest();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int day = 1; day <= 20; day++) {
+            bookingIds.add(createBooking(propertyId, guestId, MONTH.atDay(day), MONTH.atDay(day + 1)));
+        }
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> rebuilds = executor.submit(() -> {
+            while (writing.get()) {
+                occupancyRollupService.rebuild();
+            }
+        });
+        try {
+            for (int i = 0; i < bookingIds.size(); i++) {
+                // Neither is counted twice nor left behind by a rebuild that read the booking before it changed
+                if (i % 2 == 0) {
+                    mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingIds.get(i))).andExpect(status().isOk());
+                } else {
+                    mockMvc.perform(delete("/api/v1/bookings/{id}", bookingIds.get(i))).andExpect(status().isNoContent());
+                }
+            }
+        } finally {
+            writing.set(false);
+            rebuilds.get(30, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+
+        assertBookedNights(propertyId, 0, 0);
+    }
+
+    // ==================== HELPERS ====================
+
+    private ResultActions propertyRates(Long propertyId) throws Exception {
+        return mockMvc.perform(get("/api/v1/reports/occupancy/properties/{id}", propertyId)
+                .param("from", MONTH.toString())
+                .param("to", NEXT_MONTH.toString()));
+    }
+
+    private void assertBookedNights(Long propertyId, int month, int nextMonth) throws Exception {
+        propertyRates(propertyId)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.months[0].bookedNights").value(month))
+                .andExpect(jsonPath("$.months[1].bookedNights").value(nextMonth));
+    }
+
+    private Long createProperty(String name, PropertyType type) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(type);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private BookingRequestDTO bookingRequest(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    private Long createBooking(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) throws Exception {
+        return postForId("/api/v1/bookings", bookingRequest(propertyId, guestId, startDate, endDate));
+    }
+
+    private Long createBlock(Long propertyId, LocalDate startDate, LocalDate endDate) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return postForId("/api/v1/blocks", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
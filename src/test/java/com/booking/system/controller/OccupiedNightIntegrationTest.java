@@ -0,0 +1,248 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.OccupancyKind;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.model.OccupiedNight;
+import com.booking.system.repository.OccupiedNightRepository;
+import com.booking.system.service.OccupiedNightService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the overlap scenarios with {@code booking.overlap.enforcement=night-table}: no property lock and no
+ * overlap queries, conflicts are rejected by the unique (property_id, night) key and answered with 409.
+ */
+@SpringBootTest(properties = "booking.overlap.enforcement=night-table")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OccupiedNightIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OccupiedNightRepository occupiedNightRepository;
+
+    @Autowired
+    private OccupiedNightService occupiedNightService;
+
+    private Long propertyId;
+    private Long guestId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        propertyId = createProperty("Beach House");
+        guestId = createGuest();
+    }
+
+    // ==================== BOOKINGS ====================
+
+    @Test
+    void overlappingBooking_isRejectedByUniqueKey() throws Exception {
+        createBooking(propertyId, 1, 5);
+
+        postBooking(propertyId, 3, 7)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("The requested dates are already booked or blocked for this property"));
+        postBooking(propertyId, 5, 10).andExpect(status().isCreated());
+        assertEquals(9, occupiedNightRepository.count());
+    }
+
+    @Test
+    void sameDates_onAnotherProperty_areAllowed() throws Exception {
+        createBooking(propertyId, 1, 5);
+
+        postBooking(createProperty("Mountain Cabin"), 1, 5).andExpect(status().isCreated());
+    }
+
+    @Test
+    void update_intoOwnDates_isAllowed_andFreesOldNights() throws Exception {
+        Long id = createBooking(propertyId, 1, 5);
+
+        mockMvc.perform(put("/api/v1/bookings/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bookingJson(propertyId, 3, 8)))
+                .andExpect(status().isOk());
+
+        postBooking(propertyId, 1, 3).andExpect(status().isCreated());
+        postBooking(propertyId, 7, 9).andExpect(status().isConflict());
+    }
+
+    @Test
+    void cancel_freesNights_andRebookConflictsOnceTaken() throws Exception {
+        Long id = createBooking(propertyId, 1, 5);
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", id)).andExpect(status().isOk());
+        assertEquals(0, occupiedNightRepository.count());
+
+        createBooking(propertyId, 2, 4);
+        mockMvc.perform(patch("/api/v1/bookings/{id}/rebook", id)).andExpect(status().isConflict());
+    }
+
+    @Test
+    void delete_freesNights() throws Exception {
+        Long id = createBooking(propertyId, 1, 5);
+        mockMvc.perform(delete("/api/v1/bookings/{id}", id)).andExpect(status().isNoContent());
+
+        postBooking(propertyId, 1, 5).andExpect(status().isCreated());
+    }
+
+    @Test
+    void failedWrite_isRolledBack() throws Exception {
+        createBooking(propertyId, 1, 5);
+        postBooking(propertyId, 4, 8).andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/v1/bookings")).andExpect(jsonPath("$.totalElements").value(1));
+        assertEquals(4, occupiedNightRepository.count());
+    }
+
+    // ==================== BLOCKS ====================
+
+    @Test
+    void blockOverBooking_andBookingOverBlock_areRejected() throws Exception {
+        createBooking(propertyId, 1, 5);
+        postBlock(2, 3).andExpect(status().isConflict());
+
+        postBlock(10, 15).andExpect(status().isCreated());
+        postBooking(propertyId, 12, 20).andExpect(status().isConflict());
+    }
+
+    // ==================== CONCURRENCY ====================
+
+    @Test
+    void concurrentBookingsSameDates_onlyOneSucceeds() throws Exception {
+        String body = bookingJson(propertyId, 30, 35);
+        int threads = 4;
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                startGate.await();
+                return mockMvc.perform(post("/api/v1/bookings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        startGate.countDown();
+
+        int created = 0;
+        for (Future<Integer> result : results) {
+            int status = result.get();
+            if (status == 201) {
+                created++;
+            } else {
+                assertEquals(409, status);
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        mockMvc.perform(get("/api/v1/bookings")).andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    // ==================== STARTUP REBUILD ====================
+
+    @Test
+    void startup_rebuildsStaleTable() throws Exception {
+        createBooking(propertyId, 1, 4);
+        // As left behind by lock-and-check writes: the booking's nights missing, a deleted stay's night still there
+        occupiedNightRepository.deleteAllInBatch();
+        occupiedNightRepository.save(OccupiedNight.of(OccupancyKind.BOOKING, 999L, propertyId, LocalDate.now().plusDays(10)));
+
+        occupiedNightService.afterSingletonsInstantiated();
+
+        assertEquals(3, occupiedNightRepository.count());
+        postBooking(propertyId, 2, 3).andExpect(status().isConflict());
+        postBooking(propertyId, 10, 11).andExpect(status().isCreated());
+    }
+
+    // ==================== HELPERS ====================
+
+    private String bookingJson(Long propertyId, int startOffset, int endOffset) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(startOffset));
+        dto.setEndDate(LocalDate.now().plusDays(endOffset));
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private ResultActions postBooking(Long propertyId, int startOffset, int endOffset) throws Exception {
+        return mockMvc.perform(post("/api/v1/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(bookingJson(propertyId, startOffset, endOffset)));
+    }
+
+    private Long createBooking(Long propertyId, int startOffset, int endOffset) throws Exception {
+        String json = postBooking(propertyId, startOffset, endOffset)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private ResultActions postBlock(int startOffset, int endOffset) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(LocalDate.now().plusDays(startOffset));
+        dto.setEndDate(LocalDate.now().plusDays(endOffset));
+        return mockMvc.perform(post("/api/v1/blocks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)));
+    }
+
+    private Long createProperty(String name) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", objectMapper.writeValueAsString(dto));
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", objectMapper.writeValueAsString(dto));
+    }
+
+    private Long postForId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -1,5 +1,6 @@
 package com.booking.system.controller;
 
+import com.booking.system.dto.BlockRequestDTO;
 import com.booking.system.dto.BookingRequestDTO;
 import com.booking.system.dto.GuestRequestDTO;
 import com.booking.system.dto.PropertyRequestDTO;
@@ -17,6 +18,7 @@ import java.time.LocalDate;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -92,6 +94,18 @@ class PropertyGuestControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getPropertiesAfter_returnsOlderPropertiesOnly() throws Exception {
+        Long older = createProperty("Old House");
+        Long newer = createProperty("New House");
+
+        mockMvc.perform(get("/api/v1/properties/cursor").param("after", String.valueOf(newer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(older))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
     // ==================== PROPERTY — VALIDATION ====================
 
     @Test
@@ -124,6 +138,63 @@ class PropertyGuestControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    // ==================== PROPERTY — AVAILABILITY SEARCH ====================
+
+    @Test
+    void findAvailable_excludesBookedAndBlockedProperties() throws Exception {
+        Long booked = createProperty("Booked House");
+        Long blocked = createProperty("Blocked House");
+        Long free = createProperty("Free House");
+        Long guestId = createGuest("John Doe", "john@example.com");
+        createBooking(booked, guestId, 3, 6);
+        createBlock(blocked, 1, 4);
+
+        mockMvc.perform(get("/api/v1/properties/available")
+                        .param("startDate", LocalDate.now().plusDays(2).toString())
+                        .param("endDate", LocalDate.now().plusDays(5).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(free));
+
+        mockMvc.perform(get("/api/v1/properties/available")
+                        .param("startDate", LocalDate.now().plusDays(6).toString())
+                        .param("endDate", LocalDate.now().plusDays(8).toString()))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[2].id").value(booked));
+    }
+
+    @Test
+    void findAvailable_filtersByType_andSeesCancellations() throws Exception {
+        Long house = createProperty("Beach House");
+        createProperty("City Studio", PropertyType.STUDIO);
+        Long guestId = createGuest("John Doe", "john@example.com");
+        Long bookingId = createBooking(house, guestId, 1, 5);
+
+        mockMvc.perform(get("/api/v1/properties/available")
+                        .param("startDate", LocalDate.now().plusDays(1).toString())
+                        .param("endDate", LocalDate.now().plusDays(5).toString())
+                        .param("type", "HOUSE"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+
+        mockMvc.perform(patch("/api/v1/bookings/{id}/cancel", bookingId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/properties/available")
+                        .param("startDate", LocalDate.now().plusDays(1).toString())
+                        .param("endDate", LocalDate.now().plusDays(5).toString())
+                        .param("type", "HOUSE"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(house));
+    }
+
+    @Test
+    void findAvailable_invalidRange_returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/properties/available")
+                        .param("startDate", LocalDate.now().plusDays(5).toString())
+                        .param("endDate", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
     // ==================== GUEST ====================
 
     @Test
@@ -183,6 +254,17 @@ class PropertyGuestControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getGuestsAfter_firstPage_returnsNextCursor() throws Exception {
+        createGuest("John Doe", "john@example.com");
+        Long newest = createGuest("Jane Doe", "jane@example.com");
+
+        mockMvc.perform(get("/api/v1/guests/cursor").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(newest))
+                .andExpect(jsonPath("$.nextCursor").value(newest));
+    }
+
     // ==================== GUEST — VALIDATION ====================
 
     @Test
@@ -238,9 +320,13 @@ class PropertyGuestControllerIntegrationTest {
     // ==================== HELPERS ====================
 
     private Long createProperty(String name) throws Exception {
+        return createProperty(name, PropertyType.HOUSE);
+    }
+
+    private Long createProperty(String name, PropertyType type) throws Exception {
         PropertyRequestDTO dto = new PropertyRequestDTO();
         dto.setName(name);
-        dto.setType(PropertyType.HOUSE);
+        dto.setType(type);
         String json = mockMvc.perform(post("/api/v1/properties")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
@@ -261,13 +347,26 @@ class PropertyGuestControllerIntegrationTest {
         return objectMapper.readTree(json).get("id").asLong();
     }
 
-    private void createBooking(Long propertyId, Long guestId, int startDay, int endDay) throws Exception {
+    private Long createBooking(Long propertyId, Long guestId, int startDay, int endDay) throws Exception {
         BookingRequestDTO dto = new BookingRequestDTO();
         dto.setPropertyId(propertyId);
         dto.setGuestId(guestId);
         dto.setStartDate(LocalDate.now().plusDays(startDay));
         dto.setEndDate(LocalDate.now().plusDays(endDay));
-        mockMvc.perform(post("/api/v1/bookings")
+        String json = mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+
+    private void createBlock(Long propertyId, int startDay, int endDay) throws Exception {
+        BlockRequestDTO dto = new BlockRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(LocalDate.now().plusDays(startDay));
+        dto.setEndDate(LocalDate.now().plusDays(endDay));
+        mockMvc.perform(post("/api/v1/blocks")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isCreated());
@@ -0,0 +1,158 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyLockMode;
+import com.booking.system.enumeration.PropertyType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every lock mode must prevent double bookings: of several concurrent requests for the same dates
+ * exactly one is created and the others get 409 Conflict.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class PropertyLockModeIntegrationTest {
+
+    private static final int THREADS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // ==================== LOCK MODE ====================
+
+    @Test
+    void createProperty_withoutLockMode_defaultsToPessimistic() throws Exception {
+        mockMvc.perform(post("/api/v1/properties")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Beach House", null)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.lockMode").value("PESSIMISTIC"));
+    }
+
+    @Test
+    void updateProperty_changesLockMode_andKeepsItWhenOmitted() throws Exception {
+        Long propertyId = createProperty(PropertyLockMode.PESSIMISTIC);
+
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Beach House", PropertyLockMode.STRIPED)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lockMode").value("STRIPED"));
+
+        mockMvc.perform(put("/api/v1/properties/{id}", propertyId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(propertyJson("Beach Villa", null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lockMode").value("STRIPED"));
+    }
+
+    // ==================== CONCURRENCY ====================
+
+    @ParameterizedTest
+    @EnumSource(PropertyLockMode.class)
+    void concurrentBookingsSameDates_onlyOneSucceeds(PropertyLockMode lockMode) throws Exception {
+        Long propertyId = createProperty(lockMode);
+        Long guestId = createGuest();
+        String body = bookingJson(propertyId, guestId, 30, 35);
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                startGate.await();
+                return mockMvc.perform(post("/api/v1/bookings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        startGate.countDown();
+
+        int created = 0;
+        int conflicts = 0;
+        for (Future<Integer> result : results) {
+            int status = result.get();
+            if (status == 201) {
+                created++;
+            } else if (status == 409) {
+                conflicts++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created, "Exactly one booking should be created with " + lockMode);
+        assertEquals(THREADS - 1, conflicts, "The other requests should conflict with " + lockMode);
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    // ==================== HELPERS ====================
+
+    private String propertyJson(String name, PropertyLockMode lockMode) throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName(name);
+        dto.setType(PropertyType.HOUSE);
+        dto.setLockMode(lockMode);
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private String bookingJson(Long propertyId, Long guestId, int startOffset, int endOffset) throws Exception {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(LocalDate.now().plusDays(startOffset));
+        dto.setEndDate(LocalDate.now().plusDays(endOffset));
+        return objectMapper.writeValueAsString(dto);
+    }
+
+    private Long createProperty(PropertyLockMode lockMode) throws Exception {
+        return postForId("/api/v1/properties", propertyJson("Beach House", lockMode));
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", objectMapper.writeValueAsString(dto));
+    }
+
+    private Long postForId(String url, String json) throws Exception {
+        String response = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+}
@@ -0,0 +1,85 @@
+package com.booking.system.controller;
+
+import com.booking.system.config.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the application with {@code spring.threads.virtual.enabled=true}: requests are served on virtual
+ * threads and pinned virtual threads are reported by {@link VirtualThreadPinningMonitor}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "booking.virtual-threads.pinning-threshold=10ms"})
+@Import(VirtualThreadIntegrationTest.ThreadController.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class VirtualThreadIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    @Test
+    void requests_areServedOnVirtualThreads() {
+        ResponseEntity<Map> response = restTemplate.getForEntity("/test/thread", Map.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(true, response.getBody().get("virtual"));
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/v1/properties", String.class).getStatusCode());
+    }
+
+    @Test
+    void pinnedVirtualThread_isCounted() throws Exception {
+        assertTrue(pinningMonitor.isRunning());
+        Object monitor = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        Counter pinned = null;
+        for (int attempt = 0; attempt < 100 && pinned == null; attempt++) {
+            pinned = meterRegistry.find("jvm.threads.virtual.pinned").counter();
+            if (pinned == null) {
+                Thread.sleep(100);
+            }
+        }
+        assertNotNull(pinned, "Expected the pinned virtual thread to be reported");
+        assertEquals(VirtualThreadIntegrationTest.class.getName(), pinned.getId().getTag("class").replaceAll("\\$.*", ""));
+    }
+
+    /** Reports the kind of thread serving the request. */
+    @RestController
+    static class ThreadController {
+
+        @GetMapping("/test/thread")
+        Map<String, Object> thread() {
+            return Map.of("virtual", Thread.currentThread().isVirtual());
+        }
+    }
+}
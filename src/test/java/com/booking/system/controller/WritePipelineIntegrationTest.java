@@ -0,0 +1,231 @@
+package com.booking.system.controller;
+
+import com.booking.system.dto.BlockRequestDTO;
+import com.booking.system.dto.BookingRequestDTO;
+import com.booking.system.dto.BookingResponseDTO;
+import com.booking.system.dto.GuestRequestDTO;
+import com.booking.system.dto.PropertyRequestDTO;
+import com.booking.system.enumeration.PropertyType;
+import com.booking.system.exception.DateAlreadyBookedException;
+import com.booking.system.service.WritePipeline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class WritePipelineIntegrationTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(10);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WritePipeline writePipeline;
+
+    // ==================== HTTP ====================
+
+    @Test
+    void createAsync_returns202AndTicketCompletes() throws Exception {
+        BookingRequestDTO request = bookingRequest(createProperty(), createGuest(), START, START.plusDays(3));
+        String location = mockMvc.perform(post("/api/v1/bookings/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/v1/tickets/")))
+                .andExpect(jsonPath("$.kind").value("BOOKING"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getHeader("Location");
+
+        MockHttpServletResponse ticket = awaitTicket(location);
+
+        assertEquals(200, ticket.getStatus());
+        String bookingUrl = objectMapper.readTree(ticket.getContentAsString()).get("location").asText();
+        mockMvc.perform(get(bookingUrl))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate").value(START.toString()));
+    }
+
+    @Test
+    void createAsync_conflict_ticketAnswers409() throws Exception {
+        Long propertyId = createProperty();
+        Long guestId = createGuest();
+        postBooking(bookingRequest(propertyId, guestId, START, START.plusDays(3)));
+
+        String location = createAsync(bookingRequest(propertyId, guestId, START.plusDays(1), START.plusDays(4)));
+
+        assertEquals(409, awaitTicket(location).getStatus());
+    }
+
+    @Test
+    void createAsync_unknownGuest_ticketAnswers404() throws Exception {
+        String location = createAsync(bookingRequest(createProperty(), 999L, START, START.plusDays(3)));
+
+        assertEquals(404, awaitTicket(location).getStatus());
+    }
+
+    @Test
+    void createBlockAsync_thenSyncBookingConflicts() throws Exception {
+        Long propertyId = createProperty();
+        BlockRequestDTO block = new BlockRequestDTO();
+        block.setPropertyId(propertyId);
+        block.setStartDate(START);
+        block.setEndDate(START.plusDays(5));
+        String location = mockMvc.perform(post("/api/v1/blocks/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(block)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+        assertEquals(200, awaitTicket(location).getStatus());
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(propertyId, createGuest(), START, START.plusDays(2)))))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void createAsync_invalidDates_returns400() throws Exception {
+        mockMvc.perform(post("/api/v1/bookings/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bookingRequest(createProperty(), createGuest(), START, START))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTicket_unknown_returns404() throws Exception {
+        mockMvc.perform(get("/api/v1/tickets/{id}", "no-such-ticket"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ==================== FUTURES ====================
+
+    @Test
+    void submit_overlappingRequests_exactlyOneCommits() throws Exception {
+        Long propertyId = createProperty();
+        Long guestId = createGuest();
+        List<CompletableFuture<BookingResponseDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(writePipeline.submit(bookingRequest(propertyId, guestId, START, START.plusDays(3))));
+        }
+
+        int created = 0;
+        for (CompletableFuture<BookingResponseDTO> future : futures) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(DateAlreadyBookedException.class, e.getCause());
+            }
+        }
+
+        assertEquals(1, created);
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    void submit_adjacentRequests_allCommit() throws Exception {
+        Long propertyId = createProperty();
+        Long guestId = createGuest();
+        List<CompletableFuture<BookingResponseDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            futures.add(writePipeline.submit(bookingRequest(propertyId, guestId, START.plusDays(i), START.plusDays(i + 1))));
+        }
+
+        for (CompletableFuture<BookingResponseDTO> future : futures) {
+            assertEquals(propertyId, future.get(10, TimeUnit.SECONDS).getPropertyDTO().getId());
+        }
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(jsonPath("$.totalElements").value(30));
+    }
+
+    // ==================== HELPERS ====================
+
+    private MockHttpServletResponse awaitTicket(String location) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        MockHttpServletResponse response;
+        do {
+            response = mockMvc.perform(get(location)).andReturn().getResponse();
+            if (response.getStatus() != 202) {
+                return response;
+            }
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+        return response;
+    }
+
+    private String createAsync(BookingRequestDTO request) throws Exception {
+        return mockMvc.perform(post("/api/v1/bookings/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+    }
+
+    private void postBooking(BookingRequestDTO request) throws Exception {
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    private BookingRequestDTO bookingRequest(Long propertyId, Long guestId, LocalDate startDate, LocalDate endDate) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setPropertyId(propertyId);
+        dto.setGuestId(guestId);
+        dto.setStartDate(startDate);
+        dto.setEndDate(endDate);
+        return dto;
+    }
+
+    private Long createProperty() throws Exception {
+        PropertyRequestDTO dto = new PropertyRequestDTO();
+        dto.setName("Beach House");
+        dto.setType(PropertyType.HOUSE);
+        return postForId("/api/v1/properties", dto);
+    }
+
+    private Long createGuest() throws Exception {
+        GuestRequestDTO dto = new GuestRequestDTO();
+        dto.setName("John Doe");
+        dto.setEmail("john@example.com");
+        return postForId("/api/v1/guests", dto);
+    }
+
+    private Long postForId(String url, Object dto) throws Exception {
+        String json = mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json).get("id").asLong();
+    }
+}
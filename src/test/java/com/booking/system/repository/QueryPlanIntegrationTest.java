@@ -0,0 +1,148 @@
+package com.booking.system.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static com.booking.system.enumeration.BookingStatus.BOOKED;
+import static com.booking.system.enumeration.BookingStatus.REBOOKED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the overlap and listing queries through their repositories, captures the SQL Hibernate sends and asserts
+ * H2's {@code EXPLAIN} plan for it uses the indexes from the Flyway schema instead of scanning the table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.booking.system.repository.QueryPlanIntegrationTest$SqlRecorder")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class QueryPlanIntegrationTest {
+
+    private static final int PROPERTIES = 20;
+    private static final int BOOKINGS_PER_PROPERTY = 25;
+    private static final LocalDate START = LocalDate.now().plusDays(1);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockRepository blockRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = IntStream.rangeClosed(1, PROPERTIES).mapToObj(i -> new Object[]{"Property " + i}).toList();
+        jdbcTemplate.batchUpdate("INSERT INTO property (name, type, lock_mode) VALUES (?, 'HOUSE', 'PESSIMISTIC')", rows);
+        jdbcTemplate.batchUpdate("INSERT INTO guest (name, email) VALUES (?, 'guest@example.com')", rows);
+        jdbcTemplate.batchUpdate("INSERT INTO booking (id, property_id, guest_id, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, 'BOOKED')",
+                IntStream.range(0, PROPERTIES * BOOKINGS_PER_PROPERTY).mapToObj(i -> new Object[]{
+                        i + 1, i % PROPERTIES + 1, i % PROPERTIES + 1,
+                        START.plusDays(2L * (i / PROPERTIES)), START.plusDays(2L * (i / PROPERTIES) + 1)}).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO blocks (id, property_id, start_date, end_date) VALUES (?, ?, ?, ?)",
+                IntStream.range(0, PROPERTIES).mapToObj(i -> new Object[]{i + 1, i + 1, START, START.plusDays(1)}).toList());
+        jdbcTemplate.execute("ANALYZE");
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    // ==================== OVERLAP CHECKS ====================
+
+    @Test
+    void bookingOverlapCheck_usesPropertyDatesIndex() {
+        bookingRepository.hasOverlap(1L, START, START.plusDays(5), List.of(BOOKED, REBOOKED), null);
+
+        assertThat(explainLast()).contains("IDX_BOOKING_PROPERTY_DATES: ").contains("PROPERTY_ID = ?");
+    }
+
+    @Test
+    void bookingOverlappingRanges_usePropertyDatesIndex() {
+        bookingRepository.findOverlappingRanges(1L, START, START.plusDays(5), List.of(BOOKED, REBOOKED));
+
+        assertThat(explainLast()).contains("IDX_BOOKING_PROPERTY_DATES: ");
+    }
+
+    @Test
+    void blockOverlapCheck_usesPropertyDatesIndex() {
+        blockRepository.hasOverlap(1L, START, START.plusDays(5), null);
+
+        assertThat(explainLast()).contains("IDX_BLOCKS_PROPERTY_DATES: ").contains("PROPERTY_ID = ?");
+    }
+
+    @Test
+    void occupancyQuery_usesBothPropertyDatesIndexes() {
+        bookingRepository.findOccupancy(List.of(1L, 2L), START, START.plusMonths(12), List.of(BOOKED, REBOOKED));
+
+        assertThat(explainLast()).contains("IDX_BOOKING_PROPERTY_DATES: ").contains("IDX_BLOCKS_PROPERTY_DATES: ");
+    }
+
+    // ==================== LISTINGS ====================
+
+    @Test
+    void bookingsPage_isSortedByPrimaryKey() {
+        bookingRepository.findAll(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(explain(SqlRecorder.STATEMENTS.getFirst())).contains("PRIMARY_KEY").contains("/* index sorted */");
+    }
+
+    @Test
+    void blocksPage_isSortedByPrimaryKey() {
+        blockRepository.findAll(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(explain(SqlRecorder.STATEMENTS.getFirst())).contains("PRIMARY_KEY").contains("/* index sorted */");
+    }
+
+    @Test
+    void bookingsKeysetPage_seeksPrimaryKey() {
+        bookingRepository.findByIdLessThan(100L, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertThat(explainLast()).containsPattern("PRIMARY_KEY_\\w+: ID < \\?").contains("/* index sorted */");
+    }
+
+    // ==================== GUEST LOOKUPS ====================
+
+    @Test
+    void guestBookings_useGuestIndex() {
+        assertThat(explain("SELECT b.id FROM booking b WHERE b.guest_id = ?")).contains("IDX_BOOKING_GUEST: GUEST_ID = ?");
+    }
+
+    @Test
+    void guestForeignKey_reusesGuestIndex() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT index_name FROM information_schema.indexes WHERE table_name = 'BOOKING'", String.class);
+
+        assertThat(indexes).contains("IDX_BOOKING_GUEST").noneMatch(name -> name.startsWith("FK_BOOKING_GUEST"));
+    }
+
+    // ==================== HELPERS ====================
+
+    private String explainLast() {
+        return explain(SqlRecorder.STATEMENTS.getLast());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).replaceAll("\\s+", " ");
+    }
+
+    /** Records every SQL statement Hibernate prepares, unchanged. */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}